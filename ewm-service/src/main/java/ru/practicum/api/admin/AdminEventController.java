@@ -6,13 +6,19 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.core.persistance.model.dto.event.EventExportFormat;
 import ru.practicum.core.persistance.model.dto.event.EventFullDto;
 import ru.practicum.core.persistance.model.dto.event.UpdateEventAdminRequest;
 import ru.practicum.core.persistance.model.dto.event.filter.EventSearchAdmin;
 import ru.practicum.core.service.EventService;
+import ru.practicum.core.utils.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -35,7 +41,8 @@ public class AdminEventController {
                                                      @RequestParam(required = false)
                                                      @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
                                                      @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                     @RequestParam(defaultValue = "10") @Positive int size) {
+                                                     @RequestParam(defaultValue = "10") @Positive int size,
+                                                     @RequestParam(required = false) String cursor) {
 
         EventSearchAdmin search = EventSearchAdmin.builder()
                 .users(users)
@@ -45,10 +52,46 @@ public class AdminEventController {
                 .rangeEnd(rangeEnd)
                 .from(from)
                 .size(size)
+                .cursor(PageCursor.decode(cursor))
                 .build();
 
         log.info("Получен запрос GET /admin/events с параметрами {}", search);
-        return ResponseEntity.ok(eventService.searchAdmin(search));
+        List<EventFullDto> events = eventService.searchAdmin(search);
+        return ResponseEntity.ok()
+                .headers(PageCursor.nextPageHeaders(events, size, event -> PageCursor.of(event.getEventDate(), event.getId())))
+                .body(events);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) List<Long> users,
+                                                        @RequestParam(required = false) List<String> states,
+                                                        @RequestParam(required = false) List<Long> categories,
+                                                        @RequestParam(required = false)
+                                                        @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeStart,
+                                                        @RequestParam(required = false)
+                                                        @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
+                                                        @RequestParam(defaultValue = "NDJSON") EventExportFormat format) {
+
+        EventSearchAdmin search = EventSearchAdmin.builder()
+                .users(users)
+                .states(states)
+                .categories(categories)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .build();
+
+        log.info("Получен запрос GET /admin/events/export в формате {} с параметрами {}", format, search);
+        StreamingResponseBody body = output -> {
+            long exported = eventService.exportAdmin(search, format, output);
+            log.info("Выгружено {} событий в формате {}", exported, format);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("events." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @PatchMapping("/{eventId}")
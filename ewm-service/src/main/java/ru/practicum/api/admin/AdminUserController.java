@@ -11,8 +11,12 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.core.persistance.model.dto.user.NewUserRequest;
 import ru.practicum.core.persistance.model.dto.user.UserDto;
+import ru.practicum.core.persistance.model.dto.user.UserImportFormat;
+import ru.practicum.core.persistance.model.dto.user.UserImportResult;
 import ru.practicum.core.service.UserService;
+import ru.practicum.core.utils.PageCursor;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -27,9 +31,13 @@ public class AdminUserController {
     @GetMapping()
     public ResponseEntity<List<UserDto>> getAll(@RequestParam(required = false) List<Long> ids,
                                                 @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                @RequestParam(defaultValue = "10") @Positive Integer size) {
+                                                @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                @RequestParam(required = false) String cursor) {
         log.info("Получен запрос GET /admin/users");
-        return new ResponseEntity<>(service.getAll(ids, from, size), HttpStatus.OK);
+        List<UserDto> users = service.getAll(ids, from, size, PageCursor.decode(cursor));
+        return new ResponseEntity<>(users,
+                PageCursor.nextPageHeaders(users, size, user -> PageCursor.ofId(user.getId())),
+                HttpStatus.OK);
     }
 
     @PostMapping()
@@ -38,6 +46,13 @@ public class AdminUserController {
         return new ResponseEntity<>(service.create(userRequest), HttpStatus.CREATED);
     }
 
+    @PostMapping("/import")
+    public ResponseEntity<UserImportResult> importUsers(InputStream body,
+                                                        @RequestParam(defaultValue = "JSON") UserImportFormat format) {
+        log.info("Получен запрос POST /admin/users/import в формате {}", format);
+        return ResponseEntity.ok(service.importUsers(body, format));
+    }
+
     @DeleteMapping("/{userId}")
     public ResponseEntity<Void> delete(@PathVariable Long userId) {
         log.info("Получен запрос DELETE /admin/users/{}", userId);
@@ -23,9 +23,10 @@ public class CommonCategoryController {
 
     @GetMapping
     public ResponseEntity<List<CategoryDto>> getAll(@RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                    @RequestParam(defaultValue = "10") @Positive Integer size) {
+                                                    @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                    @RequestParam(defaultValue = "false") boolean withCounts) {
         log.info("Получен запрос GET /categories");
-        return ResponseEntity.ok(categoryService.getAll(from, size));
+        return ResponseEntity.ok(categoryService.getAll(from, size, withCounts));
     }
 
     @GetMapping("/{id}")
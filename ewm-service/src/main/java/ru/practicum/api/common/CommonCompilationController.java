@@ -2,13 +2,14 @@ package ru.practicum.api.common;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.core.persistance.model.dto.compilation.CompilationDto;
+import ru.practicum.core.persistance.model.dto.compilation.CompilationSnapshot;
 import ru.practicum.core.service.CompilationService;
-
-import java.util.List;
+import ru.practicum.core.utils.PageCursor;
 
 @RestController
 @RequiredArgsConstructor
@@ -19,16 +20,70 @@ public class CommonCompilationController {
     private final CompilationService compilationService;
 
     @GetMapping
-    public ResponseEntity<List<CompilationDto>> findAll(@RequestParam(required = false) Boolean pinned,
-                                                        @RequestParam(defaultValue = "0") Integer from,
-                                                        @RequestParam(defaultValue = "10") Integer size) {
+    public ResponseEntity<byte[]> findAll(@RequestParam(required = false) Boolean pinned,
+                                          @RequestParam(defaultValue = "0") Integer from,
+                                          @RequestParam(defaultValue = "10") Integer size,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Получен запрос GET /compilations");
-        return ResponseEntity.ok(compilationService.findAll(pinned, from, size));
+        return toResponse(compilationService.findAllSnapshot(pinned, from, size, PageCursor.decode(cursor)), acceptEncoding);
     }
 
     @GetMapping("/{compId}")
-    public ResponseEntity<CompilationDto> findById(@PathVariable Long compId) {
+    public ResponseEntity<byte[]> findById(@PathVariable Long compId,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Получен запрос GET /compilations/{}", compId);
-        return ResponseEntity.ok(compilationService.findById(compId));
+        return toResponse(compilationService.findSnapshotById(compId), acceptEncoding);
+    }
+
+    // При совпадении If-None-Match ответ 304 формирует сам Spring по заголовку ETag
+    private ResponseEntity<byte[]> toResponse(CompilationSnapshot snapshot, String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(gzip ? snapshot.getGzipETag() : snapshot.getETag())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (snapshot.getNextCursor() != null) {
+            response.header(PageCursor.NEXT_CURSOR_HEADER, snapshot.getNextCursor());
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? snapshot.getGzip() : snapshot.getJson());
+    }
+
+    // gzip допустим, если он или «*» указаны с ненулевым q; явное указание gzip важнее «*»
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            double quality = quality(parts);
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = quality;
+            } else if (name.equals("*")) {
+                any = quality;
+            }
+        }
+        Double quality = gzip != null ? gzip : any;
+        return quality != null && quality > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
     }
 }
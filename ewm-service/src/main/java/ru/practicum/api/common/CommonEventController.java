@@ -1,5 +1,7 @@
 package ru.practicum.api.common;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
@@ -8,11 +10,15 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.core.persistance.model.dto.event.EventClusterDto;
+import ru.practicum.core.persistance.model.dto.event.EventFacetsDto;
 import ru.practicum.core.persistance.model.dto.event.EventFullDto;
 import ru.practicum.core.persistance.model.dto.event.EventShortDto;
 import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
 import ru.practicum.core.persistance.model.dto.event.filter.EventSearchOrder;
+import ru.practicum.core.persistance.model.dto.event.filter.GeoBox;
 import ru.practicum.core.service.EventService;
+import ru.practicum.core.utils.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -37,7 +43,12 @@ public class CommonEventController {
                                                        @RequestParam(defaultValue = "false") Boolean onlyAvailable,
                                                        @RequestParam(defaultValue = "EVENT_DATE") String sort,
                                                        @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                       @RequestParam(defaultValue = "10") @Positive int size) {
+                                                       @RequestParam(defaultValue = "10") @Positive int size,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Double lat,
+                                                       @RequestParam(required = false) Double lon,
+                                                       @RequestParam(required = false) Double radius,
+                                                       @RequestParam(required = false) String bbox) {
 
         EventSearchCommon eventSearchCommon = EventSearchCommon.builder()
                 .text(text)
@@ -49,9 +60,76 @@ public class CommonEventController {
                 .sort(EventSearchOrder.valueOf(sort))
                 .from(from)
                 .size(size)
+                .cursor(PageCursor.decode(cursor))
+                .lat(lat)
+                .lon(lon)
+                .radius(radius)
+                .box(GeoBox.parse(bbox))
                 .build();
         log.info("Получен запрос GET /events с параметрами {}", eventSearchCommon);
-        return ResponseEntity.ok(service.searchCommon(eventSearchCommon));
+        List<EventShortDto> events = service.searchCommon(eventSearchCommon);
+        EventSearchOrder order = eventSearchCommon.getSort();
+        if (order == EventSearchOrder.DISTANCE) {
+            return ResponseEntity.ok(events);
+        }
+        return ResponseEntity.ok()
+                .headers(PageCursor.nextPageHeaders(events, size, event -> order == EventSearchOrder.VIEWS
+                        ? PageCursor.of(event.getViews(), event.getId())
+                        : PageCursor.of(event.getEventDate(), event.getId())))
+                .body(events);
+    }
+
+    @GetMapping("/clusters")
+    public ResponseEntity<List<EventClusterDto>> findClusters(@RequestParam String bbox,
+                                                              @RequestParam @Min(0) @Max(21) int zoom,
+                                                              @RequestParam(required = false) String text,
+                                                              @RequestParam(required = false) List<Long> categories,
+                                                              @RequestParam(required = false) Boolean paid,
+                                                              @RequestParam(required = false)
+                                                              @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeStart,
+                                                              @RequestParam(required = false)
+                                                              @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
+                                                              @RequestParam(defaultValue = "false") Boolean onlyAvailable) {
+        EventSearchCommon eventSearchCommon = EventSearchCommon.builder()
+                .text(text)
+                .categories(categories)
+                .paid(paid)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .onlyAvailable(onlyAvailable)
+                .box(GeoBox.parse(bbox))
+                .build();
+        log.info("Получен запрос GET /events/clusters с параметрами {}, zoom={}", eventSearchCommon, zoom);
+        return ResponseEntity.ok(service.findClusters(eventSearchCommon, zoom));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<EventFacetsDto> findFacets(@RequestParam(required = false) String text,
+                                                     @RequestParam(required = false) List<Long> categories,
+                                                     @RequestParam(required = false) Boolean paid,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeStart,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
+                                                     @RequestParam(defaultValue = "false") Boolean onlyAvailable,
+                                                     @RequestParam(required = false) Double lat,
+                                                     @RequestParam(required = false) Double lon,
+                                                     @RequestParam(required = false) Double radius,
+                                                     @RequestParam(required = false) String bbox) {
+        EventSearchCommon eventSearchCommon = EventSearchCommon.builder()
+                .text(text)
+                .categories(categories)
+                .paid(paid)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .onlyAvailable(onlyAvailable)
+                .lat(lat)
+                .lon(lon)
+                .radius(radius)
+                .box(GeoBox.parse(bbox))
+                .build();
+        log.info("Получен запрос GET /events/facets с параметрами {}", eventSearchCommon);
+        return ResponseEntity.ok(service.findFacets(eventSearchCommon));
     }
 
     @GetMapping("/{eventId}")
@@ -1,6 +1,8 @@
 package ru.practicum.api.secured;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -13,9 +15,13 @@ import ru.practicum.core.persistance.model.dto.event.NewEventDto;
 import ru.practicum.core.persistance.model.dto.event.UpdateEventUserRequest;
 import ru.practicum.core.persistance.model.dto.request.EventRequestStatusUpdateRequest;
 import ru.practicum.core.persistance.model.dto.request.EventRequestStatusUpdateResult;
+import ru.practicum.core.persistance.model.dto.request.ModerationJobDto;
 import ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
 import ru.practicum.core.service.EventService;
+import ru.practicum.core.service.ModerationJobService;
 import ru.practicum.core.service.ParticipationRequestService;
+import ru.practicum.core.utils.PageCursor;
 
 import java.util.List;
 
@@ -27,13 +33,18 @@ import java.util.List;
 public class SecuredEventController {
     private final EventService eventService;
     private final ParticipationRequestService participationRequestService;
+    private final ModerationJobService moderationJobService;
 
     @GetMapping
     public ResponseEntity<List<EventShortDto>> getEventsByUserId(@PathVariable Long userId,
                                                                  @RequestParam(defaultValue = "0") Integer from,
-                                                                 @RequestParam(defaultValue = "10") Integer size) {
+                                                                 @RequestParam(defaultValue = "10") Integer size,
+                                                                 @RequestParam(required = false) String cursor) {
         log.info("Получен запрос GET /users/{}/events", userId);
-        return ResponseEntity.ok(eventService.findByUserId(userId, from, size));
+        List<EventShortDto> events = eventService.findByUserId(userId, from, size, PageCursor.decode(cursor));
+        return ResponseEntity.ok()
+                .headers(PageCursor.nextPageHeaders(events, size, event -> PageCursor.of(event.getEventDate(), event.getId())))
+                .body(events);
     }
 
     @GetMapping("/{eventId}")
@@ -45,9 +56,17 @@ public class SecuredEventController {
 
     @GetMapping("/{eventId}/requests")
     public ResponseEntity<List<ParticipationRequestDto>> getRequests(@PathVariable Long userId,
-                                                                    @PathVariable Long eventId) {
+                                                                    @PathVariable Long eventId,
+                                                                    @RequestParam(required = false) ParticipationRequestStatus status,
+                                                                    @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                                    @RequestParam(required = false) @Positive Integer size,
+                                                                    @RequestParam(required = false) String cursor) {
         log.info("Получен запрос GET /users/{}/events/{}/requests", userId, eventId);
-        return ResponseEntity.ok(participationRequestService.getAllByEventAndInitiator(userId, eventId));
+        List<ParticipationRequestDto> requests = participationRequestService.getAllByEventAndInitiator(userId, eventId,
+                status, from, size, PageCursor.decode(cursor));
+        return ResponseEntity.ok()
+                .headers(PageCursor.nextPageHeaders(requests, size, request -> PageCursor.ofId(request.getId())))
+                .body(requests);
     }
 
     @PostMapping()
@@ -73,4 +92,20 @@ public class SecuredEventController {
         log.info("Получен запрос PATCH /users/{}/events/{}/request с параметрами: {}", userId, eventId, eventDto);
         return ResponseEntity.ok(participationRequestService.updateStatus(userId, eventId, eventDto));
     }
+
+    @PostMapping("/{eventId}/requests/jobs")
+    public ResponseEntity<ModerationJobDto> submitRequestJob(@PathVariable Long userId,
+                                                             @PathVariable Long eventId,
+                                                             @RequestBody @Valid EventRequestStatusUpdateRequest eventDto) {
+        log.info("Получен запрос POST /users/{}/events/{}/requests/jobs с параметрами: {}", userId, eventId, eventDto);
+        return new ResponseEntity<>(moderationJobService.submit(userId, eventId, eventDto), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/{eventId}/requests/jobs/{jobId}")
+    public ResponseEntity<ModerationJobDto> getRequestJob(@PathVariable Long userId,
+                                                          @PathVariable Long eventId,
+                                                          @PathVariable Long jobId) {
+        log.info("Получен запрос GET /users/{}/events/{}/requests/jobs/{}", userId, eventId, jobId);
+        return ResponseEntity.ok(moderationJobService.findById(userId, eventId, jobId));
+    }
 }
@@ -1,5 +1,7 @@
 package ru.practicum.api.secured;
 
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -7,7 +9,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
 import ru.practicum.core.service.ParticipationRequestService;
+import ru.practicum.core.service.admission.RegistrationRateLimiter;
+import ru.practicum.core.utils.PageCursor;
 
 import java.util.List;
 
@@ -19,17 +24,28 @@ import java.util.List;
 public class SecuredParticipationRequestController {
 
     private final ParticipationRequestService participationRequestService;
+    private final RegistrationRateLimiter registrationRateLimiter;
 
     @GetMapping()
-    public ResponseEntity<List<ParticipationRequestDto>> getAll(@PathVariable Long userId) {
+    public ResponseEntity<List<ParticipationRequestDto>> getAll(@PathVariable Long userId,
+                                                                @RequestParam(required = false) ParticipationRequestStatus status,
+                                                                @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                                @RequestParam(required = false) @Positive Integer size,
+                                                                @RequestParam(required = false) String cursor) {
         log.info("Получен запрос GET /users/{}/requests", userId);
-        return ResponseEntity.ok(participationRequestService.getAllByUser(userId));
+        List<ParticipationRequestDto> requests = participationRequestService.getAllByUser(userId, status, from, size,
+                PageCursor.decode(cursor));
+        return ResponseEntity.ok()
+                .headers(PageCursor.nextPageHeaders(requests, size,
+                        request -> PageCursor.of(request.getCreated(), request.getId())))
+                .body(requests);
     }
 
     @PostMapping()
     public ResponseEntity<ParticipationRequestDto> create(@PathVariable Long userId,
                                                           @RequestParam Long eventId) {
         log.info("Получен запрос POST /users/{}/requests?eventId={}", userId, eventId);
+        registrationRateLimiter.acquire(userId, eventId);
         return new ResponseEntity<>(participationRequestService.create(userId, eventId), HttpStatus.CREATED);
     }
 
@@ -0,0 +1,52 @@
+package ru.practicum.core.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "EWMServiceApp.datasource.replicas.urls")
+public class DataSourceRoutingConfig {
+
+    @Value("${EWMServiceApp.datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${EWMServiceApp.datasource.replicas.lag-query:SELECT CASE WHEN pg_last_wal_receive_lsn() = " +
+            "pg_last_wal_replay_lsn() THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END}")
+    private String lagQuery;
+
+    @Value("${EWMServiceApp.datasource.replicas.max-lag-seconds:5}")
+    private double maxLagSeconds;
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties) {
+        DataSource primary = properties.initializeDataSourceBuilder().build();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            replicas.put("replica-" + i, DataSourceBuilder.create()
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(replicaUrls.get(i))
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build());
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, lagQuery, maxLagSeconds);
+    }
+
+    // Соединение берётся при первом запросе, когда признак readOnly транзакции уже известен
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.core.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final Set<String> healthyReplicas = Collections.synchronizedSet(new LinkedHashSet<>());
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, String lagQuery,
+                                    double maxLagSeconds) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> candidates;
+        synchronized (healthyReplicas) {
+            candidates = List.copyOf(healthyReplicas);
+        }
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            return getResolvedDefaultDataSource().getConnection();
+        }
+        try {
+            return replicas.get(key).getConnection();
+        } catch (SQLException e) {
+            // Недоступная реплика исключается до следующей проверки, запрос уходит на основную базу
+            healthyReplicas.remove(key);
+            log.warn("Реплика {} недоступна, чтение переключено на основную базу: {}", key, e.getMessage());
+            return getResolvedDefaultDataSource().getConnection();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${EWMServiceApp.datasource.replicas.lag-check-interval-ms:5000}")
+    public void checkReplicas() {
+        replicas.forEach((name, replica) -> {
+            try {
+                Double lag = new JdbcTemplate(replica).queryForObject(lagQuery, Double.class);
+                if (lag != null && lag <= maxLagSeconds) {
+                    if (healthyReplicas.add(name)) {
+                        log.info("Реплика {} доступна для чтения, отставание {} с", name, lag);
+                    }
+                } else if (healthyReplicas.remove(name)) {
+                    log.warn("Реплика {} отстаёт на {} с и исключена из чтения", name, lag);
+                }
+            } catch (RuntimeException e) {
+                if (healthyReplicas.remove(name)) {
+                    log.warn("Реплика {} исключена из чтения: {}", name, e.getMessage());
+                }
+            }
+        });
+    }
+
+    public Set<String> getHealthyReplicas() {
+        synchronized (healthyReplicas) {
+            return Set.copyOf(healthyReplicas);
+        }
+    }
+}
@@ -2,10 +2,15 @@ package ru.practicum.core.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.core.persistance.model.dto.event.EventExportFormat;
+import ru.practicum.core.persistance.model.dto.user.UserImportFormat;
 import ru.practicum.core.utils.GlobalInterceptor;
 
+import java.util.Locale;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -20,4 +25,13 @@ public class WebConfig implements WebMvcConfigurer {
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(globalInterceptor).addPathPatterns("/**");
     }
+
+    // Формат принимается в любом регистре; неизвестное значение превращается в 400, а не в 500
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, EventExportFormat.class,
+                value -> EventExportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+        registry.addConverter(String.class, UserImportFormat.class,
+                value -> UserImportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+    }
 }
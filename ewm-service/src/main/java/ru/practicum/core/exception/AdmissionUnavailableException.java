@@ -0,0 +1,7 @@
+package ru.practicum.core.exception;
+
+public class AdmissionUnavailableException extends RuntimeException {
+    public AdmissionUnavailableException(String message) {
+        super(message);
+    }
+}
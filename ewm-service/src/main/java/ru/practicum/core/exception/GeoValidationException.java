@@ -0,0 +1,7 @@
+package ru.practicum.core.exception;
+
+public class GeoValidationException extends RuntimeException {
+    public GeoValidationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.core.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,217 @@
+package ru.practicum.core.persistance.listener;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.event.spi.PreDeleteEvent;
+import org.hibernate.event.spi.PreDeleteEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import ru.practicum.core.persistance.model.Category;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Set;
+
+// Проекция и счётчики категорий обновляются на том же соединении и в той же транзакции, что и запись в events
+@Component
+@RequiredArgsConstructor
+public class UpcomingEventProjection implements PostInsertEventListener, PostUpdateEventListener,
+        PreDeleteEventListener {
+    private static final String SELECT_CATEGORY = "SELECT category_id FROM upcoming_events WHERE id = ?";
+    private static final String DELETE = "DELETE FROM upcoming_events WHERE id = ?";
+    private static final String INSERT = "INSERT INTO upcoming_events (id, annotation, category_id, " +
+            "confirmed_requests, description, event_date, initiator_id, lat, lon, geohash, paid, available, title, " +
+            "views) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE upcoming_events SET annotation = ?, confirmed_requests = ?, " +
+            "description = ?, initiator_id = ?, lat = ?, lon = ?, geohash = ?, paid = ?, available = ?, title = ?, " +
+            "views = ? WHERE id = ?";
+    // Изменение этих полей может добавить событие в проекцию, убрать его или перенести между категориями
+    private static final Set<String> MEMBERSHIP_PROPERTIES = Set.of("state", "eventDate", "category");
+    private static final Set<String> PROJECTED_PROPERTIES = Set.of("annotation", "confirmedRequests", "description",
+            "initiator", "lat", "lon", "geohash", "paid", "available", "title", "views");
+    private static final String INSERT_COUNTERS = "INSERT INTO category_event_counters " +
+            "(category_id, events, upcoming_events) VALUES (?, 0, 0)";
+    private static final String ADD_EVENTS = "UPDATE category_event_counters SET events = events + ? " +
+            "WHERE category_id = ?";
+    private static final String ADD_UPCOMING = "UPDATE category_event_counters " +
+            "SET upcoming_events = upcoming_events + ? WHERE category_id = ?";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.PRE_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Event entity) {
+            refresh(entity, null, event.getSession());
+        } else if (event.getEntity() instanceof Category category) {
+            event.getSession().doWork(connection -> {
+                try (PreparedStatement insert = connection.prepareStatement(INSERT_COUNTERS)) {
+                    insert.setLong(1, category.getId());
+                    insert.executeUpdate();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Event entity) {
+            int[] dirty = event.getDirtyProperties();
+            if (dirty != null && !isDirty(event, dirty, MEMBERSHIP_PROPERTIES)) {
+                // Принадлежность проекции не изменилась: хватает одного UPDATE, а чаще всего и его не нужно
+                if (isDirty(event, dirty, PROJECTED_PROPERTIES)) {
+                    update(entity, event.getSession());
+                }
+                return;
+            }
+            Long categoryBefore = categoryId(entity.getCategory());
+            if (event.getOldState() != null) {
+                int index = event.getPersister().getEntityMetamodel().getPropertyIndex("category");
+                categoryBefore = categoryId((Category) event.getOldState()[index]);
+            }
+            refresh(entity, categoryBefore, event.getSession());
+        }
+    }
+
+    @Override
+    public boolean onPreDelete(PreDeleteEvent event) {
+        if (event.getEntity() instanceof Event entity) {
+            event.getSession().doWork(connection -> {
+                Long upcomingBefore = upcomingCategory(connection, entity.getId());
+                add(connection, ADD_EVENTS, categoryId(entity.getCategory()), null);
+                add(connection, ADD_UPCOMING, upcomingBefore, null);
+            });
+        }
+        return false;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private boolean isDirty(PostUpdateEvent event, int[] dirty, Set<String> properties) {
+        String[] names = event.getPersister().getPropertyNames();
+        for (int index : dirty) {
+            if (properties.contains(names[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Строки может не быть, если событие не предстоящее; тогда UPDATE ничего не меняет
+    private void update(Event event, EventSource session) {
+        session.doWork(connection -> {
+            try (PreparedStatement update = connection.prepareStatement(UPDATE)) {
+                update.setString(1, event.getAnnotation());
+                update.setObject(2, event.getConfirmedRequests());
+                update.setString(3, event.getDescription());
+                update.setObject(4, event.getInitiator() == null ? null : event.getInitiator().getId());
+                update.setObject(5, event.getLat());
+                update.setObject(6, event.getLon());
+                update.setString(7, event.getGeohash());
+                update.setObject(8, event.getPaid());
+                update.setObject(9, event.getAvailable());
+                update.setString(10, event.getTitle());
+                update.setObject(11, event.getViews());
+                update.setLong(12, event.getId());
+                update.executeUpdate();
+            }
+        });
+    }
+
+    // categoryBefore равен null для только что созданного события
+    private void refresh(Event event, Long categoryBefore, EventSource session) {
+        session.doWork(connection -> {
+            Long upcomingBefore = upcomingCategory(connection, event.getId());
+            if (upcomingBefore != null) {
+                try (PreparedStatement delete = connection.prepareStatement(DELETE)) {
+                    delete.setLong(1, event.getId());
+                    delete.executeUpdate();
+                }
+            }
+            Long category = categoryId(event.getCategory());
+            boolean upcoming = event.getState() == EventState.PUBLISHED
+                    && event.getEventDate().isAfter(LocalDateTime.now());
+            if (upcoming) {
+                try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                    insert.setLong(1, event.getId());
+                    insert.setString(2, event.getAnnotation());
+                    insert.setObject(3, category);
+                    insert.setObject(4, event.getConfirmedRequests());
+                    insert.setString(5, event.getDescription());
+                    insert.setObject(6, event.getEventDate());
+                    insert.setObject(7, event.getInitiator() == null ? null : event.getInitiator().getId());
+                    insert.setObject(8, event.getLat());
+                    insert.setObject(9, event.getLon());
+                    insert.setString(10, event.getGeohash());
+                    insert.setObject(11, event.getPaid());
+                    insert.setObject(12, event.getAvailable());
+                    insert.setString(13, event.getTitle());
+                    insert.setObject(14, event.getViews());
+                    insert.executeUpdate();
+                }
+            }
+            add(connection, ADD_EVENTS, categoryBefore, category);
+            add(connection, ADD_UPCOMING, upcomingBefore, upcoming ? category : null);
+        });
+    }
+
+    private Long upcomingCategory(Connection connection, Long eventId) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(SELECT_CATEGORY)) {
+            select.setLong(1, eventId);
+            try (ResultSet resultSet = select.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : null;
+            }
+        }
+    }
+
+    // Переносит единицу счётчика из категории before в категорию after; null означает отсутствие категории
+    private void add(Connection connection, String sql, Long before, Long after) throws SQLException {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        try (PreparedStatement update = connection.prepareStatement(sql)) {
+            if (before != null) {
+                update.setLong(1, -1);
+                update.setLong(2, before);
+                update.addBatch();
+            }
+            if (after != null) {
+                update.setLong(1, 1);
+                update.setLong(2, after);
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+    }
+
+    private Long categoryId(Category category) {
+        return category == null ? null : category.getId();
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.core.persistance.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Счётчики событий категории, ведутся UpcomingEventProjection в транзакции изменения события
+@Entity(name = "category_event_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryEventCounter {
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private Long events;
+
+    @Column(name = "upcoming_events", nullable = false)
+    private Long upcomingEvents;
+}
@@ -3,6 +3,7 @@ package ru.practicum.core.persistance.model;
 import jakarta.persistence.*;
 import lombok.*;
 import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.utils.GeoHash;
 
 import java.time.LocalDateTime;
 
@@ -65,4 +66,21 @@ public class Event {
 
     @Column
     private Long views;
+
+    @Column(length = GeoHash.MAX_PRECISION)
+    private String geohash;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean available = true;
+
+    @PrePersist
+    @PreUpdate
+    void updateDerivedFields() {
+        if (lat != null && lon != null) {
+            geohash = GeoHash.encode(lat, lon, GeoHash.MAX_PRECISION);
+        }
+        long confirmed = confirmedRequests == null ? 0 : confirmedRequests;
+        available = participantLimit == null || participantLimit == 0 || participantLimit > confirmed;
+    }
 }
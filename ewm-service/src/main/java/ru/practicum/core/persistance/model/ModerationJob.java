@@ -0,0 +1,78 @@
+package ru.practicum.core.persistance.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.core.persistance.model.dto.request.ModerationJobState;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity(name = "moderation_jobs")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Event event;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private User initiator;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ParticipationRequestStatus status;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ModerationJobState state;
+
+    @ElementCollection
+    @CollectionTable(name = "moderation_job_requests", joinColumns = @JoinColumn(name = "job_id"))
+    @Column(name = "request_id")
+    private Set<Long> requestIds;
+
+    @Column(nullable = false)
+    private Long total;
+
+    @Column(nullable = false)
+    private Long processed;
+
+    @Column(nullable = false)
+    private Long confirmed;
+
+    @Column(nullable = false)
+    private Long rejected;
+
+    @Column(nullable = false)
+    private Long skipped;
+
+    // Заявки задания, отклонённые из-за исчерпания лимита участников, а не по решению инициатора
+    @Builder.Default
+    @ElementCollection
+    @CollectionTable(name = "moderation_job_over_limit_requests", joinColumns = @JoinColumn(name = "job_id"))
+    @Column(name = "request_id")
+    private Set<Long> overLimitRequestIds = new HashSet<>();
+
+    @Column(name = "last_request_id")
+    private Long lastRequestId;
+
+    @Column
+    private String error;
+
+    @Column(name = "created_on", nullable = false)
+    private LocalDateTime createdOn;
+
+    @Column(name = "started_on")
+    private LocalDateTime startedOn;
+
+    @Column(name = "finished_on")
+    private LocalDateTime finishedOn;
+}
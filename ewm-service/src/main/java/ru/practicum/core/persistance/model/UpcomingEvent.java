@@ -0,0 +1,59 @@
+package ru.practicum.core.persistance.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Synchronize;
+import ru.practicum.core.utils.GeoHash;
+
+import java.time.LocalDateTime;
+
+// Узкая проекция опубликованных предстоящих событий, ведётся UpcomingEventProjection
+@Entity(name = "upcoming_events")
+@Synchronize("events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpcomingEvent {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String annotation;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Category category;
+
+    @Column(name = "confirmed_requests")
+    private Long confirmedRequests;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Column(name = "event_date", nullable = false)
+    private LocalDateTime eventDate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private User initiator;
+
+    @Column(nullable = false)
+    private Double lat;
+
+    @Column(nullable = false)
+    private Double lon;
+
+    @Column(length = GeoHash.MAX_PRECISION)
+    private String geohash;
+
+    @Column
+    private Boolean paid;
+
+    @Column(nullable = false)
+    private Boolean available;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column
+    private Long views;
+}
@@ -1,5 +1,6 @@
 package ru.practicum.core.persistance.model.dto.category;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,4 +13,12 @@ import lombok.NoArgsConstructor;
 public class CategoryDto {
     private Long id;
     private String name;
+
+    // Заполняется только по запросу withCounts
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long upcomingEvents;
+
+    public CategoryDto(Long id, String name) {
+        this(id, name, null);
+    }
 }
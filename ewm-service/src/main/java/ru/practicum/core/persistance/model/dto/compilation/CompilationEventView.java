@@ -0,0 +1,19 @@
+package ru.practicum.core.persistance.model.dto.compilation;
+
+import lombok.Getter;
+import ru.practicum.core.persistance.model.dto.event.EventShortView;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class CompilationEventView extends EventShortView {
+    private final Long compilationId;
+
+    public CompilationEventView(Long compilationId, Long id, String annotation, Long categoryId, String categoryName,
+                                Long confirmedRequests, LocalDateTime eventDate, Long initiatorId,
+                                String initiatorName, Boolean paid, String title, Long views) {
+        super(id, annotation, categoryId, categoryName, confirmedRequests, eventDate, initiatorId, initiatorName,
+                paid, title, views);
+        this.compilationId = compilationId;
+    }
+}
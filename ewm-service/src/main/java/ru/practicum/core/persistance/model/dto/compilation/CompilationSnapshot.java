@@ -0,0 +1,17 @@
+package ru.practicum.core.persistance.model.dto.compilation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+public class CompilationSnapshot {
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String eTag;
+    private final String gzipETag;
+    private final String nextCursor;
+    private final Set<Long> eventIds;
+}
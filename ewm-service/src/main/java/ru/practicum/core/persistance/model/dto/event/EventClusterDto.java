@@ -0,0 +1,20 @@
+package ru.practicum.core.persistance.model.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventClusterDto {
+    private String cell;
+
+    private Long count;
+
+    private Double lat;
+
+    private Double lon;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.core.persistance.model.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EventFacetRow {
+    private final Long categoryId;
+    private final Boolean paid;
+    private final Boolean available;
+    private final Long count;
+}
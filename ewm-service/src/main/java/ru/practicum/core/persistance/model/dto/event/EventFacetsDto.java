@@ -0,0 +1,22 @@
+package ru.practicum.core.persistance.model.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventFacetsDto {
+    private Long total;
+
+    private Map<Long, Long> categories;
+
+    private Map<Boolean, Long> paid;
+
+    private Map<Boolean, Long> available;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.core.persistance.model.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class EventShortView {
+    private final Long id;
+    private final String annotation;
+    private final Long categoryId;
+    private final String categoryName;
+    private final Long confirmedRequests;
+    private final LocalDateTime eventDate;
+    private final Long initiatorId;
+    private final String initiatorName;
+    private final Boolean paid;
+    private final String title;
+    private final Long views;
+}
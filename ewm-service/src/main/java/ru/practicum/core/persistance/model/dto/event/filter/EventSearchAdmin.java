@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import ru.practicum.core.utils.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,4 +21,5 @@ public class EventSearchAdmin {
     private LocalDateTime rangeEnd;
     private Integer from;
     private Integer size;
+    private PageCursor cursor;
 }
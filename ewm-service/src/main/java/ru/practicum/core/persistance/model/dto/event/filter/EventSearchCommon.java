@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import ru.practicum.core.utils.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,7 +20,12 @@ public class EventSearchCommon {
     private LocalDateTime rangeEnd;
     private List<Long> categories;
     private Boolean onlyAvailable;
+    private Double lat;
+    private Double lon;
+    private Double radius;
+    private GeoBox box;
     private EventSearchOrder sort;
     private Integer from;
     private Integer size;
+    private PageCursor cursor;
 }
@@ -2,5 +2,6 @@ package ru.practicum.core.persistance.model.dto.event.filter;
 
 public enum EventSearchOrder {
     EVENT_DATE,
-    VIEWS
+    VIEWS,
+    DISTANCE
 }
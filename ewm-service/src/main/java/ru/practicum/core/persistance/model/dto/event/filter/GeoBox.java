@@ -0,0 +1,45 @@
+package ru.practicum.core.persistance.model.dto.event.filter;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.core.exception.GeoValidationException;
+
+@Data
+@AllArgsConstructor
+public class GeoBox {
+    private double minLat;
+    private double minLon;
+    private double maxLat;
+    private double maxLon;
+
+    public static GeoBox parse(String bbox) {
+        if (bbox == null) {
+            return null;
+        }
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new GeoValidationException("Параметр bbox должен иметь вид minLon,minLat,maxLon,maxLat");
+        }
+        try {
+            GeoBox box = new GeoBox(Double.parseDouble(parts[1].trim()), Double.parseDouble(parts[0].trim()),
+                    Double.parseDouble(parts[3].trim()), Double.parseDouble(parts[2].trim()));
+            box.validate();
+            return box;
+        } catch (NumberFormatException e) {
+            throw new GeoValidationException("Параметр bbox должен содержать четыре числа");
+        }
+    }
+
+    public boolean contains(double lat, double lon) {
+        return lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon;
+    }
+
+    private void validate() {
+        if (minLat < -90 || maxLat > 90 || minLon < -180 || maxLon > 180) {
+            throw new GeoValidationException("Координаты bbox выходят за допустимые границы");
+        }
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new GeoValidationException("Минимальные координаты bbox не должны превышать максимальные");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.core.persistance.model.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationJobDto {
+    private Long id;
+    private Long event;
+    private ParticipationRequestStatus status;
+    private ModerationJobState state;
+    private Long total;
+    private Long processed;
+    private Long confirmed;
+    private Long rejected;
+    private Long skipped;
+    private Set<Long> overLimitRequestIds;
+    private Double requestsPerSecond;
+    private String error;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdOn;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedOn;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedOn;
+}
@@ -0,0 +1,8 @@
+package ru.practicum.core.persistance.model.dto.request;
+
+public enum ModerationJobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
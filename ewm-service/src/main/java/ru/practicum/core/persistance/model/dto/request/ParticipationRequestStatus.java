@@ -4,5 +4,6 @@ public enum ParticipationRequestStatus {
     CONFIRMED,
     PENDING,
     REJECTED,
-    CANCELED
+    CANCELED,
+    WAITING
 }
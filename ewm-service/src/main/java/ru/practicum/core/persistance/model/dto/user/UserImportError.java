@@ -0,0 +1,16 @@
+package ru.practicum.core.persistance.model.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportError {
+    private Long row;
+    private String email;
+    private String message;
+}
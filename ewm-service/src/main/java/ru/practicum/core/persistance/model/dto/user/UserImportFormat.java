@@ -0,0 +1,6 @@
+package ru.practicum.core.persistance.model.dto.user;
+
+public enum UserImportFormat {
+    JSON,
+    CSV
+}
@@ -0,0 +1,23 @@
+package ru.practicum.core.persistance.model.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResult {
+    private Long total;
+
+    private Long imported;
+
+    private Long failed;
+
+    // Содержит не более EWMServiceApp.users.import.max-errors первых ошибок
+    private List<UserImportError> errors;
+}
@@ -4,7 +4,9 @@ import ru.practicum.core.persistance.model.Compilation;
 import ru.practicum.core.persistance.model.Event;
 import ru.practicum.core.persistance.model.dto.compilation.CompilationDto;
 import ru.practicum.core.persistance.model.dto.compilation.NewCompilationDto;
+import ru.practicum.core.persistance.model.dto.event.EventShortDto;
 
+import java.util.List;
 import java.util.Set;
 
 public class CompilationMapper {
@@ -20,12 +22,12 @@ public class CompilationMapper {
                 .build();
     }
 
-    public static CompilationDto toCompilationDto(Compilation compilation) {
+    public static CompilationDto toCompilationDto(Compilation compilation, List<EventShortDto> events) {
         return CompilationDto.builder()
                 .id(compilation.getId())
                 .title(compilation.getTitle())
                 .pinned(compilation.getPinned())
-                .events(compilation.getEvents().stream().map(EventMapper::toEventShortDto).toList())
+                .events(events)
                 .build();
     }
 }
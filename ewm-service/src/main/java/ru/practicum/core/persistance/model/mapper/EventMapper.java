@@ -3,11 +3,14 @@ package ru.practicum.core.persistance.model.mapper;
 import ru.practicum.core.persistance.model.Category;
 import ru.practicum.core.persistance.model.Event;
 import ru.practicum.core.persistance.model.User;
+import ru.practicum.core.persistance.model.dto.category.CategoryDto;
 import ru.practicum.core.persistance.model.dto.event.EventFullDto;
 import ru.practicum.core.persistance.model.dto.event.EventShortDto;
+import ru.practicum.core.persistance.model.dto.event.EventShortView;
 import ru.practicum.core.persistance.model.dto.event.Location;
 import ru.practicum.core.persistance.model.dto.event.NewEventDto;
 import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.model.dto.user.UserShortDto;
 
 import java.time.LocalDateTime;
 
@@ -51,6 +54,26 @@ public class EventMapper {
                 .build();
     }
 
+    public static EventShortDto toEventShortDto(EventShortView view) {
+        return EventShortDto.builder()
+                .id(view.getId())
+                .annotation(view.getAnnotation())
+                .category(CategoryDto.builder()
+                        .id(view.getCategoryId())
+                        .name(view.getCategoryName())
+                        .build())
+                .eventDate(view.getEventDate())
+                .confirmedRequests(view.getConfirmedRequests())
+                .initiator(UserShortDto.builder()
+                        .id(view.getInitiatorId())
+                        .name(view.getInitiatorName())
+                        .build())
+                .paid(view.getPaid())
+                .title(view.getTitle())
+                .views(view.getViews())
+                .build();
+    }
+
     public static Event newRequestToEvent(NewEventDto newEventDto, User user, Category category) {
         return Event.builder()
                 .initiator(user)
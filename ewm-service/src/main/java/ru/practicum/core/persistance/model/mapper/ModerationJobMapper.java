@@ -0,0 +1,43 @@
+package ru.practicum.core.persistance.model.mapper;
+
+import ru.practicum.core.persistance.model.ModerationJob;
+import ru.practicum.core.persistance.model.dto.request.ModerationJobDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.TreeSet;
+
+public class ModerationJobMapper {
+    private ModerationJobMapper() {
+
+    }
+
+    public static ModerationJobDto toModerationJobDto(ModerationJob job) {
+        return ModerationJobDto.builder()
+                .id(job.getId())
+                .event(job.getEvent().getId())
+                .status(job.getStatus())
+                .state(job.getState())
+                .total(job.getTotal())
+                .processed(job.getProcessed())
+                .confirmed(job.getConfirmed())
+                .rejected(job.getRejected())
+                .skipped(job.getSkipped())
+                .overLimitRequestIds(new TreeSet<>(job.getOverLimitRequestIds()))
+                .requestsPerSecond(requestsPerSecond(job))
+                .error(job.getError())
+                .createdOn(job.getCreatedOn())
+                .startedOn(job.getStartedOn())
+                .finishedOn(job.getFinishedOn())
+                .build();
+    }
+
+    private static Double requestsPerSecond(ModerationJob job) {
+        if (job.getStartedOn() == null) {
+            return null;
+        }
+        LocalDateTime end = job.getFinishedOn() == null ? LocalDateTime.now() : job.getFinishedOn();
+        long millis = Math.max(Duration.between(job.getStartedOn(), end).toMillis(), 1);
+        return job.getProcessed() * 1000.0 / millis;
+    }
+}
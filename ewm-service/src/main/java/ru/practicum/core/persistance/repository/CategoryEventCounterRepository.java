@@ -0,0 +1,30 @@
+package ru.practicum.core.persistance.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.core.persistance.model.CategoryEventCounter;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface CategoryEventCounterRepository extends JpaRepository<CategoryEventCounter, Long> {
+    @Modifying
+    @Query(value = "UPDATE category_event_counters c SET upcoming_events = upcoming_events - " +
+            "(SELECT COUNT(*) FROM upcoming_events u WHERE u.category_id = c.category_id AND u.event_date <= :now) " +
+            "WHERE c.category_id IN (SELECT u.category_id FROM upcoming_events u WHERE u.event_date <= :now)",
+            nativeQuery = true)
+    int subtractPassed(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE category_event_counters c SET " +
+            "events = events - (SELECT COUNT(*) FROM events e " +
+            "WHERE e.initiator_id = :userId AND e.category_id = c.category_id), " +
+            "upcoming_events = upcoming_events - (SELECT COUNT(*) FROM upcoming_events u " +
+            "WHERE u.initiator_id = :userId AND u.category_id = c.category_id) " +
+            "WHERE c.category_id IN (SELECT e.category_id FROM events e WHERE e.initiator_id = :userId)",
+            nativeQuery = true)
+    int subtractInitiator(@Param("userId") Long userId);
+}
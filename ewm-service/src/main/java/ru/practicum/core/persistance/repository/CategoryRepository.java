@@ -15,11 +15,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     Page<Category> findCategories(Pageable pageable);
 
     default List<Category> findCategories(Integer from, Integer size) {
-        Pageable pageable = Pageable.unpaged();
-        if (from != null && size != null) {
-            pageable = Pageable.ofSize(size).withPage(from / size);
-        }
-        return findCategories(pageable).toList();
+        return findCategories(OffsetPageRequest.of(from, size)).toList();
     }
 
     List<Category> findByNameIgnoreCase(String name);
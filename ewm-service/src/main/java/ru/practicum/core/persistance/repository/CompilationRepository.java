@@ -3,9 +3,13 @@ package ru.practicum.core.persistance.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.core.persistance.model.Compilation;
+import ru.practicum.core.persistance.model.dto.compilation.CompilationEventView;
+import ru.practicum.core.utils.PageCursor;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,14 +17,22 @@ public interface CompilationRepository extends JpaRepository<Compilation, Long>
     List<Compilation> findByTitleIgnoreCase(String title);
 
     @Query("SELECT c FROM compilations c " +
-            "WHERE (:pinned IS NULL OR c.pinned = :pinned)")
-    List<Compilation> findCompilations(Boolean pinned, Pageable pageable);
+            "WHERE (:pinned IS NULL OR c.pinned = :pinned) " +
+            "AND (:afterId IS NULL OR c.id > :afterId) " +
+            "ORDER BY c.id ASC")
+    List<Compilation> findCompilations(Boolean pinned, Long afterId, Pageable pageable);
 
-    default List<Compilation> findCompilations(Boolean pinned, Integer from, Integer size) {
-        Pageable pageable = Pageable.unpaged();
-        if (from != null && size != null) {
-            pageable = Pageable.ofSize(size).withPage(from / size);
+    @Query("SELECT new ru.practicum.core.persistance.model.dto.compilation.CompilationEventView(comp.id, " +
+            EventRepository.SHORT_VIEW_COLUMNS + ") " +
+            "FROM compilations comp JOIN comp.events e LEFT JOIN e.category c LEFT JOIN e.initiator u " +
+            "WHERE comp.id IN :compilationIds " +
+            "ORDER BY e.id ASC")
+    List<CompilationEventView> findCompilationEvents(@Param("compilationIds") Collection<Long> compilationIds);
+
+    default List<Compilation> findCompilations(Boolean pinned, Integer from, Integer size, PageCursor cursor) {
+        if (cursor != null) {
+            return findCompilations(pinned, cursor.getId(), OffsetPageRequest.firstPage(size));
         }
-        return findCompilations(pinned, pageable);
+        return findCompilations(pinned, null, OffsetPageRequest.of(from, size));
     }
 }
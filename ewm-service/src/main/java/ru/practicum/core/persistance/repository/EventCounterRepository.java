@@ -0,0 +1,9 @@
+package ru.practicum.core.persistance.repository;
+
+import ru.practicum.core.persistance.model.Event;
+
+public interface EventCounterRepository {
+    boolean addConfirmedRequests(Event event, long count);
+
+    boolean removeConfirmedRequests(Event event, long count);
+}
@@ -0,0 +1,63 @@
+package ru.practicum.core.persistance.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.service.event.ConfirmedRequestsChangedEvent;
+
+@RequiredArgsConstructor
+public class EventCounterRepositoryImpl implements EventCounterRepository {
+    // Условие лимита проверяется самой базой, поэтому параллельные подтверждения не могут его превысить
+    private static final String ADD = "UPDATE events e " +
+            "SET e.confirmedRequests = e.confirmedRequests + :count, " +
+            "e.available = CASE WHEN e.participantLimit = 0 OR e.confirmedRequests + :count < e.participantLimit " +
+            "THEN true ELSE false END " +
+            "WHERE e.id = :id AND (e.participantLimit = 0 OR e.confirmedRequests + :count <= e.participantLimit)";
+    private static final String REMOVE = "UPDATE events e " +
+            "SET e.confirmedRequests = e.confirmedRequests - :count, e.available = true " +
+            "WHERE e.id = :id AND e.confirmedRequests >= :count";
+    // Массовое обновление минует слушатель проекции, поэтому счётчики в upcoming_events копируются отдельно
+    private static final String SYNC_UPCOMING = "UPDATE upcoming_events " +
+            "SET confirmed_requests = (SELECT e.confirmed_requests FROM events e WHERE e.id = upcoming_events.id), " +
+            "available = (SELECT e.available FROM events e WHERE e.id = upcoming_events.id) " +
+            "WHERE id = :id";
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public boolean addConfirmedRequests(Event event, long count) {
+        return change(ADD, event, count, count);
+    }
+
+    @Override
+    public boolean removeConfirmedRequests(Event event, long count) {
+        return change(REMOVE, event, count, -count);
+    }
+
+    private boolean change(String jpql, Event event, long count, long delta) {
+        int updated = entityManager.createQuery(jpql)
+                .setParameter("id", event.getId())
+                .setParameter("count", count)
+                .executeUpdate();
+        if (updated == 0) {
+            return false;
+        }
+        entityManager.createNativeQuery(SYNC_UPCOMING)
+                .setParameter("id", event.getId())
+                .executeUpdate();
+        entityManager.refresh(event);
+        eventPublisher.publishEvent(new ConfirmedRequestsChangedEvent(event.getId(), delta,
+                event.getParticipantLimit() != 0
+                        && isAvailable(event, event.getConfirmedRequests() - delta) != isAvailable(event, event.getConfirmedRequests())));
+        return true;
+    }
+
+    private static boolean isAvailable(Event event, long confirmedRequests) {
+        return confirmedRequests < event.getParticipantLimit();
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.core.persistance.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class EventSearchQuery {
+    private final String jpql;
+    private final Map<String, Object> parameters;
+    private final Integer firstResult;
+    private final Integer maxResults;
+}
@@ -0,0 +1,364 @@
+package ru.practicum.core.persistance.repository;
+
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchAdmin;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchOrder;
+import ru.practicum.core.persistance.model.dto.event.filter.GeoBox;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.utils.GeoHash;
+import ru.practicum.core.utils.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+public class EventSearchQueryBuilder {
+    private static final String ENTITY_SELECT = "SELECT e FROM events e";
+    private static final String EXPORT_SELECT = "SELECT e FROM events e LEFT JOIN FETCH e.category LEFT JOIN FETCH e.initiator";
+    private static final String SHORT_VIEW_SELECT = EventRepository.SHORT_VIEW_SELECT;
+    private static final String UPCOMING_SHORT_VIEW_SELECT = "SELECT new " +
+            "ru.practicum.core.persistance.model.dto.event.EventShortView(" + EventRepository.SHORT_VIEW_COLUMNS +
+            ") FROM upcoming_events e LEFT JOIN e.category c LEFT JOIN e.initiator u";
+    private static final int TEXT = 1;
+    private static final int PAID = 1 << 1;
+    private static final int CATEGORIES = 1 << 2;
+    private static final int RANGE_START = 1 << 3;
+    private static final int RANGE_END = 1 << 4;
+    private static final int ONLY_AVAILABLE = 1 << 5;
+    private static final int CURSOR = 1 << 6;
+    private static final int USERS = 1 << 7;
+    private static final int STATES = 1 << 8;
+    private static final int POINT = 1 << 9;
+    private static final int RADIUS = 1 << 10;
+    private static final int BOX = 1 << 11;
+    private static final int UPCOMING = 1 << 12;
+    private static final int MAX_CELLS = 9;
+    private static final int MAX_SHAPES = 256;
+    // Косинус углового расстояния до точки поиска: чем он больше, тем событие ближе
+    private static final String DISTANCE_COS = "(:sinLat * SIN(RADIANS(e.lat)) " +
+            "+ :cosLat * COS(RADIANS(e.lat)) * COS(RADIANS(e.lon) - :lonRad))";
+
+    // Текст запроса зависит только от набора фильтров, поэтому готовые формы переиспользуются;
+    // точность кластеров и число ячеек приходят из запроса, поэтому хранятся только недавние формы
+    private final Map<String, String> shapes;
+
+    public EventSearchQueryBuilder() {
+        this(MAX_SHAPES);
+    }
+
+    EventSearchQueryBuilder(int maxShapes) {
+        this.shapes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxShapes;
+            }
+        };
+    }
+
+    public EventSearchQuery common(EventSearchCommon search, LocalDateTime now) {
+        EventSearchOrder sort = search.getSort() == null ? EventSearchOrder.EVENT_DATE : search.getSort();
+        PageCursor cursor = search.getCursor();
+        Map<String, Object> parameters = new HashMap<>();
+        List<GeoHash.Range> cells = new ArrayList<>();
+        int shape = commonFilters(search, now, parameters, cells);
+        if (cursor != null) {
+            shape |= CURSOR;
+            parameters.put("cursorId", cursor.getId());
+            if (sort == EventSearchOrder.VIEWS) {
+                parameters.put("cursorViews", cursor.getLongValue());
+            } else {
+                parameters.put("cursorDate", cursor.getDateValue());
+            }
+        }
+        int commonShape = shape;
+        String cellShape = cellShape(cells);
+        String jpql = shape("common:" + sort + ":" + shape + ":" + cellShape,
+                () -> buildCommon(commonShape, cellShape, sort));
+        return page(jpql, parameters, search.getFrom(), search.getSize(), cursor);
+    }
+
+    public EventSearchQuery clusters(EventSearchCommon search, int precision, LocalDateTime now) {
+        Map<String, Object> parameters = new HashMap<>();
+        List<GeoHash.Range> cells = new ArrayList<>();
+        int shape = commonFilters(search, now, parameters, cells);
+        String cellShape = cellShape(cells);
+        String jpql = shape("clusters:" + precision + ":" + shape + ":" + cellShape,
+                () -> buildClusters(shape, cellShape, precision));
+        return new EventSearchQuery(jpql, parameters, null, null);
+    }
+
+    public EventSearchQuery facets(EventSearchCommon search, LocalDateTime now) {
+        Map<String, Object> parameters = new HashMap<>();
+        List<GeoHash.Range> cells = new ArrayList<>();
+        int shape = commonFilters(search, now, parameters, cells);
+        String cellShape = cellShape(cells);
+        String jpql = shape("facets:" + shape + ":" + cellShape,
+                () -> buildFacets(shape, cellShape));
+        return new EventSearchQuery(jpql, parameters, null, null);
+    }
+
+    public EventSearchQuery admin(EventSearchAdmin search) {
+        PageCursor cursor = search.getCursor();
+        Map<String, Object> parameters = new HashMap<>();
+        int shape = adminFilters(search, parameters);
+        if (cursor != null) {
+            shape |= CURSOR;
+            parameters.put("cursorDate", cursor.getDateValue());
+            parameters.put("cursorId", cursor.getId());
+        }
+        int adminShape = shape;
+        String jpql = shape("admin:" + shape, () -> buildAdmin(adminShape));
+        return page(jpql, parameters, search.getFrom(), search.getSize(), cursor);
+    }
+
+    public EventSearchQuery adminExport(EventSearchAdmin search) {
+        Map<String, Object> parameters = new HashMap<>();
+        int shape = adminFilters(search, parameters);
+        String jpql = shape("export:" + shape, () -> buildAdminExport(shape));
+        return new EventSearchQuery(jpql, parameters, null, null);
+    }
+
+    public int cachedShapes() {
+        synchronized (shapes) {
+            return shapes.size();
+        }
+    }
+
+    private String shape(String key, Supplier<String> build) {
+        synchronized (shapes) {
+            return shapes.computeIfAbsent(key, ignored -> build.get());
+        }
+    }
+
+    private int adminFilters(EventSearchAdmin search, Map<String, Object> parameters) {
+        int shape = 0;
+        if (search.getUsers() != null && !search.getUsers().isEmpty()) {
+            shape |= USERS;
+            parameters.put("users", search.getUsers());
+        }
+        if (search.getStates() != null && !search.getStates().isEmpty()) {
+            shape |= STATES;
+            parameters.put("states", search.getStates().stream().map(EventState::valueOf).toList());
+        }
+        if (search.getCategories() != null && !search.getCategories().isEmpty()) {
+            shape |= CATEGORIES;
+            parameters.put("categories", search.getCategories());
+        }
+        if (search.getRangeStart() != null) {
+            shape |= RANGE_START;
+            parameters.put("rangeStart", search.getRangeStart());
+        }
+        if (search.getRangeEnd() != null) {
+            shape |= RANGE_END;
+            parameters.put("rangeEnd", search.getRangeEnd());
+        }
+        return shape;
+    }
+
+    private int commonFilters(EventSearchCommon search, LocalDateTime now, Map<String, Object> parameters,
+                              List<GeoHash.Range> cells) {
+        int shape = 0;
+        // Проекция хранит только опубликованные предстоящие события, прошлые даты ищутся по основной таблице
+        boolean upcoming = search.getRangeStart() == null
+                ? search.getRangeEnd() == null
+                : !search.getRangeStart().isBefore(now);
+        if (upcoming) {
+            shape |= UPCOMING;
+        } else {
+            parameters.put("state", EventState.PUBLISHED);
+        }
+        if (search.getText() != null) {
+            shape |= TEXT;
+            parameters.put("text", "%" + search.getText().toLowerCase() + "%");
+        }
+        if (search.getPaid() != null) {
+            shape |= PAID;
+            parameters.put("paid", search.getPaid());
+        }
+        if (search.getCategories() != null && !search.getCategories().isEmpty()) {
+            shape |= CATEGORIES;
+            parameters.put("categories", search.getCategories());
+        }
+        if (search.getRangeStart() != null) {
+            shape |= RANGE_START;
+            parameters.put("rangeStart", search.getRangeStart());
+        }
+        if (search.getRangeEnd() != null) {
+            shape |= RANGE_END;
+            parameters.put("rangeEnd", search.getRangeEnd());
+        }
+        if ((shape & (RANGE_START | RANGE_END)) == 0) {
+            parameters.put("currentTime", now);
+        }
+        if (Boolean.TRUE.equals(search.getOnlyAvailable())) {
+            shape |= ONLY_AVAILABLE;
+        }
+        if (search.getLat() != null && search.getLon() != null) {
+            shape |= POINT;
+            parameters.put("sinLat", Math.sin(Math.toRadians(search.getLat())));
+            parameters.put("cosLat", Math.cos(Math.toRadians(search.getLat())));
+            parameters.put("lonRad", Math.toRadians(search.getLon()));
+            if (search.getRadius() != null) {
+                shape |= RADIUS;
+                parameters.put("cosRadius", Math.cos(Math.min(Math.PI, search.getRadius() / GeoHash.EARTH_RADIUS_KM)));
+                GeoBox box = GeoHash.boxAround(search.getLat(), search.getLon(), search.getRadius());
+                // Окружность, пересекающая антимеридиан, проверяется только точной формулой
+                if (box.getMinLon() >= -180 && box.getMaxLon() <= 180) {
+                    cells.addAll(GeoHash.cover(box, MAX_CELLS));
+                }
+            }
+        }
+        if (search.getBox() != null) {
+            shape |= BOX;
+            parameters.put("minLat", search.getBox().getMinLat());
+            parameters.put("minLon", search.getBox().getMinLon());
+            parameters.put("maxLat", search.getBox().getMaxLat());
+            parameters.put("maxLon", search.getBox().getMaxLon());
+            cells.addAll(GeoHash.cover(search.getBox(), MAX_CELLS));
+        }
+        for (int i = 0; i < cells.size(); i++) {
+            parameters.put("cellFrom" + i, cells.get(i).getFrom());
+            if (cells.get(i).getTo() != null) {
+                parameters.put("cellTo" + i, cells.get(i).getTo());
+            }
+        }
+        return shape;
+    }
+
+    private String cellShape(List<GeoHash.Range> cells) {
+        StringBuilder cellShape = new StringBuilder();
+        cells.forEach(cell -> cellShape.append(cell.getTo() == null ? 'o' : 'c'));
+        return cellShape.toString();
+    }
+
+    private List<String> commonPredicates(int shape, String cellShape) {
+        List<String> predicates = new ArrayList<>();
+        if ((shape & UPCOMING) == 0) {
+            predicates.add("e.state = :state");
+        }
+        if ((shape & TEXT) != 0) {
+            predicates.add("(LOWER(e.annotation) LIKE :text OR LOWER(e.description) LIKE :text OR LOWER(e.title) LIKE :text)");
+        }
+        if ((shape & PAID) != 0) {
+            predicates.add("e.paid = :paid");
+        }
+        if ((shape & CATEGORIES) != 0) {
+            predicates.add("e.category.id IN :categories");
+        }
+        if ((shape & RANGE_START) != 0) {
+            predicates.add("e.eventDate >= :rangeStart");
+        }
+        if ((shape & RANGE_END) != 0) {
+            predicates.add("e.eventDate <= :rangeEnd");
+        }
+        if ((shape & (RANGE_START | RANGE_END)) == 0) {
+            predicates.add("e.eventDate > :currentTime");
+        }
+        if ((shape & ONLY_AVAILABLE) != 0) {
+            predicates.add("e.available = true");
+        }
+        if (!cellShape.isEmpty()) {
+            List<String> cells = new ArrayList<>();
+            for (int i = 0; i < cellShape.length(); i++) {
+                cells.add(cellShape.charAt(i) == 'o'
+                        ? "e.geohash >= :cellFrom" + i
+                        : "(e.geohash >= :cellFrom" + i + " AND e.geohash < :cellTo" + i + ")");
+            }
+            predicates.add(cells.size() == 1 ? cells.getFirst() : "(" + String.join(" OR ", cells) + ")");
+        }
+        if ((shape & BOX) != 0) {
+            predicates.add("e.lat BETWEEN :minLat AND :maxLat AND e.lon BETWEEN :minLon AND :maxLon");
+        }
+        if ((shape & RADIUS) != 0) {
+            predicates.add(DISTANCE_COS + " >= :cosRadius");
+        }
+        return predicates;
+    }
+
+    private String buildCommon(int shape, String cellShape, EventSearchOrder sort) {
+        List<String> predicates = commonPredicates(shape, cellShape);
+        String select = (shape & UPCOMING) != 0 ? UPCOMING_SHORT_VIEW_SELECT : SHORT_VIEW_SELECT;
+        if (sort == EventSearchOrder.DISTANCE) {
+            return select(select, predicates) + " ORDER BY " + DISTANCE_COS + " DESC, e.id ASC";
+        }
+        if (sort == EventSearchOrder.VIEWS) {
+            if ((shape & CURSOR) != 0) {
+                predicates.add("(COALESCE(e.views, 0) < :cursorViews " +
+                        "OR (COALESCE(e.views, 0) = :cursorViews AND e.id > :cursorId))");
+            }
+            return select(select, predicates) + " ORDER BY COALESCE(e.views, 0) DESC, e.id ASC";
+        }
+        if ((shape & CURSOR) != 0) {
+            predicates.add("(e.eventDate > :cursorDate OR (e.eventDate = :cursorDate AND e.id > :cursorId))");
+        }
+        return select(select, predicates) + " ORDER BY e.eventDate ASC, e.id ASC";
+    }
+
+    private String buildClusters(int shape, String cellShape, int precision) {
+        // Точность подставляется литералом, чтобы выражения в SELECT и GROUP BY совпадали
+        String cell = "SUBSTRING(e.geohash, 1, " + precision + ")";
+        return select("SELECT new ru.practicum.core.persistance.model.dto.event.EventClusterDto(" + cell +
+                        ", COUNT(e), AVG(e.lat), AVG(e.lon)) FROM " + source(shape) + " e",
+                commonPredicates(shape, cellShape)) + " GROUP BY " + cell + " ORDER BY " + cell;
+    }
+
+    private String buildFacets(int shape, String cellShape) {
+        // Одна группировка по всем трём измерениям, суммы по каждому из них собираются в сервисе
+        String dimensions = "e.category.id, e.paid, e.available";
+        return select("SELECT new ru.practicum.core.persistance.model.dto.event.EventFacetRow(" + dimensions +
+                        ", COUNT(e)) FROM " + source(shape) + " e",
+                commonPredicates(shape, cellShape)) + " GROUP BY " + dimensions;
+    }
+
+    private String buildAdmin(int shape) {
+        List<String> predicates = adminPredicates(shape);
+        if ((shape & CURSOR) != 0) {
+            predicates.add("(e.eventDate < :cursorDate OR (e.eventDate = :cursorDate AND e.id < :cursorId))");
+        }
+        return select(ENTITY_SELECT, predicates) + " ORDER BY e.eventDate DESC, e.id DESC";
+    }
+
+    private String buildAdminExport(int shape) {
+        // Связанные сущности подгружаются в той же строке, чтобы выгрузка не делала запросов на каждое событие
+        return select(EXPORT_SELECT, adminPredicates(shape)) + " ORDER BY e.id ASC";
+    }
+
+    private List<String> adminPredicates(int shape) {
+        List<String> predicates = new ArrayList<>();
+        if ((shape & USERS) != 0) {
+            predicates.add("e.initiator.id IN :users");
+        }
+        if ((shape & STATES) != 0) {
+            predicates.add("e.state IN :states");
+        }
+        if ((shape & CATEGORIES) != 0) {
+            predicates.add("e.category.id IN :categories");
+        }
+        if ((shape & RANGE_START) != 0) {
+            predicates.add("e.eventDate >= :rangeStart");
+        }
+        if ((shape & RANGE_END) != 0) {
+            predicates.add("e.eventDate <= :rangeEnd");
+        }
+        return predicates;
+    }
+
+    private String source(int shape) {
+        return (shape & UPCOMING) != 0 ? "upcoming_events" : "events";
+    }
+
+    private String select(String select, List<String> predicates) {
+        return predicates.isEmpty() ? select : select + " WHERE " + String.join(" AND ", predicates);
+    }
+
+    private EventSearchQuery page(String jpql, Map<String, Object> parameters, Integer from, Integer size,
+                                  PageCursor cursor) {
+        if (cursor != null) {
+            return new EventSearchQuery(jpql, parameters, 0, size);
+        }
+        if (from == null || size == null) {
+            return new EventSearchQuery(jpql, parameters, null, null);
+        }
+        return new EventSearchQuery(jpql, parameters, from, size);
+    }
+}
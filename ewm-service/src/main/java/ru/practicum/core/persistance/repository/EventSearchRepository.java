@@ -0,0 +1,23 @@
+package ru.practicum.core.persistance.repository;
+
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.dto.event.EventClusterDto;
+import ru.practicum.core.persistance.model.dto.event.EventFacetRow;
+import ru.practicum.core.persistance.model.dto.event.EventShortView;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchAdmin;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface EventSearchRepository {
+    List<EventShortView> findCommonEventsByFilters(EventSearchCommon eventSearchCommon);
+
+    List<EventClusterDto> findEventClusters(EventSearchCommon eventSearchCommon, int precision);
+
+    List<EventFacetRow> findEventFacets(EventSearchCommon eventSearchCommon);
+
+    List<Event> findAdminEventsByFilters(EventSearchAdmin eventSearchAdmin);
+
+    Stream<Event> streamAdminEventsByFilters(EventSearchAdmin eventSearchAdmin, int fetchSize);
+}
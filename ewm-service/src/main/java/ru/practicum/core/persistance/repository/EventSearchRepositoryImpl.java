@@ -0,0 +1,72 @@
+package ru.practicum.core.persistance.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.dto.event.EventClusterDto;
+import ru.practicum.core.persistance.model.dto.event.EventFacetRow;
+import ru.practicum.core.persistance.model.dto.event.EventShortView;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchAdmin;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+public class EventSearchRepositoryImpl implements EventSearchRepository {
+    private final EventSearchQueryBuilder queryBuilder = new EventSearchQueryBuilder();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EventShortView> findCommonEventsByFilters(EventSearchCommon eventSearchCommon) {
+        return execute(queryBuilder.common(eventSearchCommon, LocalDateTime.now()), EventShortView.class);
+    }
+
+    @Override
+    public List<EventClusterDto> findEventClusters(EventSearchCommon eventSearchCommon, int precision) {
+        return execute(queryBuilder.clusters(eventSearchCommon, precision, LocalDateTime.now()), EventClusterDto.class);
+    }
+
+    @Override
+    public List<EventFacetRow> findEventFacets(EventSearchCommon eventSearchCommon) {
+        return execute(queryBuilder.facets(eventSearchCommon, LocalDateTime.now()), EventFacetRow.class);
+    }
+
+    @Override
+    public List<Event> findAdminEventsByFilters(EventSearchAdmin eventSearchAdmin) {
+        return execute(queryBuilder.admin(eventSearchAdmin), Event.class);
+    }
+
+    @Override
+    public Stream<Event> streamAdminEventsByFilters(EventSearchAdmin eventSearchAdmin, int fetchSize) {
+        EventSearchQuery searchQuery = queryBuilder.adminExport(eventSearchAdmin);
+        TypedQuery<Event> query = entityManager.createQuery(searchQuery.getJpql(), Event.class);
+        searchQuery.getParameters().forEach(query::setParameter);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        AtomicLong read = new AtomicLong();
+        // Контекст очищается пачками, чтобы выгруженные события не копились в памяти до конца транзакции
+        return query.getResultStream().peek(event -> {
+            if (read.incrementAndGet() % fetchSize == 0) {
+                entityManager.clear();
+            }
+        });
+    }
+
+    private <T> List<T> execute(EventSearchQuery searchQuery, Class<T> resultClass) {
+        TypedQuery<T> query = entityManager.createQuery(searchQuery.getJpql(), resultClass);
+        searchQuery.getParameters().forEach(query::setParameter);
+        if (searchQuery.getFirstResult() != null) {
+            query.setFirstResult(searchQuery.getFirstResult());
+        }
+        if (searchQuery.getMaxResults() != null) {
+            query.setMaxResults(searchQuery.getMaxResults());
+        }
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.core.persistance.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.core.persistance.model.ModerationJob;
+import ru.practicum.core.persistance.model.dto.request.ModerationJobState;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ModerationJobRepository extends JpaRepository<ModerationJob, Long> {
+    Optional<ModerationJob> findByIdAndEventId(Long id, Long eventId);
+
+    @Query("SELECT j.id FROM moderation_jobs j WHERE j.state IN :states ORDER BY j.id")
+    List<Long> findIdsByStateIn(@Param("states") Collection<ModerationJobState> states);
+
+    @Query(value = "SELECT request_id FROM moderation_job_requests " +
+            "WHERE job_id = :jobId AND request_id > :after ORDER BY request_id LIMIT :limit", nativeQuery = true)
+    List<Long> findRequestIdsAfter(@Param("jobId") Long jobId, @Param("after") Long after, @Param("limit") int limit);
+}
@@ -0,0 +1,75 @@
+package ru.practicum.core.persistance.repository;
+
+import lombok.EqualsAndHashCode;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+@EqualsAndHashCode
+public class OffsetPageRequest implements Pageable {
+    private final long offset;
+    private final int size;
+
+    private OffsetPageRequest(long offset, int size) {
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public static Pageable of(Integer from, Integer size) {
+        if (from == null || size == null) {
+            return Pageable.unpaged();
+        }
+        return new OffsetPageRequest(from, size);
+    }
+
+    public static Pageable firstPage(Integer size) {
+        if (size == null) {
+            return Pageable.unpaged();
+        }
+        return new OffsetPageRequest(0, size);
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / size);
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return Sort.unsorted();
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageRequest(offset + size, size);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageRequest(offset - size, size) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, size);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest((long) pageNumber * size, size);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset >= size;
+    }
+}
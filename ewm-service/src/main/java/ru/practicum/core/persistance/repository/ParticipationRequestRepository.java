@@ -1,16 +1,120 @@
 package ru.practicum.core.persistance.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.core.persistance.model.ParticipationRequest;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
+import ru.practicum.core.utils.PageCursor;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ParticipationRequestRepository extends JpaRepository<ParticipationRequest, Long> {
-    List<ParticipationRequest> findAllByRequesterId(Long userId);
+    String DTO_SELECT = "SELECT new ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto(" +
+            "r.id, r.event.id, r.requester.id, r.status, r.created) FROM requests r";
 
     List<ParticipationRequest> findAllByEventIdAndRequesterId(Long eventId, Long userId);
 
     List<ParticipationRequest> findAllByEventId(Long eventId);
+
+    // Отдельный запрос на каждое сочетание фильтров: предикаты вида (:param IS NULL OR ...) мешают использовать индексы
+    @Query(DTO_SELECT + " WHERE r.requester.id = :requesterId ORDER BY r.created, r.id")
+    List<ParticipationRequestDto> findPageByRequesterId(@Param("requesterId") Long requesterId, Pageable pageable);
+
+    @Query(DTO_SELECT + " WHERE r.requester.id = :requesterId AND r.status = :status ORDER BY r.created, r.id")
+    List<ParticipationRequestDto> findPageByRequesterIdAndStatus(@Param("requesterId") Long requesterId,
+                                                                 @Param("status") ParticipationRequestStatus status,
+                                                                 Pageable pageable);
+
+    @Query(DTO_SELECT + " WHERE r.requester.id = :requesterId " +
+            "AND (r.created > :cursorDate OR (r.created = :cursorDate AND r.id > :cursorId)) " +
+            "ORDER BY r.created, r.id")
+    List<ParticipationRequestDto> findPageByRequesterIdAfter(@Param("requesterId") Long requesterId,
+                                                             @Param("cursorDate") LocalDateTime cursorDate,
+                                                             @Param("cursorId") Long cursorId,
+                                                             Pageable pageable);
+
+    @Query(DTO_SELECT + " WHERE r.requester.id = :requesterId AND r.status = :status " +
+            "AND (r.created > :cursorDate OR (r.created = :cursorDate AND r.id > :cursorId)) " +
+            "ORDER BY r.created, r.id")
+    List<ParticipationRequestDto> findPageByRequesterIdAndStatusAfter(@Param("requesterId") Long requesterId,
+                                                                      @Param("status") ParticipationRequestStatus status,
+                                                                      @Param("cursorDate") LocalDateTime cursorDate,
+                                                                      @Param("cursorId") Long cursorId,
+                                                                      Pageable pageable);
+
+    default List<ParticipationRequestDto> findPageByRequesterId(Long requesterId, ParticipationRequestStatus status,
+                                                                Integer from, Integer size, PageCursor cursor) {
+        if (cursor == null) {
+            Pageable page = OffsetPageRequest.of(from, size);
+            return status == null
+                    ? findPageByRequesterId(requesterId, page)
+                    : findPageByRequesterIdAndStatus(requesterId, status, page);
+        }
+        Pageable page = OffsetPageRequest.firstPage(size);
+        return status == null
+                ? findPageByRequesterIdAfter(requesterId, cursor.getDateValue(), cursor.getId(), page)
+                : findPageByRequesterIdAndStatusAfter(requesterId, status, cursor.getDateValue(), cursor.getId(), page);
+    }
+
+    @Query(DTO_SELECT + " WHERE r.event.id = :eventId ORDER BY r.id")
+    List<ParticipationRequestDto> findPageByEventId(@Param("eventId") Long eventId, Pageable pageable);
+
+    @Query(DTO_SELECT + " WHERE r.event.id = :eventId AND r.status = :status ORDER BY r.id")
+    List<ParticipationRequestDto> findPageByEventIdAndStatus(@Param("eventId") Long eventId,
+                                                             @Param("status") ParticipationRequestStatus status,
+                                                             Pageable pageable);
+
+    @Query(DTO_SELECT + " WHERE r.event.id = :eventId AND r.id > :cursorId ORDER BY r.id")
+    List<ParticipationRequestDto> findPageByEventIdAfter(@Param("eventId") Long eventId,
+                                                         @Param("cursorId") Long cursorId,
+                                                         Pageable pageable);
+
+    @Query(DTO_SELECT + " WHERE r.event.id = :eventId AND r.status = :status AND r.id > :cursorId ORDER BY r.id")
+    List<ParticipationRequestDto> findPageByEventIdAndStatusAfter(@Param("eventId") Long eventId,
+                                                                  @Param("status") ParticipationRequestStatus status,
+                                                                  @Param("cursorId") Long cursorId,
+                                                                  Pageable pageable);
+
+    default List<ParticipationRequestDto> findPageByEventId(Long eventId, ParticipationRequestStatus status,
+                                                            Integer from, Integer size, PageCursor cursor) {
+        if (cursor == null) {
+            Pageable page = OffsetPageRequest.of(from, size);
+            return status == null
+                    ? findPageByEventId(eventId, page)
+                    : findPageByEventIdAndStatus(eventId, status, page);
+        }
+        Pageable page = OffsetPageRequest.firstPage(size);
+        return status == null
+                ? findPageByEventIdAfter(eventId, cursor.getId(), page)
+                : findPageByEventIdAndStatusAfter(eventId, status, cursor.getId(), page);
+    }
+
+    long countByEventIdAndStatus(Long eventId, ParticipationRequestStatus status);
+
+    Optional<ParticipationRequest> findFirstByEventIdAndStatusOrderByIdAsc(Long eventId, ParticipationRequestStatus status);
+
+    @Query("SELECT r.requester.id FROM requests r WHERE r.event.id = :eventId AND r.requester.id IN :requesterIds")
+    List<Long> findRequesterIdsByEventIdAndRequesterIdIn(@Param("eventId") Long eventId,
+                                                         @Param("requesterIds") Collection<Long> requesterIds);
+
+    @Query(DTO_SELECT + " WHERE r.event.id = :eventId AND r.id IN :ids")
+    List<ParticipationRequestDto> findDtosByEventIdAndIdIn(@Param("eventId") Long eventId,
+                                                           @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE requests r SET r.status = :status " +
+            "WHERE r.event.id = :eventId AND r.id IN :ids AND r.status = :expected")
+    int updateStatusByIds(@Param("eventId") Long eventId,
+                          @Param("ids") Collection<Long> ids,
+                          @Param("expected") ParticipationRequestStatus expected,
+                          @Param("status") ParticipationRequestStatus status);
 }
@@ -0,0 +1,16 @@
+package ru.practicum.core.persistance.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.core.persistance.model.UpcomingEvent;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface UpcomingEventRepository extends JpaRepository<UpcomingEvent, Long> {
+    @Modifying
+    @Query(value = "DELETE FROM upcoming_events WHERE event_date <= :now", nativeQuery = true)
+    int deletePassed(LocalDateTime now);
+}
@@ -0,0 +1,10 @@
+package ru.practicum.core.persistance.repository;
+
+import ru.practicum.core.persistance.model.dto.user.NewUserRequest;
+
+import java.util.List;
+
+public interface UserImportRepository {
+    // Для каждого пользователя возвращает число вставленных строк: 0 означает, что email уже занят
+    int[] insertIgnoringDuplicates(List<NewUserRequest> users);
+}
@@ -0,0 +1,37 @@
+package ru.practicum.core.persistance.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import ru.practicum.core.persistance.model.dto.user.NewUserRequest;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+public class UserImportRepositoryImpl implements UserImportRepository {
+    private static final String INSERT = "INSERT INTO users (name, email) VALUES (?, ?) " +
+            "ON CONFLICT (email) DO NOTHING";
+    // H2 не поддерживает ON CONFLICT, MERGE без ветки MATCHED даёт ту же семантику
+    private static final String MERGE = "MERGE INTO users u " +
+            "USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)))) AS s (name, email) " +
+            "ON u.email = s.email " +
+            "WHEN NOT MATCHED THEN INSERT (name, email) VALUES (s.name, s.email)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int[] insertIgnoringDuplicates(List<NewUserRequest> users) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            String sql = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()) ? INSERT : MERGE;
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (NewUserRequest user : users) {
+                    statement.setString(1, user.getName());
+                    statement.setString(2, user.getEmail());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
+}
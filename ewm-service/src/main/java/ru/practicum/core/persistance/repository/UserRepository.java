@@ -6,23 +6,24 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.core.persistance.model.User;
+import ru.practicum.core.utils.PageCursor;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserImportRepository {
     @Query("SELECT u FROM users u " +
             "WHERE (:ids IS NULL OR u.id IN :ids) " +
+            "AND (:afterId IS NULL OR u.id > :afterId) " +
             "ORDER BY u.id ASC")
-    List<User> findUsers(@Param("ids") List<Long> ids, Pageable pageable);
+    List<User> findUsers(@Param("ids") List<Long> ids, @Param("afterId") Long afterId, Pageable pageable);
 
-    default List<User> findUsers(List<Long> ids, Integer from, Integer size) {
-        Pageable pageable = Pageable.unpaged();
-        if (from != null && size != null) {
-            pageable = Pageable.ofSize(size).withPage(from / size);
+    default List<User> findUsers(List<Long> ids, Integer from, Integer size, PageCursor cursor) {
+        if (cursor != null) {
+            return findUsers(ids, cursor.getId(), OffsetPageRequest.firstPage(size));
         }
-        return findUsers(ids, pageable);
+        return findUsers(ids, null, OffsetPageRequest.of(from, size));
     }
 
     Optional<User> findByEmail(String email);
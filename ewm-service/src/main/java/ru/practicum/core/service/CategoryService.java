@@ -6,7 +6,7 @@ import ru.practicum.core.persistance.model.dto.category.NewCategoryDto;
 import java.util.List;
 
 public interface CategoryService {
-    List<CategoryDto> getAll(Integer from, Integer size);
+    List<CategoryDto> getAll(Integer from, Integer size, boolean withCounts);
 
     CategoryDto getById(Long id);
 
@@ -1,17 +1,23 @@
 package ru.practicum.core.service;
 
 import ru.practicum.core.persistance.model.dto.compilation.CompilationDto;
+import ru.practicum.core.persistance.model.dto.compilation.CompilationSnapshot;
 import ru.practicum.core.persistance.model.dto.compilation.NewCompilationDto;
 import ru.practicum.core.persistance.model.dto.compilation.UpdateCompilationRequest;
+import ru.practicum.core.utils.PageCursor;
 
 import java.util.List;
 
 public interface CompilationService {
 
-    List<CompilationDto> findAll(Boolean pinned, Integer from, Integer size);
+    List<CompilationDto> findAll(Boolean pinned, Integer from, Integer size, PageCursor cursor);
 
     CompilationDto findById(Long compId);
 
+    CompilationSnapshot findAllSnapshot(Boolean pinned, Integer from, Integer size, PageCursor cursor);
+
+    CompilationSnapshot findSnapshotById(Long compId);
+
     CompilationDto create(NewCompilationDto compilationDto);
 
     CompilationDto update(Long compilationId, UpdateCompilationRequest updateCompilationRequest);
@@ -3,21 +3,29 @@ package ru.practicum.core.service;
 import ru.practicum.core.persistance.model.dto.event.*;
 import ru.practicum.core.persistance.model.dto.event.filter.EventSearchAdmin;
 import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
+import ru.practicum.core.utils.PageCursor;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface EventService {
     List<EventShortDto> searchCommon(EventSearchCommon search);
 
+    List<EventClusterDto> findClusters(EventSearchCommon search, int zoom);
+
+    EventFacetsDto findFacets(EventSearchCommon search);
+
     List<EventFullDto> searchAdmin(EventSearchAdmin search);
 
+    long exportAdmin(EventSearchAdmin search, EventExportFormat format, OutputStream output);
+
     EventFullDto findById(Long eventId);
 
     EventFullDto create(Long userId, NewEventDto event);
 
     EventFullDto updateByAdmin(long eventId, UpdateEventAdminRequest eventDto);
 
-    List<EventShortDto> findByUserId(Long userId, Integer from, Integer size);
+    List<EventShortDto> findByUserId(Long userId, Integer from, Integer size, PageCursor cursor);
 
     EventFullDto findByIdAndUser(Long userId, Long eventId);
 
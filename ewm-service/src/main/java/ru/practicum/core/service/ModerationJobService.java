@@ -0,0 +1,10 @@
+package ru.practicum.core.service;
+
+import ru.practicum.core.persistance.model.dto.request.EventRequestStatusUpdateRequest;
+import ru.practicum.core.persistance.model.dto.request.ModerationJobDto;
+
+public interface ModerationJobService {
+    ModerationJobDto submit(Long userId, Long eventId, EventRequestStatusUpdateRequest requestDto);
+
+    ModerationJobDto findById(Long userId, Long eventId, Long jobId);
+}
@@ -3,13 +3,17 @@ package ru.practicum.core.service;
 import ru.practicum.core.persistance.model.dto.request.EventRequestStatusUpdateRequest;
 import ru.practicum.core.persistance.model.dto.request.EventRequestStatusUpdateResult;
 import ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
+import ru.practicum.core.utils.PageCursor;
 
 import java.util.List;
 
 public interface ParticipationRequestService {
-    List<ParticipationRequestDto> getAllByUser(Long userId);
+    List<ParticipationRequestDto> getAllByUser(Long userId, ParticipationRequestStatus status,
+                                               Integer from, Integer size, PageCursor cursor);
 
-    List<ParticipationRequestDto> getAllByEventAndInitiator(Long userId, Long eventId);
+    List<ParticipationRequestDto> getAllByEventAndInitiator(Long userId, Long eventId, ParticipationRequestStatus status,
+                                                            Integer from, Integer size, PageCursor cursor);
 
     ParticipationRequestDto create(Long userId, Long eventId);
 
@@ -2,13 +2,19 @@ package ru.practicum.core.service;
 
 import ru.practicum.core.persistance.model.dto.user.NewUserRequest;
 import ru.practicum.core.persistance.model.dto.user.UserDto;
+import ru.practicum.core.persistance.model.dto.user.UserImportFormat;
+import ru.practicum.core.persistance.model.dto.user.UserImportResult;
+import ru.practicum.core.utils.PageCursor;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface UserService {
-    List<UserDto> getAll(List<Long> ids, Integer from, Integer size);
+    List<UserDto> getAll(List<Long> ids, Integer from, Integer size, PageCursor cursor);
 
     UserDto create(NewUserRequest user);
 
     void delete(Long userId);
+
+    UserImportResult importUsers(InputStream input, UserImportFormat format);
 }
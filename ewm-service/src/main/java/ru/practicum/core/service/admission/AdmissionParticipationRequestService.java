@@ -0,0 +1,59 @@
+package ru.practicum.core.service.admission;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.practicum.core.exception.ConditionsNotMetException;
+import ru.practicum.core.persistance.model.dto.request.EventRequestStatusUpdateRequest;
+import ru.practicum.core.persistance.model.dto.request.EventRequestStatusUpdateResult;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
+import ru.practicum.core.service.ParticipationRequestService;
+import ru.practicum.core.service.event.HotEventCounters;
+import ru.practicum.core.service.impl.ParticipationRequestServiceImpl;
+import ru.practicum.core.utils.PageCursor;
+
+import java.util.List;
+
+// Создание заявок идёт через очередь приёма без открытой транзакции, остальное — напрямую
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "EWMServiceApp.admission.enabled", havingValue = "true")
+public class AdmissionParticipationRequestService implements ParticipationRequestService {
+    private final ParticipationRequestServiceImpl participationRequestService;
+    private final ParticipationAdmissionEngine admissionEngine;
+    private final HotEventCounters hotEventCounters;
+
+    @Override
+    public List<ParticipationRequestDto> getAllByUser(Long userId, ParticipationRequestStatus status,
+                                                      Integer from, Integer size, PageCursor cursor) {
+        return participationRequestService.getAllByUser(userId, status, from, size, cursor);
+    }
+
+    @Override
+    public List<ParticipationRequestDto> getAllByEventAndInitiator(Long userId, Long eventId, ParticipationRequestStatus status,
+                                                                   Integer from, Integer size, PageCursor cursor) {
+        return participationRequestService.getAllByEventAndInitiator(userId, eventId, status, from, size, cursor);
+    }
+
+    @Override
+    public ParticipationRequestDto create(Long userId, Long eventId) {
+        // Заявка на заполненное популярное событие отклоняется до постановки в очередь
+        if (hotEventCounters.isFull(eventId)) {
+            throw new ConditionsNotMetException("Достигнут лимит заявок на участие в событии");
+        }
+        return admissionEngine.admit(userId, eventId);
+    }
+
+    @Override
+    public ParticipationRequestDto cancel(Long userId, Long requestId) {
+        return participationRequestService.cancel(userId, requestId);
+    }
+
+    @Override
+    public EventRequestStatusUpdateResult updateStatus(Long userId, Long eventId, EventRequestStatusUpdateRequest requestDto) {
+        return participationRequestService.updateStatus(userId, eventId, requestDto);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.core.service.admission;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.core.exception.AdmissionUnavailableException;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Getter
+@RequiredArgsConstructor
+public class AdmissionRequest {
+    private final Long userId;
+    private final Long eventId;
+    private final CompletableFuture<ParticipationRequestDto> result = new CompletableFuture<>();
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<State> state = new AtomicReference<>(State.QUEUED);
+    private ParticipationRequestDto admitted;
+    private RuntimeException rejection;
+
+    // Писатель берёт заявку только если ожидающий поток ещё не отказался от неё по таймауту
+    boolean claim() {
+        return state.compareAndSet(State.QUEUED, State.CLAIMED);
+    }
+
+    void admit(ParticipationRequestDto participationRequest) {
+        admitted = participationRequest;
+        rejection = null;
+    }
+
+    void reject(RuntimeException e) {
+        admitted = null;
+        rejection = e;
+    }
+
+    // Результат отдаётся ожидающему потоку только после фиксации транзакции пачки
+    void complete() {
+        if (rejection != null) {
+            result.completeExceptionally(rejection);
+        } else {
+            result.complete(admitted);
+        }
+    }
+
+    void fail(Throwable e) {
+        result.completeExceptionally(e);
+    }
+
+    ParticipationRequestDto await(Duration timeout, Duration writeTimeout) {
+        try {
+            try {
+                return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (state.compareAndSet(State.QUEUED, State.CANCELLED)) {
+                    throw e;
+                }
+            }
+            // Заявка уже записывается, и клиент должен узнать итог, но зависший писатель не держит поток бесконечно
+            try {
+                return result.get(writeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new AdmissionUnavailableException("Заявка на участие в событии с id=" + eventId +
+                        " записывается дольше " + writeTimeout + "; её статус можно проверить в списке заявок");
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new AdmissionUnavailableException("Заявка на участие в событии с id=" + eventId + " не обработана за " + timeout);
+        } catch (InterruptedException e) {
+            state.compareAndSet(State.QUEUED, State.CANCELLED);
+            Thread.currentThread().interrupt();
+            throw new AdmissionUnavailableException("Ожидание обработки заявки на участие прервано");
+        }
+    }
+
+    private enum State {
+        QUEUED,
+        CLAIMED,
+        CANCELLED
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.core.service.admission;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import ru.practicum.core.exception.AdmissionUnavailableException;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+
+// Заявки одного события всегда попадают в одну очередь и записываются одним потоком пачками
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "EWMServiceApp.admission.enabled", havingValue = "true")
+public class ParticipationAdmissionEngine {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ParticipationAdmissionWriter writer;
+    private final int batchSize;
+    private final Duration timeout;
+    private final Duration writeTimeout;
+    private final List<BlockingQueue<AdmissionRequest>> shards = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    public ParticipationAdmissionEngine(ParticipationAdmissionWriter writer,
+                                        @Value("${EWMServiceApp.admission.shards:4}") int shardCount,
+                                        @Value("${EWMServiceApp.admission.batch-size:100}") int batchSize,
+                                        @Value("${EWMServiceApp.admission.queue-capacity:10000}") int queueCapacity,
+                                        @Value("${EWMServiceApp.admission.timeout:10s}") Duration timeout,
+                                        @Value("${EWMServiceApp.admission.write-timeout:30s}") Duration writeTimeout) {
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.timeout = timeout;
+        this.writeTimeout = writeTimeout;
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 0; i < shards.size(); i++) {
+            BlockingQueue<AdmissionRequest> queue = shards.get(i);
+            Thread worker = new Thread(() -> run(queue), "admission-shard-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Очередь приёма заявок на участие запущена: {} шардов, пачки по {}", shards.size(), batchSize);
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.forEach(Thread::interrupt);
+    }
+
+    public ParticipationRequestDto admit(Long userId, Long eventId) {
+        AdmissionRequest request = new AdmissionRequest(userId, eventId);
+        if (!shards.get(Math.floorMod(eventId.hashCode(), shards.size())).offer(request)) {
+            throw new AdmissionUnavailableException("Очередь заявок на участие в событии с id=" + eventId + " переполнена");
+        }
+        return request.await(timeout, writeTimeout);
+    }
+
+    private void run(BlockingQueue<AdmissionRequest> queue) {
+        List<AdmissionRequest> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            batch.stream()
+                    .collect(Collectors.groupingBy(AdmissionRequest::getEventId, LinkedHashMap::new, Collectors.toList()))
+                    .forEach(this::process);
+            batch.clear();
+        }
+        queue.drainTo(batch);
+        batch.forEach(request -> request.fail(new AdmissionUnavailableException("Приём заявок на участие остановлен")));
+    }
+
+    private void process(Long eventId, List<AdmissionRequest> batch) {
+        List<AdmissionRequest> requests = batch.stream().filter(AdmissionRequest::claim).toList();
+        if (requests.size() < batch.size()) {
+            log.debug("Пропущено {} заявок на событие {}, отменённых по таймауту", batch.size() - requests.size(), eventId);
+        }
+        if (!requests.isEmpty()) {
+            write(eventId, requests);
+        }
+    }
+
+    private void write(Long eventId, List<AdmissionRequest> requests) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                writer.write(eventId, requests);
+                requests.forEach(AdmissionRequest::complete);
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                log.debug("Повтор записи пачки заявок на событие {}: {}", eventId, e.getMessage());
+            } catch (RuntimeException e) {
+                if (requests.size() > 1) {
+                    // Ошибочная заявка не должна ронять всю пачку
+                    requests.forEach(request -> write(eventId, List.of(request)));
+                } else {
+                    log.error("Не удалось записать заявку на событие {}", eventId, e);
+                    requests.forEach(request -> request.fail(e));
+                }
+                return;
+            }
+        }
+        requests.forEach(request -> request.fail(new AdmissionUnavailableException(
+                "Не удалось записать заявки на участие в событии с id=" + eventId)));
+    }
+}
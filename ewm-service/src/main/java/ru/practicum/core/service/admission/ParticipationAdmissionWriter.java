@@ -0,0 +1,105 @@
+package ru.practicum.core.service.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.core.exception.ConditionsNotMetException;
+import ru.practicum.core.exception.NotFoundException;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.ParticipationRequest;
+import ru.practicum.core.persistance.model.User;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
+import ru.practicum.core.persistance.model.mapper.ParticipationRequestMapper;
+import ru.practicum.core.persistance.repository.EventRepository;
+import ru.practicum.core.persistance.repository.ParticipationRequestRepository;
+import ru.practicum.core.persistance.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class ParticipationAdmissionWriter {
+    private final ParticipationRequestRepository participationRequestRepository;
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final boolean waitlist;
+
+    public ParticipationAdmissionWriter(ParticipationRequestRepository participationRequestRepository,
+                                        UserRepository userRepository,
+                                        EventRepository eventRepository,
+                                        @Value("${EWMServiceApp.admission.waitlist.enabled:false}") boolean waitlist) {
+        this.participationRequestRepository = participationRequestRepository;
+        this.userRepository = userRepository;
+        this.eventRepository = eventRepository;
+        this.waitlist = waitlist;
+    }
+
+    @Transactional
+    public void write(Long eventId, List<AdmissionRequest> requests) {
+        Optional<Event> found = eventRepository.findById(eventId);
+        if (found.isEmpty()) {
+            requests.forEach(request -> request.reject(new NotFoundException("Событие с id=" + eventId + " не найдено")));
+            return;
+        }
+        Event event = found.get();
+        Set<Long> userIds = requests.stream().map(AdmissionRequest::getUserId).collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Set<Long> requesters = new HashSet<>(participationRequestRepository.findRequesterIdsByEventIdAndRequesterIdIn(eventId, userIds));
+        boolean moderated = event.getParticipantLimit() > 0 && event.getRequestModeration();
+        long freeSlots = event.getParticipantLimit() == 0
+                ? Long.MAX_VALUE
+                : event.getParticipantLimit() - event.getConfirmedRequests();
+
+        // Заявки принимаются в порядке поступления; сверх лимита — в лист ожидания, если он включён, иначе отказ
+        List<AdmissionRequest> accepted = new ArrayList<>();
+        List<ParticipationRequest> participationRequests = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        long confirmed = 0;
+        for (AdmissionRequest request : requests) {
+            User requester = users.get(request.getUserId());
+            if (requester == null) {
+                request.reject(new NotFoundException("Пользователь с id=" + request.getUserId() + " не найден"));
+            } else if (event.getInitiator().getId().equals(requester.getId())) {
+                request.reject(new ConditionsNotMetException("Нельзя заявить участие в собственном событии"));
+            } else if (event.getState() != EventState.PUBLISHED) {
+                request.reject(new ConditionsNotMetException("Нельзя заявить участие в неопубликованном событии"));
+            } else if (!requesters.add(requester.getId())) {
+                request.reject(new ConditionsNotMetException("Нельзя отправить дублирующую заявку на участие в событии"));
+            } else if (moderated && freeSlots <= 0 || !moderated && !waitlist && confirmed >= freeSlots) {
+                request.reject(new ConditionsNotMetException("Достигнут лимит заявок на участие в событии"));
+            } else {
+                ParticipationRequestStatus status;
+                if (moderated) {
+                    status = ParticipationRequestStatus.PENDING;
+                } else if (confirmed < freeSlots) {
+                    status = ParticipationRequestStatus.CONFIRMED;
+                    confirmed++;
+                } else {
+                    status = ParticipationRequestStatus.WAITING;
+                }
+                accepted.add(request);
+                participationRequests.add(ParticipationRequest.builder()
+                        .requester(requester)
+                        .event(event)
+                        .status(status)
+                        .created(now)
+                        .build());
+            }
+        }
+
+        if (confirmed > 0) {
+            if (!eventRepository.addConfirmedRequests(event, confirmed)) {
+                throw new OptimisticLockingFailureException("Счётчик подтверждённых заявок события с id=" + eventId + " изменён параллельно");
+            }
+        }
+        List<ParticipationRequest> saved = participationRequestRepository.saveAll(participationRequests);
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).admit(ParticipationRequestMapper.toParticipationRequestDto(saved.get(i)));
+        }
+    }
+}
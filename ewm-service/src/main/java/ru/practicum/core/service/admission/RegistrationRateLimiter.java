@@ -0,0 +1,144 @@
+package ru.practicum.core.service.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.core.exception.RateLimitExceededException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Корзины токенов по событию и пользователю; каждая хранится как одно время следующего разрешённого запроса (GCRA)
+@Slf4j
+@Component
+public class RegistrationRateLimiter {
+    private final boolean enabled;
+    private final Bucket eventBucket;
+    private final Bucket userBucket;
+    private final LongSupplier clock;
+    private final Counter eventRejections;
+    private final Counter userRejections;
+
+    @Autowired
+    public RegistrationRateLimiter(MeterRegistry meterRegistry,
+                                   @Value("${EWMServiceApp.rate-limit.enabled:false}") boolean enabled,
+                                   @Value("${EWMServiceApp.rate-limit.event.rate:200}") double eventRate,
+                                   @Value("${EWMServiceApp.rate-limit.event.burst:400}") int eventBurst,
+                                   @Value("${EWMServiceApp.rate-limit.user.rate:1}") double userRate,
+                                   @Value("${EWMServiceApp.rate-limit.user.burst:3}") int userBurst) {
+        this(meterRegistry, enabled, eventRate, eventBurst, userRate, userBurst, System::nanoTime);
+    }
+
+    RegistrationRateLimiter(MeterRegistry meterRegistry, boolean enabled, double eventRate, int eventBurst,
+                            double userRate, int userBurst, LongSupplier clock) {
+        this.enabled = enabled;
+        this.eventBucket = new Bucket(eventRate, eventBurst);
+        this.userBucket = new Bucket(userRate, userBurst);
+        this.clock = clock;
+        eventRejections = Counter.builder("ewm.registration.rate.limited").tag("bucket", "event").register(meterRegistry);
+        userRejections = Counter.builder("ewm.registration.rate.limited").tag("bucket", "user").register(meterRegistry);
+    }
+
+    public void acquire(Long userId, Long eventId) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        // Сначала корзина пользователя, чтобы повторы одного пользователя не расходовали квоту события
+        long wait = userBucket.tryAcquire(userId, now);
+        if (wait > 0) {
+            userRejections.increment();
+            throw new RateLimitExceededException("Слишком частые заявки пользователя с id=" + userId, toSeconds(wait));
+        }
+        wait = eventBucket.tryAcquire(eventId, now);
+        if (wait > 0) {
+            // Отклонённая по квоте события заявка не должна расходовать квоту пользователя
+            userBucket.release(userId);
+            eventRejections.increment();
+            throw new RateLimitExceededException("Слишком много заявок на участие в событии с id=" + eventId, toSeconds(wait));
+        }
+    }
+
+    // Полная корзина эквивалентна отсутствующей, поэтому простаивающие ключи можно удалять
+    @Scheduled(fixedDelayString = "${EWMServiceApp.rate-limit.cleanup-interval-ms:60000}")
+    public void cleanup() {
+        long now = clock.getAsLong();
+        int removed = eventBucket.cleanup(now) + userBucket.cleanup(now);
+        if (removed > 0) {
+            log.debug("Удалено {} простаивающих корзин ограничения частоты заявок", removed);
+        }
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static class Bucket {
+        // Значение удалённой корзины; захватившие её ранее потоки повторяют попытку с новой
+        private static final long RETIRED = Long.MIN_VALUE;
+
+        private final long intervalNanos;
+        private final long capacityNanos;
+        private final Map<Long, AtomicLong> arrivals = new ConcurrentHashMap<>();
+
+        private Bucket(double rate, int burst) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            this.capacityNanos = intervalNanos * burst;
+        }
+
+        private long tryAcquire(Long key, long now) {
+            AtomicLong arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(now));
+            while (true) {
+                long current = arrival.get();
+                if (current == RETIRED) {
+                    arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(now));
+                    continue;
+                }
+                long next = Math.max(current, now) + intervalNanos;
+                if (next - now > capacityNanos) {
+                    return next - now - capacityNanos;
+                }
+                if (arrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        private void release(Long key) {
+            AtomicLong arrival = arrivals.get(key);
+            if (arrival == null) {
+                return;
+            }
+            long current;
+            do {
+                current = arrival.get();
+                if (current == RETIRED) {
+                    return;
+                }
+            } while (!arrival.compareAndSet(current, current - intervalNanos));
+        }
+
+        // Корзина удаляется, только если успела полностью восполниться и её не изменили параллельно
+        private int cleanup(long now) {
+            int removed = 0;
+            for (Long key : arrivals.keySet()) {
+                if (arrivals.computeIfPresent(key, (k, arrival) -> retire(arrival, now) ? null : arrival) == null) {
+                    removed++;
+                }
+            }
+            return removed;
+        }
+
+        private boolean retire(AtomicLong arrival, long now) {
+            long current = arrival.get();
+            return current != RETIRED && current <= now && arrival.compareAndSet(current, RETIRED);
+        }
+    }
+}
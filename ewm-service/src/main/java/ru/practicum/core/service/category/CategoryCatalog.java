@@ -0,0 +1,132 @@
+package ru.practicum.core.service.category;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.core.persistance.model.dto.category.CategoryDto;
+import ru.practicum.core.persistance.model.mapper.CategoryMapper;
+import ru.practicum.core.persistance.repository.CategoryRepository;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+// Неизменяемый снимок всех категорий, который целиком подменяется при каждом изменении
+@Slf4j
+@Component
+public class CategoryCatalog {
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public CategoryCatalog(CategoryRepository categoryRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${EWMServiceApp.categories.catalog.enabled:false}") boolean enabled) {
+        this.categoryRepository = categoryRepository;
+        // Обращения к базе идут в читающей транзакции, чтобы обслуживаться репликой; попадания в каталог транзакцию не открывают
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    public Optional<CategoryDto> findById(Long id) {
+        if (!enabled) {
+            return loadById(id);
+        }
+        CategoryDto category = current().byId.get(id);
+        if (category != null) {
+            return Optional.of(category);
+        }
+        // Категория могла появиться в другом экземпляре сервиса — проверяем базу и дополняем каталог
+        Optional<CategoryDto> loaded = loadById(id);
+        loaded.ifPresent(found -> update(current -> current.with(found)));
+        return loaded;
+    }
+
+    public List<CategoryDto> findAll(Integer from, Integer size) {
+        if (!enabled) {
+            return readOnlyTransaction.execute(status -> categoryRepository.findCategories(from, size).stream()
+                    .map(CategoryMapper::categoryToDto)
+                    .toList());
+        }
+        List<CategoryDto> ordered = current().ordered;
+        int start = Math.min(from == null ? 0 : from, ordered.size());
+        int end = size == null ? ordered.size() : (int) Math.min((long) start + size, ordered.size());
+        return ordered.subList(start, end);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent change) {
+        if (!enabled || snapshot.get() == null) {
+            return;
+        }
+        update(current -> change.getCategory() == null
+                ? current.without(change.getCategoryId())
+                : current.with(change.getCategory()));
+    }
+
+    // Подхватывает изменения, сделанные другими экземплярами сервиса
+    @Scheduled(fixedDelayString = "${EWMServiceApp.categories.catalog.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        Snapshot before = snapshot.get();
+        Snapshot loaded = load();
+        // Если каталог изменился во время загрузки, прочитанные данные могли устареть
+        if (snapshot.compareAndSet(before, loaded)) {
+            log.debug("Каталог категорий обновлён, категорий: {}", loaded.ordered.size());
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            snapshot.compareAndSet(null, load());
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    private void update(UnaryOperator<Snapshot> change) {
+        snapshot.updateAndGet(current -> change.apply(current == null ? load() : current));
+    }
+
+    private Optional<CategoryDto> loadById(Long id) {
+        return readOnlyTransaction.execute(status -> categoryRepository.findById(id).map(CategoryMapper::categoryToDto));
+    }
+
+    private Snapshot load() {
+        return readOnlyTransaction.execute(status ->
+                new Snapshot(categoryRepository.findAll().stream().map(CategoryMapper::categoryToDto).toList()));
+    }
+
+    private static class Snapshot {
+        private final Map<Long, CategoryDto> byId;
+        private final List<CategoryDto> ordered;
+
+        private Snapshot(Collection<CategoryDto> categories) {
+            Map<Long, CategoryDto> map = new HashMap<>();
+            categories.forEach(category -> map.put(category.getId(), category));
+            this.byId = Map.copyOf(map);
+            this.ordered = map.values().stream().sorted(Comparator.comparing(CategoryDto::getId)).toList();
+        }
+
+        private Snapshot with(CategoryDto category) {
+            Map<Long, CategoryDto> copy = new HashMap<>(byId);
+            copy.put(category.getId(), category);
+            return new Snapshot(copy.values());
+        }
+
+        private Snapshot without(Long id) {
+            Map<Long, CategoryDto> copy = new HashMap<>(byId);
+            copy.remove(id);
+            return new Snapshot(copy.values());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.core.service.category;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.core.persistance.model.dto.category.CategoryDto;
+
+@Getter
+@RequiredArgsConstructor
+public class CategoryChangedEvent {
+    private final Long categoryId;
+    // null, если категория удалена
+    private final CategoryDto category;
+}
@@ -0,0 +1,184 @@
+package ru.practicum.core.service.compilation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.core.persistance.model.dto.compilation.CompilationDto;
+import ru.practicum.core.persistance.model.dto.compilation.CompilationSnapshot;
+import ru.practicum.core.persistance.model.dto.event.EventShortDto;
+import ru.practicum.core.service.category.CategoryChangedEvent;
+import ru.practicum.core.service.event.ConfirmedRequestsChangedEvent;
+import ru.practicum.core.service.event.EventChangedEvent;
+import ru.practicum.core.utils.PageCursor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+// Готовые JSON и gzip представления подборок; пересобираются только после изменения подборки или её событий
+@Slf4j
+@Component
+public class CompilationSnapshotCache {
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxListings;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Long, Entry> compilations = new ConcurrentHashMap<>();
+    private final Map<ListingKey, Entry> listings = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CompilationSnapshotCache(ObjectMapper objectMapper,
+                                    @Value("${EWMServiceApp.compilations.snapshots.enabled:false}") boolean enabled,
+                                    @Value("${EWMServiceApp.compilations.snapshots.max-listings:100}") int maxListings,
+                                    @Value("${EWMServiceApp.compilations.snapshots.ttl:5m}") Duration ttl) {
+        this(objectMapper, enabled, maxListings, ttl, System::nanoTime);
+    }
+
+    CompilationSnapshotCache(ObjectMapper objectMapper, boolean enabled, int maxListings, Duration ttl, LongSupplier clock) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxListings = maxListings;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    public CompilationSnapshot getCompilation(Long compilationId, Supplier<CompilationDto> loader) {
+        return get(compilations, compilationId, () -> {
+            CompilationDto compilation = loader.get();
+            return snapshot(compilation, null, eventIds(List.of(compilation)));
+        });
+    }
+
+    public CompilationSnapshot getListing(Boolean pinned, Integer from, Integer size, PageCursor cursor,
+                                          Supplier<List<CompilationDto>> loader) {
+        Supplier<CompilationSnapshot> builder = () -> {
+            List<CompilationDto> page = loader.get();
+            String nextCursor = PageCursor.nextPageHeaders(page, size, compilation -> PageCursor.ofId(compilation.getId()))
+                    .getFirst(PageCursor.NEXT_CURSOR_HEADER);
+            return snapshot(page, nextCursor, eventIds(page));
+        };
+        if (cursor != null || (listings.size() >= maxListings && !listings.containsKey(new ListingKey(pinned, from, size)))) {
+            return builder.get();
+        }
+        return get(listings, new ListingKey(pinned, from, size), builder);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompilationChanged(CompilationChangedEvent change) {
+        version.incrementAndGet();
+        compilations.remove(change.getCompilationId());
+        listings.clear();
+        log.debug("Снимки подборки с id={} и списков подборок сброшены", change.getCompilationId());
+    }
+
+    // Категория входит в представление каждого события подборки, поэтому сбрасываются все снимки
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent change) {
+        version.incrementAndGet();
+        compilations.clear();
+        listings.clear();
+        log.debug("Снимки подборок сброшены после изменения категории с id={}", change.getCategoryId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        invalidateEvent(change.getEvent().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConfirmedRequestsChanged(ConfirmedRequestsChangedEvent change) {
+        invalidateEvent(change.getEventId());
+    }
+
+    private void invalidateEvent(Long eventId) {
+        version.incrementAndGet();
+        compilations.values().removeIf(entry -> entry.snapshot.getEventIds().contains(eventId));
+        listings.values().removeIf(entry -> entry.snapshot.getEventIds().contains(eventId));
+    }
+
+    private <K> CompilationSnapshot get(Map<K, Entry> entries, K key, Supplier<CompilationSnapshot> builder) {
+        if (!enabled) {
+            return builder.get();
+        }
+        long now = clock.getAsLong();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.createdAt <= ttlNanos) {
+            return entry.snapshot;
+        }
+        long loadedVersion = version.get();
+        Entry loaded = new Entry(builder.get(), now);
+        entries.put(key, loaded);
+        // Снимок, собранный во время инвалидации, мог прочитать устаревшие данные
+        if (version.get() != loadedVersion) {
+            entries.remove(key, loaded);
+        }
+        return loaded.snapshot;
+    }
+
+    private CompilationSnapshot snapshot(Object value, String nextCursor, Set<Long> eventIds) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            String hash = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(MessageDigest.getInstance("SHA-256").digest(json));
+            return new CompilationSnapshot(json, gzip(json), "\"" + hash + "\"", "\"" + hash + "-gzip\"",
+                    nextCursor, eventIds);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать подборку", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(json.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    private static Set<Long> eventIds(List<CompilationDto> compilations) {
+        return compilations.stream()
+                .filter(compilation -> compilation.getEvents() != null)
+                .flatMap(compilation -> compilation.getEvents().stream())
+                .map(EventShortDto::getId)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final CompilationSnapshot snapshot;
+        private final long createdAt;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class ListingKey {
+        private final Boolean pinned;
+        private final Integer from;
+        private final Integer size;
+    }
+}
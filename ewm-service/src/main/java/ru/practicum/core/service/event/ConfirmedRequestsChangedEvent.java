@@ -0,0 +1,13 @@
+package ru.practicum.core.service.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ConfirmedRequestsChangedEvent {
+    private final Long eventId;
+    private final long delta;
+    // Событие стало доступным для записи или перестало быть им
+    private final boolean availabilityChanged;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.core.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+
+@Getter
+@AllArgsConstructor
+public class EventChangedEvent {
+    private final Event event;
+    private final EventState previousState;
+}
@@ -0,0 +1,84 @@
+package ru.practicum.core.service.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.core.persistance.model.dto.event.EventExportFormat;
+import ru.practicum.core.persistance.model.dto.event.EventFullDto;
+import ru.practicum.core.utils.SimpleDateTimeFormatter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+public class EventExportWriter {
+    private static final List<String> CSV_COLUMNS = List.of("id", "title", "annotation", "categoryId", "categoryName",
+            "initiatorId", "initiatorName", "state", "eventDate", "createdOn", "publishedOn", "paid",
+            "participantLimit", "confirmedRequests", "requestModeration", "lat", "lon", "views");
+
+    private final ObjectMapper objectMapper;
+
+    public long write(Stream<EventFullDto> events, EventExportFormat format, OutputStream output) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long written = 0;
+        try {
+            if (format == EventExportFormat.CSV) {
+                writer.write(String.join(",", CSV_COLUMNS));
+                writer.write('\n');
+            }
+            Iterator<EventFullDto> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                EventFullDto event = iterator.next();
+                writer.write(format == EventExportFormat.CSV ? toCsv(event) : objectMapper.writeValueAsString(event));
+                writer.write('\n');
+                written++;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return written;
+    }
+
+    private String toCsv(EventFullDto event) {
+        return Stream.of(event.getId(),
+                        event.getTitle(),
+                        event.getAnnotation(),
+                        event.getCategory() == null ? null : event.getCategory().getId(),
+                        event.getCategory() == null ? null : event.getCategory().getName(),
+                        event.getInitiator() == null ? null : event.getInitiator().getId(),
+                        event.getInitiator() == null ? null : event.getInitiator().getName(),
+                        event.getState(),
+                        event.getEventDate(),
+                        event.getCreatedOn(),
+                        event.getPublishedOn(),
+                        event.getPaid(),
+                        event.getParticipantLimit(),
+                        event.getConfirmedRequests(),
+                        event.getRequestModeration(),
+                        event.getLocation() == null ? null : event.getLocation().getLat(),
+                        event.getLocation() == null ? null : event.getLocation().getLon(),
+                        event.getViews())
+                .map(this::toCsvValue)
+                .collect(Collectors.joining(","));
+    }
+
+    private String toCsvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof LocalDateTime dateTime
+                ? SimpleDateTimeFormatter.toString(dateTime)
+                : value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
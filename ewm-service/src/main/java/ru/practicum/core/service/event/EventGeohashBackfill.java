@@ -0,0 +1,40 @@
+package ru.practicum.core.service.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.repository.EventRepository;
+import ru.practicum.core.utils.GeoHash;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventGeohashBackfill {
+    private static final int BATCH_SIZE = 500;
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int total = 0;
+        int updated;
+        do {
+            updated = transactionTemplate.execute(status -> {
+                List<Event> events = eventRepository.findTop500ByGeohashIsNullOrderById();
+                events.forEach(event -> event.setGeohash(GeoHash.encode(event.getLat(), event.getLon(), GeoHash.MAX_PRECISION)));
+                return events.size();
+            });
+            total += updated;
+        } while (updated == BATCH_SIZE);
+        if (total > 0) {
+            log.info("Заполнен geohash для {} событий", total);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.core.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.core.persistance.model.Event;
+
+// Изменилось только число просмотров; кэши выдачи его не слушают и обновляются по TTL
+@Getter
+@AllArgsConstructor
+public class EventViewsChangedEvent {
+    private final Event event;
+}
@@ -0,0 +1,137 @@
+package ru.practicum.core.service.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
+import ru.practicum.core.persistance.repository.EventRepository;
+import ru.practicum.core.persistance.repository.ParticipationRequestRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Счётчики подтверждённых заявок самых популярных событий, позволяющие отклонять заявки без чтения строки события
+@Slf4j
+@Component
+public class HotEventCounters {
+    private final EventRepository eventRepository;
+    private final ParticipationRequestRepository participationRequestRepository;
+    private final boolean enabled;
+    private final long hotThreshold;
+    private final Map<Long, LongAdder> attempts = new ConcurrentHashMap<>();
+    private final Map<Long, HotCounter> counters = new ConcurrentHashMap<>();
+    private final Counter repairs;
+
+    public HotEventCounters(EventRepository eventRepository,
+                            ParticipationRequestRepository participationRequestRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${EWMServiceApp.hot-events.enabled:false}") boolean enabled,
+                            @Value("${EWMServiceApp.hot-events.threshold:50}") long hotThreshold) {
+        this.eventRepository = eventRepository;
+        this.participationRequestRepository = participationRequestRepository;
+        this.enabled = enabled;
+        this.hotThreshold = hotThreshold;
+        repairs = Counter.builder("ewm.hot.events.repairs").register(meterRegistry);
+        Gauge.builder("ewm.hot.events.size", counters, Map::size).register(meterRegistry);
+    }
+
+    public boolean isFull(Long eventId) {
+        if (!enabled) {
+            return false;
+        }
+        HotCounter counter = counters.get(eventId);
+        if (counter == null) {
+            attempts.computeIfAbsent(eventId, id -> new LongAdder()).increment();
+            return false;
+        }
+        counter.attempts.increment();
+        return counter.limit != 0 && counter.confirmed.sum() >= counter.limit;
+    }
+
+    boolean isHot(Long eventId) {
+        return counters.containsKey(eventId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConfirmedRequestsChanged(ConfirmedRequestsChangedEvent change) {
+        HotCounter counter = counters.get(change.getEventId());
+        if (counter != null) {
+            counter.confirmed.add(change.getDelta());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        Event event = change.getEvent();
+        HotCounter counter = counters.get(event.getId());
+        if (counter == null) {
+            return;
+        }
+        if (event.getState() != EventState.PUBLISHED) {
+            counters.remove(event.getId());
+        } else {
+            counter.limit = event.getParticipantLimit();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${EWMServiceApp.hot-events.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        counters.values().removeIf(counter -> counter.attempts.sumThenReset() < hotThreshold);
+        attempts.forEach((eventId, count) -> {
+            if (count.sum() >= hotThreshold) {
+                promote(eventId);
+            }
+        });
+        attempts.clear();
+        counters.forEach(this::repair);
+    }
+
+    private void promote(Long eventId) {
+        eventRepository.findById(eventId)
+                .filter(event -> event.getState() == EventState.PUBLISHED)
+                .ifPresent(event -> counters.computeIfAbsent(eventId, id -> {
+                    log.info("Событие с id={} отмечено как популярное", id);
+                    return new HotCounter(event.getParticipantLimit(), countConfirmed(id));
+                }));
+    }
+
+    // Расхождение исправляется, только если оно повторилось: разовое отличие даёт ещё не применённое изменение
+    private void repair(Long eventId, HotCounter counter) {
+        long drift = countConfirmed(eventId) - counter.confirmed.sum();
+        if (drift != 0 && drift == counter.drift) {
+            counter.confirmed.add(drift);
+            counter.drift = 0;
+            repairs.increment();
+            log.warn("Счётчик подтверждённых заявок события с id={} исправлен на {}", eventId, drift);
+        } else {
+            counter.drift = drift;
+        }
+    }
+
+    private long countConfirmed(Long eventId) {
+        return participationRequestRepository.countByEventIdAndStatus(eventId, ParticipationRequestStatus.CONFIRMED);
+    }
+
+    private static class HotCounter {
+        private final LongAdder confirmed = new LongAdder();
+        private final LongAdder attempts = new LongAdder();
+        private volatile long limit;
+        private long drift;
+
+        private HotCounter(long limit, long confirmed) {
+            this.limit = limit;
+            this.confirmed.add(confirmed);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.core.service.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.core.persistance.repository.CategoryEventCounterRepository;
+import ru.practicum.core.persistance.repository.UpcomingEventRepository;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpcomingEventPruner {
+    private final UpcomingEventRepository upcomingEventRepository;
+    private final CategoryEventCounterRepository categoryEventCounterRepository;
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${EWMServiceApp.upcoming-events.prune-interval-ms:60000}")
+    public int prune() {
+        LocalDateTime now = LocalDateTime.now();
+        categoryEventCounterRepository.subtractPassed(now);
+        int pruned = upcomingEventRepository.deletePassed(now);
+        if (pruned > 0) {
+            log.info("Из проекции предстоящих событий удалено {} прошедших событий", pruned);
+        }
+        return pruned;
+    }
+}
@@ -1,18 +1,26 @@
 package ru.practicum.core.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.core.exception.ConditionsNotMetException;
 import ru.practicum.core.exception.NotFoundException;
 import ru.practicum.core.persistance.model.Category;
+import ru.practicum.core.persistance.model.CategoryEventCounter;
 import ru.practicum.core.persistance.model.dto.category.CategoryDto;
 import ru.practicum.core.persistance.model.dto.category.NewCategoryDto;
 import ru.practicum.core.persistance.model.mapper.CategoryMapper;
+import ru.practicum.core.persistance.repository.CategoryEventCounterRepository;
 import ru.practicum.core.persistance.repository.CategoryRepository;
 import ru.practicum.core.persistance.repository.EventRepository;
 import ru.practicum.core.service.CategoryService;
+import ru.practicum.core.service.category.CategoryCatalog;
+import ru.practicum.core.service.category.CategoryChangedEvent;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,18 +28,32 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final EventRepository eventRepository;
+    private final CategoryEventCounterRepository categoryEventCounterRepository;
+    private final CategoryCatalog categoryCatalog;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public List<CategoryDto> getAll(Integer from, Integer size) {
-        return categoryRepository.findCategories(from, size).stream().map(CategoryMapper::categoryToDto).toList();
+    public List<CategoryDto> getAll(Integer from, Integer size, boolean withCounts) {
+        List<CategoryDto> categories = categoryCatalog.findAll(from, size);
+        if (!withCounts || categories.isEmpty()) {
+            return categories;
+        }
+        Map<Long, Long> upcoming = categoryEventCounterRepository
+                .findAllById(categories.stream().map(CategoryDto::getId).toList()).stream()
+                .collect(Collectors.toMap(CategoryEventCounter::getCategoryId, CategoryEventCounter::getUpcomingEvents));
+        return categories.stream()
+                .map(category -> CategoryDto.builder()
+                        .id(category.getId())
+                        .name(category.getName())
+                        .upcomingEvents(upcoming.getOrDefault(category.getId(), 0L))
+                        .build())
+                .toList();
     }
 
     @Override
     public CategoryDto getById(Long id) {
-        return CategoryMapper.categoryToDto(
-                categoryRepository.findById(id).orElseThrow(
-                        () -> new NotFoundException("Категория с id=" + id + " не найдена")
-                )
+        return categoryCatalog.findById(id).orElseThrow(
+                () -> new NotFoundException("Категория с id=" + id + " не найдена")
         );
     }
 
@@ -41,9 +63,11 @@ public class CategoryServiceImpl implements CategoryService {
             throw new ConditionsNotMetException("Категория с именем " + newCategoryDto.getName() + " уже существует");
         }
 
-        return CategoryMapper.categoryToDto(
+        CategoryDto category = CategoryMapper.categoryToDto(
                 categoryRepository.saveAndFlush(CategoryMapper.requestToCategory(newCategoryDto))
         );
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId(), category));
+        return category;
     }
 
     @Override
@@ -57,17 +81,25 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         category.setName(newCategoryDto.getName());
-        return CategoryMapper.categoryToDto(categoryRepository.saveAndFlush(category));
+        CategoryDto updated = CategoryMapper.categoryToDto(categoryRepository.saveAndFlush(category));
+        eventPublisher.publishEvent(new CategoryChangedEvent(id, updated));
+        return updated;
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         categoryRepository.findById(id).orElseThrow(() ->
                 new NotFoundException("Категория с id=" + id + " не найдена")
         );
-        if (!eventRepository.findAllByCategoryId(id).isEmpty()) {
+        // Удаление каскадно удаляет события, поэтому нулевому счётчику не доверяем и проверяем наличие событий
+        boolean used = categoryEventCounterRepository.findById(id)
+                .map(counter -> counter.getEvents() > 0)
+                .orElse(false) || eventRepository.existsByCategoryId(id);
+        if (used) {
             throw new ConditionsNotMetException("Удаление категории невозможно, так как она используется в событиях");
         }
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id, null));
     }
 }
@@ -1,42 +1,85 @@
 package ru.practicum.core.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.core.exception.ConditionsNotMetException;
 import ru.practicum.core.exception.NotFoundException;
 import ru.practicum.core.persistance.model.Compilation;
 import ru.practicum.core.persistance.model.Event;
 import ru.practicum.core.persistance.model.dto.compilation.CompilationDto;
+import ru.practicum.core.persistance.model.dto.compilation.CompilationEventView;
+import ru.practicum.core.persistance.model.dto.compilation.CompilationSnapshot;
 import ru.practicum.core.persistance.model.dto.compilation.NewCompilationDto;
 import ru.practicum.core.persistance.model.dto.compilation.UpdateCompilationRequest;
+import ru.practicum.core.persistance.model.dto.event.EventShortDto;
 import ru.practicum.core.persistance.model.mapper.CompilationMapper;
+import ru.practicum.core.persistance.model.mapper.EventMapper;
 import ru.practicum.core.persistance.repository.CompilationRepository;
 import ru.practicum.core.persistance.repository.EventRepository;
 import ru.practicum.core.service.CompilationService;
+import ru.practicum.core.service.compilation.CompilationChangedEvent;
+import ru.practicum.core.service.compilation.CompilationSnapshotCache;
+import ru.practicum.core.utils.PageCursor;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CompilationServiceImpl implements CompilationService {
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
+    private final CompilationSnapshotCache snapshotCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public List<CompilationDto> findAll(Boolean pinned, Integer from, Integer size) {
-        return compilationRepository.findCompilations(pinned, from, size).stream().map(CompilationMapper::toCompilationDto).toList();
+    @Transactional(readOnly = true)
+    public List<CompilationDto> findAll(Boolean pinned, Integer from, Integer size, PageCursor cursor) {
+        List<Compilation> compilations = compilationRepository.findCompilations(pinned, from, size, cursor);
+        Map<Long, List<EventShortDto>> events = findCompilationEvents(compilations);
+        return compilations.stream()
+                .map(compilation -> CompilationMapper.toCompilationDto(compilation,
+                        events.getOrDefault(compilation.getId(), List.of())))
+                .toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CompilationDto findById(Long compId) {
-        return CompilationMapper.toCompilationDto(
-                compilationRepository.findById(compId).orElseThrow(() -> new NotFoundException("Подборка с id=" + compId + " не найдена"))
-        );
+        Compilation compilation = compilationRepository.findById(compId)
+                .orElseThrow(() -> new NotFoundException("Подборка с id=" + compId + " не найдена"));
+        return CompilationMapper.toCompilationDto(compilation,
+                findCompilationEvents(List.of(compilation)).getOrDefault(compId, List.of()));
     }
 
+    // Без транзакции: при попадании в кэш не нужно даже соединение с базой
     @Override
+    public CompilationSnapshot findAllSnapshot(Boolean pinned, Integer from, Integer size, PageCursor cursor) {
+        return snapshotCache.getListing(pinned, from, size, cursor, () -> findAll(pinned, from, size, cursor));
+    }
+
+    @Override
+    public CompilationSnapshot findSnapshotById(Long compId) {
+        return snapshotCache.getCompilation(compId, () -> findById(compId));
+    }
+
+    private Map<Long, List<EventShortDto>> findCompilationEvents(List<Compilation> compilations) {
+        if (compilations.isEmpty()) {
+            return Map.of();
+        }
+        return compilationRepository.findCompilationEvents(compilations.stream().map(Compilation::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(CompilationEventView::getCompilationId,
+                        Collectors.mapping(EventMapper::toEventShortDto, Collectors.toList())));
+    }
+
+    @Override
+    @Transactional
     public CompilationDto create(NewCompilationDto compilationDto) {
         if (!compilationRepository.findByTitleIgnoreCase(compilationDto.getTitle()).isEmpty()) {
             throw new ConditionsNotMetException("Подборка с названием " + compilationDto.getTitle() + " уже существует");
@@ -47,12 +90,14 @@ public class CompilationServiceImpl implements CompilationService {
             events = new HashSet<>(eventRepository.findAllByIdIn(compilationDto.getEvents().stream().toList()));
         }
 
-        return CompilationMapper.toCompilationDto(
-                compilationRepository.save(CompilationMapper.newCompilationDtoToCompilation(compilationDto, events))
-        );
+        Compilation compilation = compilationRepository.save(CompilationMapper.newCompilationDtoToCompilation(compilationDto, events));
+        eventPublisher.publishEvent(new CompilationChangedEvent(compilation.getId()));
+        return CompilationMapper.toCompilationDto(compilation,
+                findCompilationEvents(List.of(compilation)).getOrDefault(compilation.getId(), List.of()));
     }
 
     @Override
+    @Transactional
     public CompilationDto update(Long compilationId, UpdateCompilationRequest updateCompilationRequest) {
         Compilation compilation = compilationRepository.findById(compilationId).orElseThrow(() -> new NotFoundException("Подборка с id=" + compilationId + " не найдена"));
 
@@ -76,12 +121,16 @@ public class CompilationServiceImpl implements CompilationService {
             compilation.setPinned(updateCompilationRequest.getPinned());
         }
 
-        return CompilationMapper.toCompilationDto(compilationRepository.save(compilation));
+        compilationRepository.save(compilation);
+        eventPublisher.publishEvent(new CompilationChangedEvent(compilationId));
+        return CompilationMapper.toCompilationDto(compilation,
+                findCompilationEvents(List.of(compilation)).getOrDefault(compilationId, List.of()));
     }
 
     @Override
     public void delete(Long compilationId) {
         compilationRepository.findById(compilationId).orElseThrow(() -> new NotFoundException("Подборка c id=" + compilationId + " не найдена"));
         compilationRepository.deleteById(compilationId);
+        eventPublisher.publishEvent(new CompilationChangedEvent(compilationId));
     }
 }
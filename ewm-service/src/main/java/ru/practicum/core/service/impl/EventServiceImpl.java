@@ -1,11 +1,13 @@
 package ru.practicum.core.service.impl;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.client.StatsClient;
 import ru.practicum.core.exception.ConditionsNotMetException;
 import ru.practicum.core.exception.DateValidationException;
+import ru.practicum.core.exception.GeoValidationException;
 import ru.practicum.core.exception.NotFoundException;
 import ru.practicum.core.persistance.model.Category;
 import ru.practicum.core.persistance.model.Event;
@@ -13,31 +15,57 @@ import ru.practicum.core.persistance.model.User;
 import ru.practicum.core.persistance.model.dto.event.*;
 import ru.practicum.core.persistance.model.dto.event.filter.EventSearchAdmin;
 import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchOrder;
 import ru.practicum.core.persistance.model.dto.event.state.EventAdminStateAction;
 import ru.practicum.core.persistance.model.dto.event.state.EventState;
 import ru.practicum.core.persistance.model.dto.event.state.EventUserStateAction;
+import ru.practicum.core.persistance.model.mapper.CategoryMapper;
 import ru.practicum.core.persistance.model.mapper.EventMapper;
-import ru.practicum.core.persistance.repository.CategoryRepository;
 import ru.practicum.core.persistance.repository.EventRepository;
 import ru.practicum.core.persistance.repository.UserRepository;
 import ru.practicum.core.service.EventService;
+import ru.practicum.core.service.category.CategoryCatalog;
+import ru.practicum.core.service.event.EventChangedEvent;
+import ru.practicum.core.service.event.EventViewsChangedEvent;
+import ru.practicum.core.service.event.EventExportWriter;
+import ru.practicum.core.service.search.EventPopularityRanking;
+import ru.practicum.core.service.search.EventSearchCache;
+import ru.practicum.core.service.search.EventSearchIndex;
+import ru.practicum.core.utils.PageCursor;
 import ru.practicum.core.utils.SimpleDateTimeFormatter;
 import ru.practicum.dto.StatsDto;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class EventServiceImpl implements EventService {
+    // Точность geohash для уровней масштаба карты 0..21: на тайл приходится порядка десятка ячеек
+    private static final int[] ZOOM_PRECISION = {1, 1, 1, 2, 2, 3, 3, 3, 4, 4, 5, 5, 5, 6, 6, 7, 7, 7, 8, 8, 8, 8};
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     private final EventRepository eventRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryCatalog categoryCatalog;
     private final UserRepository userRepository;
     private final StatsClient statsClient;
+    private final EventSearchIndex eventSearchIndex;
+    private final EventPopularityRanking eventPopularityRanking;
+    private final EventSearchCache eventSearchCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EventExportWriter eventExportWriter;
 
     @Override
-    public List<EventShortDto> findByUserId(Long userId, Integer from, Integer size) {
-        return eventRepository.findAllByInitiatorId(userId, from, size)
+    public List<EventShortDto> findByUserId(Long userId, Integer from, Integer size, PageCursor cursor) {
+        return eventRepository.findAllByInitiatorId(userId, from, size, cursor)
                 .stream()
                 .map(EventMapper::toEventShortDto)
                 .toList();
@@ -60,21 +88,110 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<EventShortDto> searchCommon(EventSearchCommon search) {
         if (search.getRangeEnd() != null && search.getRangeStart() != null &&
                 search.getRangeEnd().isBefore(search.getRangeStart())) {
             throw new DateValidationException("Дата начала не должна быть позже даты окончания");
         }
+        validateGeo(search);
 
-        List<Event> events = eventRepository.findCommonEventsByFilters(search);
-        return events.stream()
+        return eventSearchCache.get(search, () -> loadCommon(search));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EventClusterDto> findClusters(EventSearchCommon search, int zoom) {
+        if (search.getBox() == null) {
+            throw new GeoValidationException("Для кластеризации необходимо указать bbox");
+        }
+        if (search.getRangeEnd() != null && search.getRangeStart() != null &&
+                search.getRangeEnd().isBefore(search.getRangeStart())) {
+            throw new DateValidationException("Дата начала не должна быть позже даты окончания");
+        }
+        int precision = ZOOM_PRECISION[Math.min(Math.max(zoom, 0), ZOOM_PRECISION.length - 1)];
+        return eventRepository.findEventClusters(search, precision);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EventFacetsDto findFacets(EventSearchCommon search) {
+        if (search.getRangeEnd() != null && search.getRangeStart() != null &&
+                search.getRangeEnd().isBefore(search.getRangeStart())) {
+            throw new DateValidationException("Дата начала не должна быть позже даты окончания");
+        }
+        validateGeo(search);
+
+        Map<Long, Long> categories = new TreeMap<>();
+        Map<Boolean, Long> paid = new TreeMap<>(Map.of(false, 0L, true, 0L));
+        Map<Boolean, Long> available = new TreeMap<>(Map.of(false, 0L, true, 0L));
+        long total = 0;
+        for (EventFacetRow row : eventRepository.findEventFacets(search)) {
+            if (row.getCategoryId() != null) {
+                categories.merge(row.getCategoryId(), row.getCount(), Long::sum);
+            }
+            paid.merge(Boolean.TRUE.equals(row.getPaid()), row.getCount(), Long::sum);
+            available.merge(Boolean.TRUE.equals(row.getAvailable()), row.getCount(), Long::sum);
+            total += row.getCount();
+        }
+        return EventFacetsDto.builder()
+                .total(total)
+                .categories(categories)
+                .paid(paid)
+                .available(available)
+                .build();
+    }
+
+    private void validateGeo(EventSearchCommon search) {
+        if ((search.getLat() == null) != (search.getLon() == null)) {
+            throw new GeoValidationException("Параметры lat и lon задаются только вместе");
+        }
+        if (search.getLat() != null && (Math.abs(search.getLat()) > 90 || Math.abs(search.getLon()) > 180)) {
+            throw new GeoValidationException("Координаты точки поиска выходят за допустимые границы");
+        }
+        if (search.getRadius() != null && (search.getLat() == null || search.getRadius() <= 0)) {
+            throw new GeoValidationException("Радиус поиска должен быть положительным и задаваться вместе с lat и lon");
+        }
+        if (search.getRadius() != null && search.getBox() != null) {
+            throw new GeoValidationException("Нельзя одновременно искать по радиусу и по bbox");
+        }
+        if (search.getSort() == EventSearchOrder.DISTANCE) {
+            if (search.getLat() == null) {
+                throw new GeoValidationException("Сортировка по расстоянию требует параметров lat и lon");
+            }
+            if (search.getCursor() != null) {
+                throw new GeoValidationException("Курсорная пагинация не поддерживается при сортировке по расстоянию");
+            }
+        }
+    }
+
+    private List<EventShortDto> loadCommon(EventSearchCommon search) {
+        Optional<List<Long>> indexedIds = eventSearchIndex.search(search)
+                .or(() -> eventPopularityRanking.search(search));
+        if (indexedIds.isPresent()) {
+            return findShortDtosInOrder(indexedIds.get());
+        }
+
+        return eventRepository.findCommonEventsByFilters(search).stream()
+                .map(EventMapper::toEventShortDto)
+                .toList();
+    }
+
+    private List<EventShortDto> findShortDtosInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, EventShortView> events = eventRepository.findShortViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(EventShortView::getId, Function.identity()));
+        return ids.stream()
+                .map(events::get)
+                .filter(Objects::nonNull)
                 .map(EventMapper::toEventShortDto)
                 .toList();
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<EventFullDto> searchAdmin(EventSearchAdmin search) {
         List<Event> events = eventRepository.findAdminEventsByFilters(search);
         return events.stream()
@@ -82,6 +199,14 @@ public class EventServiceImpl implements EventService {
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAdmin(EventSearchAdmin search, EventExportFormat format, OutputStream output) {
+        try (Stream<Event> events = eventRepository.streamAdminEventsByFilters(search, EXPORT_FETCH_SIZE)) {
+            return eventExportWriter.write(events.map(EventMapper::toEventFullDto), format, output);
+        }
+    }
+
     @Override
     @Transactional
     public EventFullDto findById(Long eventId) {
@@ -90,8 +215,12 @@ public class EventServiceImpl implements EventService {
             throw new NotFoundException("Событие с id=" + eventId + " не найдено");
         }
 
-        event.setViews(getViews(event.getId()));
-        eventRepository.save(event);
+        Long views = getViews(event.getId());
+        if (!Objects.equals(views, event.getViews())) {
+            event.setViews(views);
+            eventRepository.save(event);
+            eventPublisher.publishEvent(new EventViewsChangedEvent(event));
+        }
 
         return EventMapper.toEventFullDto(event);
     }
@@ -108,7 +237,8 @@ public class EventServiceImpl implements EventService {
     @Override
     public EventFullDto create(Long userId, NewEventDto newEventDto) {
         User initiator = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
-        Category category = categoryRepository.findById(newEventDto.getCategory())
+        Category category = categoryCatalog.findById(newEventDto.getCategory())
+                .map(CategoryMapper::dtoToCategory)
                 .orElseThrow(() -> new NotFoundException("Категория с id=" + newEventDto.getCategory() + " не найдена"));
         if (newEventDto.getEventDate().isBefore(LocalDateTime.now().plusHours(2))) {
             throw new DateValidationException("Дата начала события должна быть не ранее чем через 2 часа от даты создания.");
@@ -119,6 +249,7 @@ public class EventServiceImpl implements EventService {
     @Override
     public EventFullDto updateByAdmin(long eventId, UpdateEventAdminRequest eventDto) {
         Event event = eventRepository.findById(eventId).orElseThrow(() -> new NotFoundException("Событие с id=" + eventId + " не найдено"));
+        EventState previousState = event.getState();
         LocalDateTime eventDate = eventDto.getEventDate() == null ? event.getEventDate() : eventDto.getEventDate();
         if (eventDate.isBefore(LocalDateTime.now().plusHours(1))) {
             throw new DateValidationException("Дата начала события должна быть не ранее чем через 1 час от даты редактирования.");
@@ -130,7 +261,9 @@ public class EventServiceImpl implements EventService {
             throw new ConditionsNotMetException("Опубликовать можно только событие в состоянии ожидания.");
         }
         if (eventDto.getCategory() != null) {
-            Category category = categoryRepository.findById(eventDto.getCategory()).orElseThrow(() -> new NotFoundException("Категория с id=" + eventDto.getCategory() + " не найдена"));
+            Category category = categoryCatalog.findById(eventDto.getCategory())
+                    .map(CategoryMapper::dtoToCategory)
+                    .orElseThrow(() -> new NotFoundException("Категория с id=" + eventDto.getCategory() + " не найдена"));
             event.setCategory(category);
         }
 
@@ -146,7 +279,9 @@ public class EventServiceImpl implements EventService {
         event.setLat(eventDto.getLocation() == null ? event.getLat() : eventDto.getLocation().getLat());
         event.setLon(eventDto.getLocation() == null ? event.getLon() : eventDto.getLocation().getLon());
 
-        return EventMapper.toEventFullDto(eventRepository.save(event));
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(new EventChangedEvent(saved, previousState));
+        return EventMapper.toEventFullDto(saved);
     }
 
     @Override
@@ -160,6 +295,7 @@ public class EventServiceImpl implements EventService {
         if (event.getState() == EventState.PUBLISHED) {
             throw new ConditionsNotMetException("Нельзя редактировать опубликованное событие");
         }
+        EventState previousState = event.getState();
 
         LocalDateTime eventDate = eventDto.getEventDate() == null ? event.getEventDate() : eventDto.getEventDate();
         if (eventDate.isBefore(LocalDateTime.now().plusHours(1))) {
@@ -167,7 +303,9 @@ public class EventServiceImpl implements EventService {
         }
 
         if (eventDto.getCategory() != null) {
-            Category category = categoryRepository.findById(eventDto.getCategory()).orElseThrow(() -> new NotFoundException("Категория с id=" + eventDto.getCategory() + " не найдена"));
+            Category category = categoryCatalog.findById(eventDto.getCategory())
+                    .map(CategoryMapper::dtoToCategory)
+                    .orElseThrow(() -> new NotFoundException("Категория с id=" + eventDto.getCategory() + " не найдена"));
             event.setCategory(category);
         }
 
@@ -187,6 +325,8 @@ public class EventServiceImpl implements EventService {
         event.setLat(eventDto.getLocation() == null ? event.getLat() : eventDto.getLocation().getLat());
         event.setLon(eventDto.getLocation() == null ? event.getLon() : eventDto.getLocation().getLon());
 
-        return EventMapper.toEventFullDto(eventRepository.save(event));
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(new EventChangedEvent(saved, previousState));
+        return EventMapper.toEventFullDto(saved);
     }
 }
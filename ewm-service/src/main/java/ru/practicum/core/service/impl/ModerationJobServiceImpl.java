@@ -0,0 +1,86 @@
+package ru.practicum.core.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.core.exception.ConditionsNotMetException;
+import ru.practicum.core.exception.NotFoundException;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.ModerationJob;
+import ru.practicum.core.persistance.model.User;
+import ru.practicum.core.persistance.model.dto.request.EventRequestStatusUpdateRequest;
+import ru.practicum.core.persistance.model.dto.request.ModerationJobDto;
+import ru.practicum.core.persistance.model.dto.request.ModerationJobState;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
+import ru.practicum.core.persistance.model.mapper.ModerationJobMapper;
+import ru.practicum.core.persistance.repository.EventRepository;
+import ru.practicum.core.persistance.repository.ModerationJobRepository;
+import ru.practicum.core.persistance.repository.UserRepository;
+import ru.practicum.core.service.ModerationJobService;
+import ru.practicum.core.service.moderation.ModerationJobSubmittedEvent;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class ModerationJobServiceImpl implements ModerationJobService {
+    private final ModerationJobRepository moderationJobRepository;
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public ModerationJobDto submit(Long userId, Long eventId, EventRequestStatusUpdateRequest requestDto) {
+        User initiator = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
+        Event event = findOwnEvent(userId, eventId);
+        if (event.getParticipantLimit() == 0) {
+            throw new ConditionsNotMetException("Нельзя обновить статус заявок на участие в событии с отключенной модерацией заявок");
+        }
+        if (requestDto.getStatus() != ParticipationRequestStatus.CONFIRMED && requestDto.getStatus() != ParticipationRequestStatus.REJECTED) {
+            throw new ConditionsNotMetException("Заявки на участие можно только подтвердить или отклонить");
+        }
+        if (requestDto.getRequestIds() == null || requestDto.getRequestIds().isEmpty()) {
+            throw new ConditionsNotMetException("Не переданы заявки на участие для изменения статуса");
+        }
+
+        // total считается по уникальным id, иначе processed никогда не достигнет total
+        Set<Long> requestIds = new HashSet<>(requestDto.getRequestIds());
+        ModerationJob job = moderationJobRepository.save(ModerationJob.builder()
+                .event(event)
+                .initiator(initiator)
+                .status(requestDto.getStatus())
+                .state(ModerationJobState.QUEUED)
+                .requestIds(requestIds)
+                .total((long) requestIds.size())
+                .processed(0L)
+                .confirmed(0L)
+                .rejected(0L)
+                .skipped(0L)
+                .createdOn(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new ModerationJobSubmittedEvent(job.getId()));
+        return ModerationJobMapper.toModerationJobDto(job);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ModerationJobDto findById(Long userId, Long eventId, Long jobId) {
+        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
+        findOwnEvent(userId, eventId);
+        return moderationJobRepository.findByIdAndEventId(jobId, eventId)
+                .map(ModerationJobMapper::toModerationJobDto)
+                .orElseThrow(() -> new NotFoundException("Задание модерации с id=" + jobId + " не найдено"));
+    }
+
+    private Event findOwnEvent(Long userId, Long eventId) {
+        Event event = eventRepository.findById(eventId).orElseThrow(() -> new NotFoundException("Событие с id=" + eventId + " не найдено"));
+        if (!event.getInitiator().getId().equals(userId)) {
+            throw new ConditionsNotMetException("Заявки на участие в событии может обновить только создатель события");
+        }
+        return event;
+    }
+}
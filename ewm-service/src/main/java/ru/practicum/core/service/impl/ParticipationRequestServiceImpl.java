@@ -18,45 +18,47 @@ import ru.practicum.core.persistance.repository.EventRepository;
 import ru.practicum.core.persistance.repository.ParticipationRequestRepository;
 import ru.practicum.core.persistance.repository.UserRepository;
 import ru.practicum.core.service.ParticipationRequestService;
+import ru.practicum.core.service.event.HotEventCounters;
+import ru.practicum.core.utils.PageCursor;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class ParticipationRequestServiceImpl implements ParticipationRequestService {
+    private static final int STATUS_UPDATE_BATCH_SIZE = 1000;
+
     private final ParticipationRequestRepository participationRequestRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final HotEventCounters hotEventCounters;
 
     @Override
-    public List<ParticipationRequestDto> getAllByUser(Long userId) {
+    public List<ParticipationRequestDto> getAllByUser(Long userId, ParticipationRequestStatus status,
+                                                      Integer from, Integer size, PageCursor cursor) {
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
-        return participationRequestRepository.findAllByRequesterId(userId)
-                .stream()
-                .map(ParticipationRequestMapper::toParticipationRequestDto).toList();
+        return participationRequestRepository.findPageByRequesterId(userId, status, from, size, cursor);
     }
 
     @Override
-    public List<ParticipationRequestDto> getAllByEventAndInitiator(Long userId, Long eventId) {
+    public List<ParticipationRequestDto> getAllByEventAndInitiator(Long userId, Long eventId, ParticipationRequestStatus status,
+                                                                   Integer from, Integer size, PageCursor cursor) {
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
         Event event = eventRepository.findById(eventId).orElseThrow(() -> new NotFoundException("Событие с id=" + eventId + " не найдено"));
         if (!event.getInitiator().getId().equals(userId)) {
             throw new ConditionsNotMetException("Заявки на участие в событии может просмотреть только создатель события");
         }
 
-        return participationRequestRepository.findAllByEventId(eventId)
-                .stream()
-                .map(ParticipationRequestMapper::toParticipationRequestDto)
-                .toList();
+        return participationRequestRepository.findPageByEventId(eventId, status, from, size, cursor);
     }
 
     @Override
     @Transactional
     public ParticipationRequestDto create(Long userId, Long eventId) {
+        if (hotEventCounters.isFull(eventId)) {
+            throw new ConditionsNotMetException("Достигнут лимит заявок на участие в событии");
+        }
         User requester = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
         Event event = eventRepository.findById(eventId).orElseThrow(() -> new NotFoundException("Событие с id=" + eventId + " не найдено"));
         if (event.getInitiator().getId().equals(userId)) {
@@ -78,9 +80,10 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
                 .status(event.getParticipantLimit() > 0 && event.getRequestModeration() ? ParticipationRequestStatus.PENDING : ParticipationRequestStatus.CONFIRMED)
                 .created(LocalDateTime.now())
                 .build();
-        if (!event.getRequestModeration()) {
-            event.setConfirmedRequests(event.getConfirmedRequests() + 1);
-            eventRepository.save(event);
+        if (participationRequest.getStatus() == ParticipationRequestStatus.CONFIRMED) {
+            if (!eventRepository.addConfirmedRequests(event, 1)) {
+                throw new ConditionsNotMetException("Достигнут лимит заявок на участие в событии");
+            }
         }
 
         return ParticipationRequestMapper.toParticipationRequestDto(participationRequestRepository.save(participationRequest));
@@ -99,8 +102,10 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
         Event event = eventRepository.findById(participationRequest.getEvent().getId())
                 .orElseThrow(() -> new NotFoundException("Событие с id=" + participationRequest.getEvent().getId() + " не найдено"));
 
-        event.setConfirmedRequests(event.getConfirmedRequests() - 1);
-        eventRepository.save(event);
+        if (participationRequest.getStatus() == ParticipationRequestStatus.CONFIRMED
+                && eventRepository.removeConfirmedRequests(event, 1)) {
+            promoteWaiting(event);
+        }
 
         participationRequest.setStatus(ParticipationRequestStatus.CANCELED);
 
@@ -120,71 +125,109 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
             throw new ConditionsNotMetException("Нельзя обновить статус заявок на участие в событии с отключенной модерацией заявок");
         }
 
-        List<ParticipationRequest> participationRequests = participationRequestRepository.findAllByEventId(eventId);
-        List<Long> requestIds = participationRequests.stream().map(ParticipationRequest::getId).toList();
-        List<Long> absentRequestIds = new ArrayList<>();
-        requestDto.getRequestIds().forEach(id -> {
-            if (!requestIds.contains(id)) {
-                absentRequestIds.add(id);
-            }
-        });
+        // Повторяющийся id дал бы расхождение с числом обновлённых строк и ложный конфликт
+        List<Long> requestIds = new ArrayList<>(new LinkedHashSet<>(requestDto.getRequestIds()));
+        Map<Long, ParticipationRequestDto> participationRequests = new HashMap<>();
+        partition(requestIds).forEach(ids -> participationRequestRepository.findDtosByEventIdAndIdIn(eventId, ids)
+                .forEach(participationRequest -> participationRequests.put(participationRequest.getId(), participationRequest)));
 
+        List<Long> absentRequestIds = requestIds.stream()
+                .filter(id -> !participationRequests.containsKey(id))
+                .toList();
         if (!absentRequestIds.isEmpty()) {
             throw new NotFoundException("Заявки на участие с id=" + absentRequestIds + " не найдены");
         }
-
-        List<ParticipationRequest> participationRequestsToUpdate = participationRequests.stream()
-                .filter(participationRequest -> requestDto.getRequestIds().contains(participationRequest.getId()))
-                .toList();
-
-        List<Long> notPendingRequests = participationRequestsToUpdate.stream()
-                .filter(participationRequest -> participationRequest.getStatus() != ParticipationRequestStatus.PENDING)
-                .map(ParticipationRequest::getId)
-                .toList();
-
-        if (!notPendingRequests.isEmpty()) {
+        if (participationRequests.values().stream()
+                .anyMatch(participationRequest -> participationRequest.getStatus() != ParticipationRequestStatus.PENDING)) {
             throw new ConditionsNotMetException("Заявки на участие в событии с id=" + eventId + " не находятся в состоянии ожидания подтверждения");
         }
 
+        Set<ParticipationRequestDto> confirmedRequests = new HashSet<>();
+        Set<ParticipationRequestDto> rejectedRequests = new HashSet<>();
         if (requestDto.getStatus() == ParticipationRequestStatus.CONFIRMED) {
-            if (event.getConfirmedRequests() + requestDto.getRequestIds().size() > event.getParticipantLimit()) {
+            if (!eventRepository.addConfirmedRequests(event, requestIds.size())) {
                 throw new ConditionsNotMetException("Нельзя подтвердить заявки на участие в событии, так как превышен лимит заявок");
             }
 
-            participationRequestsToUpdate.forEach(participationRequest -> participationRequest.setStatus(ParticipationRequestStatus.CONFIRMED));
-            participationRequestRepository.saveAll(participationRequests);
-            event.setConfirmedRequests(event.getConfirmedRequests() + requestDto.getRequestIds().size());
-            eventRepository.save(event);
+            updatePending(eventId, requestIds, ParticipationRequestStatus.CONFIRMED);
+            confirmedRequests.addAll(withStatus(participationRequests.values(), ParticipationRequestStatus.CONFIRMED));
 
             if (Objects.equals(event.getConfirmedRequests(), event.getParticipantLimit())) {
-                List<ParticipationRequest> participationRequestsForDeny = participationRequests.stream()
-                        .filter(participationRequest -> !requestDto.getRequestIds().contains(participationRequest.getId()))
-                        .toList();
-
-                participationRequestsForDeny
-                        .forEach(participationRequest -> participationRequest.setStatus(ParticipationRequestStatus.REJECTED));
-
-                participationRequestRepository.saveAll(participationRequestsForDeny);
+                rejectedRequests.addAll(rejectRemaining(eventId));
             }
         } else if (requestDto.getStatus() == ParticipationRequestStatus.REJECTED) {
-            participationRequestsToUpdate.forEach(participationRequest -> participationRequest.setStatus(ParticipationRequestStatus.REJECTED));
-            participationRequestRepository.saveAll(participationRequests);
-            event.setConfirmedRequests(event.getConfirmedRequests() - requestDto.getRequestIds().size());
-            eventRepository.save(event);
+            updatePending(eventId, requestIds, ParticipationRequestStatus.REJECTED);
+            rejectedRequests.addAll(withStatus(participationRequests.values(), ParticipationRequestStatus.REJECTED));
         }
 
-        participationRequests = participationRequestRepository.findAllByEventId(eventId);
         return EventRequestStatusUpdateResult.builder()
-                .confirmedRequests(participationRequests
-                        .stream()
-                        .filter(participationRequest -> participationRequest.getStatus() == ParticipationRequestStatus.CONFIRMED)
-                        .map(ParticipationRequestMapper::toParticipationRequestDto)
-                        .collect(Collectors.toSet()))
-                .rejectedRequests(participationRequests
-                        .stream()
-                        .filter(participationRequest -> participationRequest.getStatus() == ParticipationRequestStatus.REJECTED)
-                        .map(ParticipationRequestMapper::toParticipationRequestDto)
-                        .collect(Collectors.toSet()))
+                .confirmedRequests(confirmedRequests)
+                .rejectedRequests(rejectedRequests)
                 .build();
     }
+
+    // Освободившееся место занимает самая ранняя заявка из листа ожидания
+    private void promoteWaiting(Event event) {
+        Optional<ParticipationRequest> waiting = participationRequestRepository
+                .findFirstByEventIdAndStatusOrderByIdAsc(event.getId(), ParticipationRequestStatus.WAITING);
+        if (waiting.isEmpty() || participationRequestRepository.updateStatusByIds(event.getId(), List.of(waiting.get().getId()),
+                ParticipationRequestStatus.WAITING, ParticipationRequestStatus.CONFIRMED) == 0) {
+            return;
+        }
+        if (!eventRepository.addConfirmedRequests(event, 1)) {
+            participationRequestRepository.updateStatusByIds(event.getId(), List.of(waiting.get().getId()),
+                    ParticipationRequestStatus.CONFIRMED, ParticipationRequestStatus.WAITING);
+        }
+    }
+
+    // Оставшиеся заявки отклоняются страницами; их могли параллельно отменить, поэтому точное число строк не требуется
+    private Set<ParticipationRequestDto> rejectRemaining(Long eventId) {
+        Set<ParticipationRequestDto> rejected = new HashSet<>();
+        PageCursor cursor = null;
+        List<ParticipationRequestDto> page;
+        do {
+            page = participationRequestRepository.findPageByEventId(eventId, ParticipationRequestStatus.PENDING,
+                    0, STATUS_UPDATE_BATCH_SIZE, cursor);
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Long> ids = page.stream().map(ParticipationRequestDto::getId).toList();
+            int updated = participationRequestRepository.updateStatusByIds(eventId, ids,
+                    ParticipationRequestStatus.PENDING, ParticipationRequestStatus.REJECTED);
+            if (updated == ids.size()) {
+                rejected.addAll(withStatus(page, ParticipationRequestStatus.REJECTED));
+            } else if (updated > 0) {
+                participationRequestRepository.findDtosByEventIdAndIdIn(eventId, ids).stream()
+                        .filter(participationRequest -> participationRequest.getStatus() == ParticipationRequestStatus.REJECTED)
+                        .forEach(rejected::add);
+            }
+            cursor = PageCursor.ofId(ids.getLast());
+        } while (page.size() == STATUS_UPDATE_BATCH_SIZE);
+        return rejected;
+    }
+
+    private void updatePending(Long eventId, List<Long> requestIds, ParticipationRequestStatus status) {
+        int updated = partition(requestIds).stream()
+                .mapToInt(ids -> participationRequestRepository.updateStatusByIds(eventId, ids,
+                        ParticipationRequestStatus.PENDING, status))
+                .sum();
+        // Заявку успели изменить в параллельной транзакции — откатываем всё обновление
+        if (updated != requestIds.size()) {
+            throw new ConditionsNotMetException("Заявки на участие в событии с id=" + eventId + " не находятся в состоянии ожидания подтверждения");
+        }
+    }
+
+    private static Collection<ParticipationRequestDto> withStatus(Collection<ParticipationRequestDto> participationRequests,
+                                                                  ParticipationRequestStatus status) {
+        participationRequests.forEach(participationRequest -> participationRequest.setStatus(status));
+        return participationRequests;
+    }
+
+    private static List<List<Long>> partition(List<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += STATUS_UPDATE_BATCH_SIZE) {
+            batches.add(ids.subList(i, Math.min(i + STATUS_UPDATE_BATCH_SIZE, ids.size())));
+        }
+        return batches;
+    }
 }
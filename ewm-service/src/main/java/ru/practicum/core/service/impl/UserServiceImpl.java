@@ -2,15 +2,22 @@ package ru.practicum.core.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.core.exception.ConditionsNotMetException;
 import ru.practicum.core.exception.NotFoundException;
 import ru.practicum.core.persistance.model.User;
 import ru.practicum.core.persistance.model.mapper.UserMapper;
 import ru.practicum.core.persistance.model.dto.user.NewUserRequest;
 import ru.practicum.core.persistance.model.dto.user.UserDto;
+import ru.practicum.core.persistance.model.dto.user.UserImportFormat;
+import ru.practicum.core.persistance.model.dto.user.UserImportResult;
+import ru.practicum.core.persistance.repository.CategoryEventCounterRepository;
 import ru.practicum.core.persistance.repository.UserRepository;
 import ru.practicum.core.service.UserService;
+import ru.practicum.core.service.user.UserImporter;
+import ru.practicum.core.utils.PageCursor;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,10 +25,12 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final CategoryEventCounterRepository categoryEventCounterRepository;
+    private final UserImporter userImporter;
 
     @Override
-    public List<UserDto> getAll(List<Long> ids, Integer from, Integer size) {
-        return userRepository.findUsers(ids, from, size).stream()
+    public List<UserDto> getAll(List<Long> ids, Integer from, Integer size, PageCursor cursor) {
+        return userRepository.findUsers(ids, from, size, cursor).stream()
                 .map(UserMapper::userToDto)
                 .toList();
     }
@@ -38,10 +47,18 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void delete(Long userId) {
         userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException("Пользователь с id=" + userId + " не найден")
         );
+        // События пользователя удаляются каскадом в базе, минуя слушатель счётчиков категорий
+        categoryEventCounterRepository.subtractInitiator(userId);
         userRepository.deleteById(userId);
     }
+
+    @Override
+    public UserImportResult importUsers(InputStream input, UserImportFormat format) {
+        return userImporter.importUsers(input, format);
+    }
 }
@@ -0,0 +1,134 @@
+package ru.practicum.core.service.moderation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.core.exception.NotFoundException;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.ModerationJob;
+import ru.practicum.core.persistance.model.dto.request.ModerationJobState;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
+import ru.practicum.core.persistance.repository.EventRepository;
+import ru.practicum.core.persistance.repository.ModerationJobRepository;
+import ru.practicum.core.persistance.repository.ParticipationRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Каждый метод — отдельная короткая транзакция; прогресс задания фиксируется вместе с изменёнными заявками
+@Component
+@RequiredArgsConstructor
+public class ModerationJobProcessor {
+    private final ModerationJobRepository moderationJobRepository;
+    private final ParticipationRequestRepository participationRequestRepository;
+    private final EventRepository eventRepository;
+
+    @Transactional
+    public boolean start(Long jobId) {
+        ModerationJob job = findJob(jobId);
+        if (job.getState() == ModerationJobState.COMPLETED || job.getState() == ModerationJobState.FAILED) {
+            return false;
+        }
+        job.setState(ModerationJobState.RUNNING);
+        if (job.getStartedOn() == null) {
+            job.setStartedOn(LocalDateTime.now());
+        }
+        return true;
+    }
+
+    @Transactional
+    public boolean processChunk(Long jobId, int chunkSize) {
+        ModerationJob job = findJob(jobId);
+        List<Long> requestIds = moderationJobRepository.findRequestIdsAfter(jobId,
+                job.getLastRequestId() == null ? 0L : job.getLastRequestId(), chunkSize);
+        if (requestIds.isEmpty()) {
+            return false;
+        }
+        Event event = findEvent(job);
+        List<Long> pending = participationRequestRepository.findDtosByEventIdAndIdIn(event.getId(), requestIds).stream()
+                .filter(participationRequest -> participationRequest.getStatus() == ParticipationRequestStatus.PENDING)
+                .map(ParticipationRequestDto::getId)
+                .sorted()
+                .toList();
+
+        long confirmed = 0;
+        List<Long> toReject = pending;
+        if (job.getStatus() == ParticipationRequestStatus.CONFIRMED) {
+            long freeSlots = event.getParticipantLimit() == 0
+                    ? pending.size()
+                    : Math.max(event.getParticipantLimit() - event.getConfirmedRequests(), 0);
+            List<Long> toConfirm = pending.subList(0, (int) Math.min(freeSlots, pending.size()));
+            toReject = pending.subList(toConfirm.size(), pending.size());
+            // Как и синхронное обновление, задание отклоняет заявки сверх лимита, но перечисляет их отдельно
+            job.getOverLimitRequestIds().addAll(toReject);
+            if (!toConfirm.isEmpty()) {
+                if (!eventRepository.addConfirmedRequests(event, toConfirm.size())
+                        || participationRequestRepository.updateStatusByIds(event.getId(), toConfirm,
+                        ParticipationRequestStatus.PENDING, ParticipationRequestStatus.CONFIRMED) != toConfirm.size()) {
+                    throw new OptimisticLockingFailureException("Заявки события с id=" + event.getId() + " изменены параллельно");
+                }
+                confirmed = toConfirm.size();
+            }
+        }
+        long rejected = toReject.isEmpty() ? 0 : participationRequestRepository.updateStatusByIds(event.getId(), toReject,
+                ParticipationRequestStatus.PENDING, ParticipationRequestStatus.REJECTED);
+
+        job.setConfirmed(job.getConfirmed() + confirmed);
+        job.setRejected(job.getRejected() + rejected);
+        job.setSkipped(job.getSkipped() + requestIds.size() - confirmed - rejected);
+        job.setProcessed(job.getProcessed() + requestIds.size());
+        job.setLastRequestId(requestIds.getLast());
+        return true;
+    }
+
+    // Как и при синхронном обновлении, по достижении лимита отклоняются все оставшиеся заявки события
+    @Transactional
+    public boolean rejectRemaining(Long jobId, int chunkSize) {
+        ModerationJob job = findJob(jobId);
+        Event event = findEvent(job);
+        if (job.getStatus() != ParticipationRequestStatus.CONFIRMED || event.getParticipantLimit() == 0
+                || event.getConfirmedRequests() < event.getParticipantLimit()) {
+            return false;
+        }
+        List<Long> pending = participationRequestRepository
+                .findPageByEventId(event.getId(), ParticipationRequestStatus.PENDING, 0, chunkSize, null).stream()
+                .map(ParticipationRequestDto::getId)
+                .toList();
+        if (pending.isEmpty()) {
+            return false;
+        }
+        int rejected = participationRequestRepository.updateStatusByIds(event.getId(), pending,
+                ParticipationRequestStatus.PENDING, ParticipationRequestStatus.REJECTED);
+        job.setRejected(job.getRejected() + rejected);
+        return pending.size() == chunkSize;
+    }
+
+    @Transactional
+    public void complete(Long jobId) {
+        finish(findJob(jobId), ModerationJobState.COMPLETED, null);
+    }
+
+    @Transactional
+    public void fail(Long jobId, String error) {
+        moderationJobRepository.findById(jobId).ifPresent(job -> finish(job, ModerationJobState.FAILED, error));
+    }
+
+    private void finish(ModerationJob job, ModerationJobState state, String error) {
+        job.setState(state);
+        job.setError(error);
+        job.setFinishedOn(LocalDateTime.now());
+    }
+
+    private ModerationJob findJob(Long jobId) {
+        return moderationJobRepository.findById(jobId)
+                .orElseThrow(() -> new NotFoundException("Задание модерации с id=" + jobId + " не найдено"));
+    }
+
+    private Event findEvent(ModerationJob job) {
+        Long eventId = job.getEvent().getId();
+        return eventRepository.findById(eventId)
+                .orElseThrow(() -> new NotFoundException("Событие с id=" + eventId + " не найдено"));
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.core.service.moderation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.core.persistance.model.dto.request.ModerationJobState;
+import ru.practicum.core.persistance.repository.ModerationJobRepository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class ModerationJobRunner {
+    private static final int MAX_CONFLICTS = 5;
+
+    private final ModerationJobRepository moderationJobRepository;
+    private final ModerationJobProcessor processor;
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    private final Timer chunkTimer;
+
+    public ModerationJobRunner(ModerationJobRepository moderationJobRepository,
+                               ModerationJobProcessor processor,
+                               MeterRegistry meterRegistry,
+                               @Value("${EWMServiceApp.moderation-jobs.threads:2}") int threads,
+                               @Value("${EWMServiceApp.moderation-jobs.queue-capacity:100}") int queueCapacity,
+                               @Value("${EWMServiceApp.moderation-jobs.chunk-size:500}") int chunkSize) {
+        this.moderationJobRepository = moderationJobRepository;
+        this.processor = processor;
+        this.chunkSize = chunkSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "moderation-job-" + threadNumber.incrementAndGet()));
+        this.chunkTimer = Timer.builder("ewm.moderation.job.chunk").register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobSubmitted(ModerationJobSubmittedEvent submitted) {
+        submit(submitted.getJobId());
+    }
+
+    // Подхватывает задания, не поместившиеся в очередь или прерванные перезапуском
+    @Scheduled(fixedDelayString = "${EWMServiceApp.moderation-jobs.resume-interval-ms:30000}")
+    public void resume() {
+        List<Long> jobIds = moderationJobRepository.findIdsByStateIn(List.of(ModerationJobState.QUEUED, ModerationJobState.RUNNING));
+        jobIds.forEach(this::submit);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    private void submit(Long jobId) {
+        if (!scheduled.add(jobId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            scheduled.remove(jobId);
+            log.warn("Очередь заданий модерации заполнена, задание {} будет запущено позже", jobId);
+        }
+    }
+
+    private void run(Long jobId) {
+        try {
+            if (!processor.start(jobId)) {
+                return;
+            }
+            int conflicts = 0;
+            boolean hasMore = true;
+            while (hasMore && !Thread.currentThread().isInterrupted()) {
+                try {
+                    hasMore = chunkTimer.record(() -> processor.processChunk(jobId, chunkSize));
+                    conflicts = 0;
+                } catch (OptimisticLockingFailureException e) {
+                    if (++conflicts >= MAX_CONFLICTS) {
+                        throw e;
+                    }
+                }
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            while (processor.rejectRemaining(jobId, chunkSize)) {
+                log.debug("Задание модерации {}: отклонена очередная пачка заявок сверх лимита", jobId);
+            }
+            processor.complete(jobId);
+            log.info("Задание модерации {} выполнено", jobId);
+        } catch (RuntimeException e) {
+            log.error("Задание модерации {} завершилось ошибкой", jobId, e);
+            processor.fail(jobId, e.getMessage());
+        } finally {
+            scheduled.remove(jobId);
+        }
+    }
+}
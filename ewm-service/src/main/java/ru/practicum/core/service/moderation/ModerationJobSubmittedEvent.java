@@ -0,0 +1,10 @@
+package ru.practicum.core.service.moderation;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ModerationJobSubmittedEvent {
+    private final Long jobId;
+}
@@ -0,0 +1,252 @@
+package ru.practicum.core.service.search;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchOrder;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.repository.EventRepository;
+import ru.practicum.core.service.event.EventChangedEvent;
+import ru.practicum.core.service.event.EventViewsChangedEvent;
+import ru.practicum.core.utils.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Slf4j
+@Component
+public class EventPopularityRanking {
+    private static final Comparator<Ranked> ORDER = Comparator.comparingLong((Ranked ranked) -> ranked.views).reversed()
+            .thenComparingLong(ranked -> ranked.eventId);
+
+    private final EventRepository eventRepository;
+    private final boolean enabled;
+    private final NavigableSet<Ranked> ranking = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<Long, NavigableSet<Ranked>> categoryRankings = new ConcurrentHashMap<>();
+    private final Map<Long, Ranked> rankedEvents = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public EventPopularityRanking(EventRepository eventRepository,
+                                  @Value("${EWMServiceApp.search.ranking.enabled:false}") boolean enabled) {
+        this.eventRepository = eventRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean supports(EventSearchCommon search) {
+        if (!enabled || !ready || search.getSort() != EventSearchOrder.VIEWS || search.getText() != null) {
+            return false;
+        }
+        if (search.getLat() != null || search.getBox() != null) {
+            return false;
+        }
+        if (search.getRangeStart() == null && search.getRangeEnd() != null) {
+            return false;
+        }
+        return search.getRangeStart() == null || !search.getRangeStart().isBefore(LocalDateTime.now());
+    }
+
+    public Optional<List<Long>> search(EventSearchCommon search) {
+        if (!supports(search)) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int skip = search.getCursor() == null && search.getFrom() != null ? search.getFrom() : 0;
+        int limit = search.getSize() == null ? Integer.MAX_VALUE : search.getSize();
+        List<Long> result = new ArrayList<>(Math.min(limit, 64));
+        Iterator<Ranked> candidates = candidates(search.getCategories(), search.getCursor());
+        while (candidates.hasNext() && result.size() < limit) {
+            Ranked ranked = candidates.next();
+            if (!matches(ranked, search, now)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            result.add(ranked.eventId);
+        }
+        return Optional.of(result);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        List<Event> events = eventRepository.findAllByStateAndEventDateAfter(EventState.PUBLISHED, LocalDateTime.now());
+        events.forEach(this::update);
+        ready = true;
+        log.info("Рейтинг популярности событий построен: {} событий", events.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        if (enabled) {
+            update(change.getEvent());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventViewsChanged(EventViewsChangedEvent change) {
+        if (enabled) {
+            update(change.getEvent());
+        }
+    }
+
+    // Прошедшие события без изменений иначе остались бы в рейтинге и просматривались бы каждым запросом
+    @Scheduled(fixedDelayString = "${EWMServiceApp.upcoming-events.prune-interval-ms:60000}")
+    public void prune() {
+        if (enabled) {
+            int pruned = prune(LocalDateTime.now());
+            if (pruned > 0) {
+                log.debug("Из рейтинга популярности удалено {} прошедших событий", pruned);
+            }
+        }
+    }
+
+    int prune(LocalDateTime now) {
+        int pruned = 0;
+        for (Ranked candidate : rankedEvents.values()) {
+            if (candidate.eventDate.isAfter(now)) {
+                continue;
+            }
+            boolean[] removed = new boolean[1];
+            rankedEvents.computeIfPresent(candidate.eventId, (id, current) -> {
+                if (current.eventDate.isAfter(now)) {
+                    return current;
+                }
+                remove(current);
+                removed[0] = true;
+                return null;
+            });
+            if (removed[0]) {
+                pruned++;
+            }
+        }
+        return pruned;
+    }
+
+    private void remove(Ranked ranked) {
+        ranking.remove(ranked);
+        if (ranked.categoryId != null) {
+            categoryRankings.get(ranked.categoryId).remove(ranked);
+        }
+    }
+
+    private void update(Event event) {
+        rankedEvents.compute(event.getId(), (id, previous) -> {
+            if (previous != null) {
+                remove(previous);
+            }
+            if (event.getState() != EventState.PUBLISHED || !event.getEventDate().isAfter(LocalDateTime.now())) {
+                return null;
+            }
+            Ranked ranked = Ranked.of(event);
+            ranking.add(ranked);
+            if (ranked.categoryId != null) {
+                categoryRankings.computeIfAbsent(ranked.categoryId, categoryId -> new ConcurrentSkipListSet<>(ORDER))
+                        .add(ranked);
+            }
+            return ranked;
+        });
+    }
+
+    private Iterator<Ranked> candidates(List<Long> categories, PageCursor cursor) {
+        Ranked from = cursor == null ? null : new Ranked(cursor.getId(), null, cursor.getLongValue(), false, null, 0, 0);
+        if (categories == null || categories.isEmpty()) {
+            return tail(ranking, from).iterator();
+        }
+        // Слияние рейтингов нескольких категорий без полного обхода каждой
+        PriorityQueue<PeekingIterator> heads = new PriorityQueue<>((a, b) -> ORDER.compare(a.head, b.head));
+        new HashSet<>(categories).stream()
+                .map(categoryRankings::get)
+                .filter(Objects::nonNull)
+                .map(categoryRanking -> new PeekingIterator(tail(categoryRanking, from).iterator()))
+                .filter(PeekingIterator::hasHead)
+                .forEach(heads::add);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Ranked next() {
+                PeekingIterator smallest = heads.poll();
+                Ranked ranked = smallest.head;
+                if (smallest.advance()) {
+                    heads.add(smallest);
+                }
+                return ranked;
+            }
+        };
+    }
+
+    private NavigableSet<Ranked> tail(NavigableSet<Ranked> set, Ranked from) {
+        return from == null ? set : set.tailSet(from, false);
+    }
+
+    private boolean matches(Ranked ranked, EventSearchCommon search, LocalDateTime now) {
+        if (search.getPaid() != null && ranked.paid != search.getPaid()) {
+            return false;
+        }
+        LocalDateTime rangeStart = search.getRangeStart();
+        if (rangeStart == null ? !ranked.eventDate.isAfter(now) : ranked.eventDate.isBefore(rangeStart)) {
+            return false;
+        }
+        if (search.getRangeEnd() != null && ranked.eventDate.isAfter(search.getRangeEnd())) {
+            return false;
+        }
+        return !Boolean.TRUE.equals(search.getOnlyAvailable())
+                || ranked.participantLimit == 0 || ranked.participantLimit > ranked.confirmedRequests;
+    }
+
+    @AllArgsConstructor
+    private static final class Ranked {
+        private final long eventId;
+        private final Long categoryId;
+        private final long views;
+        private final boolean paid;
+        private final LocalDateTime eventDate;
+        private final long participantLimit;
+        private final long confirmedRequests;
+
+        static Ranked of(Event event) {
+            return new Ranked(event.getId(),
+                    event.getCategory() == null ? null : event.getCategory().getId(),
+                    event.getViews() == null ? 0 : event.getViews(),
+                    Boolean.TRUE.equals(event.getPaid()),
+                    event.getEventDate(),
+                    event.getParticipantLimit() == null ? 0 : event.getParticipantLimit(),
+                    event.getConfirmedRequests() == null ? 0 : event.getConfirmedRequests());
+        }
+    }
+
+    private static final class PeekingIterator {
+        private final Iterator<Ranked> iterator;
+        private Ranked head;
+
+        PeekingIterator(Iterator<Ranked> iterator) {
+            this.iterator = iterator;
+            advance();
+        }
+
+        boolean hasHead() {
+            return head != null;
+        }
+
+        boolean advance() {
+            head = iterator.hasNext() ? iterator.next() : null;
+            return head != null;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package ru.practicum.core.service.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.core.persistance.model.dto.event.EventShortDto;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchOrder;
+import ru.practicum.core.persistance.model.dto.event.filter.GeoBox;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.service.event.ConfirmedRequestsChangedEvent;
+import ru.practicum.core.service.event.EventChangedEvent;
+import ru.practicum.core.utils.PageCursor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class EventSearchCache {
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long staleWindowNanos;
+    private final LongSupplier clock;
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Long, Long> versionEndTimes = new ConcurrentHashMap<>();
+    private final Map<Key, Entry> entries;
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Autowired
+    public EventSearchCache(MeterRegistry meterRegistry,
+                            @Value("${EWMServiceApp.search.cache.enabled:false}") boolean enabled,
+                            @Value("${EWMServiceApp.search.cache.max-size:1000}") int maxSize,
+                            @Value("${EWMServiceApp.search.cache.ttl:30s}") Duration ttl,
+                            @Value("${EWMServiceApp.search.cache.stale-window:0s}") Duration staleWindow) {
+        this(meterRegistry, enabled, maxSize, ttl, staleWindow, System::nanoTime);
+    }
+
+    EventSearchCache(MeterRegistry meterRegistry, boolean enabled, int maxSize, Duration ttl, Duration staleWindow,
+                     LongSupplier clock) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.staleWindowNanos = staleWindow.toNanos();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > EventSearchCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        hits = Counter.builder("ewm.search.cache.requests").tag("result", "hit").register(meterRegistry);
+        staleHits = Counter.builder("ewm.search.cache.requests").tag("result", "stale").register(meterRegistry);
+        misses = Counter.builder("ewm.search.cache.requests").tag("result", "miss").register(meterRegistry);
+        evictions = Counter.builder("ewm.search.cache.evictions").register(meterRegistry);
+        Gauge.builder("ewm.search.cache.size", this, EventSearchCache::size).register(meterRegistry);
+        Gauge.builder("ewm.search.cache.hit.ratio", this, EventSearchCache::hitRatio).register(meterRegistry);
+    }
+
+    public List<EventShortDto> get(EventSearchCommon search, Supplier<List<EventShortDto>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = Key.of(search);
+        long now = clock.getAsLong();
+        long currentVersion = version.get();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null && now - entry.createdAt <= ttlNanos) {
+            if (entry.version == currentVersion) {
+                hits.increment();
+                return entry.events;
+            }
+            Long versionEndTime = versionEndTimes.get(entry.version);
+            if (versionEndTime != null && now - versionEndTime <= staleWindowNanos) {
+                staleHits.increment();
+                return entry.events;
+            }
+        }
+
+        misses.increment();
+        List<EventShortDto> events = List.copyOf(loader.get());
+        synchronized (entries) {
+            entries.put(key, new Entry(currentVersion, now, events));
+        }
+        return events;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        if (!enabled) {
+            return;
+        }
+        if (change.getEvent().getState() != EventState.PUBLISHED && change.getPreviousState() != EventState.PUBLISHED) {
+            return;
+        }
+        invalidate();
+    }
+
+    // Число подтверждённых заявок в выдаче может отставать в пределах ttl, как и просмотры; сбрасываем кэш, только если изменилась доступность события
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConfirmedRequestsChanged(ConfirmedRequestsChangedEvent change) {
+        if (enabled && change.isAvailabilityChanged()) {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        long now = clock.getAsLong();
+        versionEndTimes.put(version.getAndIncrement(), now);
+        versionEndTimes.values().removeIf(endTime -> now - endTime > staleWindowNanos);
+        log.debug("Кэш поиска событий инвалидирован, версия {}", version.get());
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + staleHits.count();
+        double total = served + misses.count();
+        return total == 0 ? 0 : served / total;
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final long version;
+        private final long createdAt;
+        private final List<EventShortDto> events;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final String text;
+        private final Boolean paid;
+        private final LocalDateTime rangeStart;
+        private final LocalDateTime rangeEnd;
+        private final List<Long> categories;
+        private final boolean onlyAvailable;
+        private final Double lat;
+        private final Double lon;
+        private final Double radius;
+        private final GeoBox box;
+        private final EventSearchOrder sort;
+        private final Integer from;
+        private final Integer size;
+        private final PageCursor cursor;
+
+        static Key of(EventSearchCommon search) {
+            String text = search.getText() == null ? null : search.getText().toLowerCase(Locale.ROOT);
+            List<Long> categories = search.getCategories() == null
+                    ? null
+                    : search.getCategories().stream().distinct().sorted().toList();
+            return new Key(text,
+                    search.getPaid(),
+                    search.getRangeStart(),
+                    search.getRangeEnd(),
+                    categories,
+                    Boolean.TRUE.equals(search.getOnlyAvailable()),
+                    search.getLat(),
+                    search.getLon(),
+                    search.getRadius(),
+                    search.getBox(),
+                    search.getSort() == null ? EventSearchOrder.EVENT_DATE : search.getSort(),
+                    search.getCursor() == null ? search.getFrom() : null,
+                    search.getSize(),
+                    search.getCursor());
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package ru.practicum.core.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchOrder;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.repository.EventRepository;
+import ru.practicum.core.service.event.EventChangedEvent;
+import ru.practicum.core.utils.PageCursor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+public class EventSearchIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final long DATE_BASE = LocalDateTime.of(2000, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final int MIN_DELETED_FOR_COMPACTION = 1024;
+
+    private final EventRepository eventRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<EventChangedEvent> pendingChanges = new ArrayList<>();
+
+    private Segment segment = new Segment();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    public EventSearchIndex(EventRepository eventRepository,
+                            @Value("${EWMServiceApp.search.index.enabled:false}") boolean enabled) {
+        this.eventRepository = eventRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean supports(EventSearchCommon search) {
+        if (!enabled || !ready) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(search.getOnlyAvailable())
+                || (search.getSort() != null && search.getSort() != EventSearchOrder.EVENT_DATE)) {
+            return false;
+        }
+        if (search.getLat() != null || search.getBox() != null) {
+            return false;
+        }
+        if (search.getRangeStart() == null && search.getRangeEnd() != null) {
+            return false;
+        }
+        if (search.getRangeStart() != null && search.getRangeStart().isBefore(LocalDateTime.now())) {
+            return false;
+        }
+        return search.getText() == null || tokenize(search.getText()).length > 0;
+    }
+
+    public Optional<List<Long>> search(EventSearchCommon search) {
+        if (!supports(search)) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(segment.search(search, LocalDateTime.now()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<IndexedEvent> documents = eventRepository.findAllByStateAndEventDateAfter(EventState.PUBLISHED, LocalDateTime.now())
+                .parallelStream()
+                .map(IndexedEvent::of)
+                .toList();
+        Segment rebuilt = new Segment();
+        documents.forEach(rebuilt::add);
+
+        lock.writeLock().lock();
+        try {
+            segment = rebuilt;
+            pendingChanges.forEach(this::apply);
+            pendingChanges.clear();
+            rebuilding = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс событий построен: {} документов", documents.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                pendingChanges.add(change);
+            }
+            apply(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Прошедшие события без изменений иначе оставались бы в индексе навсегда: сжатие запускают только удаления
+    @Scheduled(fixedDelayString = "${EWMServiceApp.search.index.prune-interval-ms:60000}")
+    public void prune() {
+        if (enabled) {
+            int pruned = prune(LocalDateTime.now());
+            if (pruned > 0) {
+                log.debug("Из поискового индекса удалено {} прошедших событий", pruned);
+            }
+        }
+    }
+
+    int prune(LocalDateTime now) {
+        lock.writeLock().lock();
+        try {
+            // Во время перестроения сегмент всё равно заменяется новым, собранным только из будущих событий
+            if (rebuilding) {
+                return 0;
+            }
+            int pruned = segment.removePassed(now);
+            compactIfNeeded();
+            return pruned;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(EventChangedEvent change) {
+        Event event = change.getEvent();
+        segment.remove(event.getId());
+        if (event.getState() == EventState.PUBLISHED && event.getEventDate().isAfter(LocalDateTime.now())) {
+            segment.add(IndexedEvent.of(event));
+        }
+        compactIfNeeded();
+    }
+
+    private void compactIfNeeded() {
+        if (segment.deleted > MIN_DELETED_FOR_COMPACTION && segment.deleted > segment.size - segment.deleted) {
+            segment = segment.compact();
+        }
+    }
+
+    static String[] tokenize(String text) {
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static long toSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long toDay(LocalDateTime dateTime) {
+        return dateTime.toLocalDate().toEpochDay();
+    }
+
+    private static final class IndexedEvent {
+        private final long eventId;
+        private final Long categoryId;
+        private final boolean paid;
+        private final LocalDateTime eventDate;
+        private final String[] terms;
+
+        private IndexedEvent(long eventId, Long categoryId, boolean paid, LocalDateTime eventDate, String[] terms) {
+            this.eventId = eventId;
+            this.categoryId = categoryId;
+            this.paid = paid;
+            this.eventDate = eventDate;
+            this.terms = terms;
+        }
+
+        static IndexedEvent of(Event event) {
+            String text = event.getTitle() + " " + event.getAnnotation() + " " + event.getDescription();
+            return new IndexedEvent(event.getId(),
+                    event.getCategory() == null ? null : event.getCategory().getId(),
+                    Boolean.TRUE.equals(event.getPaid()),
+                    event.getEventDate(),
+                    tokenize(text));
+        }
+    }
+
+    private static final class Postings {
+        private int[] documents = new int[4];
+        private int length;
+
+        void add(int document) {
+            if (length == documents.length) {
+                documents = Arrays.copyOf(documents, length * 2);
+            }
+            documents[length++] = document;
+        }
+
+        void addTo(BitSet target) {
+            for (int i = 0; i < length; i++) {
+                target.set(documents[i]);
+            }
+        }
+    }
+
+    private static final class Segment {
+        private IndexedEvent[] documents = new IndexedEvent[64];
+        private long[] eventDates = new long[64];
+        private int size;
+        private int deleted;
+        private final BitSet live = new BitSet();
+        private final BitSet paid = new BitSet();
+        private final Map<Long, BitSet> categories = new HashMap<>();
+        private final TreeMap<Long, BitSet> days = new TreeMap<>();
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final Map<Long, Integer> documentsByEventId = new HashMap<>();
+
+        void add(IndexedEvent event) {
+            int document = size++;
+            if (document == documents.length) {
+                documents = Arrays.copyOf(documents, document * 2);
+                eventDates = Arrays.copyOf(eventDates, document * 2);
+            }
+            documents[document] = event;
+            eventDates[document] = toSeconds(event.eventDate);
+            documentsByEventId.put(event.eventId, document);
+            live.set(document);
+            if (event.paid) {
+                paid.set(document);
+            }
+            categories.computeIfAbsent(event.categoryId, id -> new BitSet()).set(document);
+            days.computeIfAbsent(toDay(event.eventDate), day -> new BitSet()).set(document);
+            for (String term : event.terms) {
+                terms.computeIfAbsent(term, t -> new Postings()).add(document);
+            }
+        }
+
+        void remove(long eventId) {
+            Integer document = documentsByEventId.remove(eventId);
+            if (document == null) {
+                return;
+            }
+            IndexedEvent event = documents[document];
+            documents[document] = null;
+            live.clear(document);
+            paid.clear(document);
+            categories.get(event.categoryId).clear(document);
+            days.get(toDay(event.eventDate)).clear(document);
+            deleted++;
+        }
+
+        int removePassed(LocalDateTime now) {
+            long bound = toSeconds(now);
+            SortedMap<Long, BitSet> passedDays = days.headMap(toDay(now), true);
+            List<Long> passed = new ArrayList<>();
+            passedDays.values().forEach(day -> day.stream()
+                    .filter(document -> eventDates[document] <= bound)
+                    .forEach(document -> passed.add(documents[document].eventId)));
+            passed.forEach(this::remove);
+            passedDays.values().removeIf(BitSet::isEmpty);
+            return passed.size();
+        }
+
+        Segment compact() {
+            Segment compacted = new Segment();
+            for (int document = live.nextSetBit(0); document >= 0; document = live.nextSetBit(document + 1)) {
+                compacted.add(documents[document]);
+            }
+            return compacted;
+        }
+
+        List<Long> search(EventSearchCommon search, LocalDateTime now) {
+            BitSet candidates = (BitSet) live.clone();
+            if (search.getText() != null) {
+                for (String token : tokenize(search.getText())) {
+                    BitSet matches = new BitSet();
+                    terms.subMap(token, true, token + Character.MAX_VALUE, true).values()
+                            .forEach(postings -> postings.addTo(matches));
+                    candidates.and(matches);
+                }
+            }
+            if (search.getCategories() != null && !search.getCategories().isEmpty()) {
+                BitSet matches = new BitSet();
+                search.getCategories().stream()
+                        .map(categories::get)
+                        .filter(Objects::nonNull)
+                        .forEach(matches::or);
+                candidates.and(matches);
+            }
+            if (search.getPaid() != null) {
+                if (search.getPaid()) {
+                    candidates.and(paid);
+                } else {
+                    candidates.andNot(paid);
+                }
+            }
+
+            LocalDateTime rangeStart = search.getRangeStart() == null ? now : search.getRangeStart();
+            LocalDateTime rangeEnd = search.getRangeEnd();
+            BitSet inRange = new BitSet();
+            days.subMap(toDay(rangeStart), true, rangeEnd == null ? Long.MAX_VALUE : toDay(rangeEnd), true).values()
+                    .forEach(inRange::or);
+            candidates.and(inRange);
+
+            long lowerBound = toSeconds(rangeStart);
+            long upperBound = rangeEnd == null ? Long.MAX_VALUE : toSeconds(rangeEnd);
+            boolean lowerInclusive = search.getRangeStart() != null;
+            long[] keys = new long[candidates.cardinality()];
+            int count = 0;
+            for (int document = candidates.nextSetBit(0); document >= 0; document = candidates.nextSetBit(document + 1)) {
+                long eventDate = eventDates[document];
+                if (eventDate < lowerBound || (eventDate == lowerBound && !lowerInclusive) || eventDate > upperBound) {
+                    continue;
+                }
+                keys[count++] = ((eventDate - DATE_BASE) << 32) | document;
+            }
+            Arrays.sort(keys, 0, count);
+            orderTiesByEventId(keys, count);
+
+            int from = search.getCursor() == null
+                    ? (search.getFrom() == null ? 0 : search.getFrom())
+                    : positionAfter(keys, count, search.getCursor());
+            int to = search.getSize() == null ? count : (int) Math.min(count, (long) from + search.getSize());
+            List<Long> result = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                result.add(documents[(int) keys[i]].eventId);
+            }
+            return result;
+        }
+
+        private int positionAfter(long[] keys, int count, PageCursor cursor) {
+            LocalDateTime cursorDate = cursor.getDateValue();
+            for (int i = 0; i < count; i++) {
+                IndexedEvent event = documents[(int) keys[i]];
+                int byDate = event.eventDate.compareTo(cursorDate);
+                if (byDate > 0 || (byDate == 0 && event.eventId > cursor.getId())) {
+                    return i;
+                }
+            }
+            return count;
+        }
+
+        private void orderTiesByEventId(long[] keys, int count) {
+            int start = 0;
+            while (start < count) {
+                int end = start + 1;
+                while (end < count && keys[end] >>> 32 == keys[start] >>> 32) {
+                    end++;
+                }
+                for (int i = start + 1; i < end; i++) {
+                    long key = keys[i];
+                    int j = i - 1;
+                    while (j >= start && documents[(int) keys[j]].eventId > documents[(int) key].eventId) {
+                        keys[j + 1] = keys[j];
+                        j--;
+                    }
+                    keys[j + 1] = key;
+                }
+                start = end;
+            }
+        }
+    }
+}
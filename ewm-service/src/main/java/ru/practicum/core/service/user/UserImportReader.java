@@ -0,0 +1,122 @@
+package ru.practicum.core.service.user;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.core.persistance.model.dto.user.NewUserRequest;
+import ru.practicum.core.persistance.model.dto.user.UserImportFormat;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+// Читает тело запроса потоково, не собирая его в память целиком
+@Component
+@RequiredArgsConstructor
+public class UserImportReader {
+    private final ObjectMapper objectMapper;
+
+    public void read(InputStream input, UserImportFormat format, Consumer<UserImportRow> consumer) {
+        try {
+            if (format == UserImportFormat.CSV) {
+                readCsv(input, consumer);
+            } else {
+                readJson(input, consumer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Принимает как JSON-массив, так и последовательность объектов через перевод строки
+    private void readJson(InputStream input, Consumer<UserImportRow> consumer) throws IOException {
+        try (MappingIterator<NewUserRequest> iterator = objectMapper.readerFor(NewUserRequest.class).readValues(input)) {
+            long row = 0;
+            while (true) {
+                row++;
+                try {
+                    if (!iterator.hasNextValue()) {
+                        return;
+                    }
+                    consumer.accept(new UserImportRow(row, iterator.nextValue(), null));
+                } catch (JsonParseException e) {
+                    consumer.accept(new UserImportRow(row, null, "Некорректный JSON: " + e.getOriginalMessage()));
+                    return;
+                } catch (JsonMappingException e) {
+                    consumer.accept(new UserImportRow(row, null, "Некорректная запись: " + e.getOriginalMessage()));
+                }
+            }
+        }
+    }
+
+    // Первая строка содержит заголовок с колонками email и name в любом порядке
+    private void readCsv(InputStream input, Consumer<UserImportRow> consumer) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        List<String> columns = parseCsvLine(header).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int emailIndex = columns.indexOf("email");
+        int nameIndex = columns.indexOf("name");
+        if (emailIndex < 0 || nameIndex < 0) {
+            consumer.accept(new UserImportRow(1, null, "Заголовок CSV должен содержать колонки email и name"));
+            return;
+        }
+        long row = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> values = parseCsvLine(line);
+            if (values.size() != columns.size()) {
+                consumer.accept(new UserImportRow(row, null, "Ожидалось колонок: " + columns.size()
+                        + ", получено: " + values.size()));
+                continue;
+            }
+            consumer.accept(new UserImportRow(row, NewUserRequest.builder()
+                    .email(values.get(emailIndex))
+                    .name(values.get(nameIndex))
+                    .build(), null));
+        }
+    }
+
+    // Кавычки экранируются удвоением, как в выгрузке событий; перевод строки внутри значения не поддерживается
+    private List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
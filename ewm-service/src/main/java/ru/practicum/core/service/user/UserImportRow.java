@@ -0,0 +1,14 @@
+package ru.practicum.core.service.user;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.core.persistance.model.dto.user.NewUserRequest;
+
+@Getter
+@RequiredArgsConstructor
+public class UserImportRow {
+    private final long row;
+    // null, если строку не удалось разобрать
+    private final NewUserRequest user;
+    private final String error;
+}
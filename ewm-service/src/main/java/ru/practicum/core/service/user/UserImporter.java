@@ -0,0 +1,143 @@
+package ru.practicum.core.service.user;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.core.persistance.model.dto.user.NewUserRequest;
+import ru.practicum.core.persistance.model.dto.user.UserImportError;
+import ru.practicum.core.persistance.model.dto.user.UserImportFormat;
+import ru.practicum.core.persistance.model.dto.user.UserImportResult;
+import ru.practicum.core.persistance.repository.UserRepository;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Каждая пачка сохраняется в своей транзакции, поэтому ошибка в одной строке не отменяет весь импорт
+@Slf4j
+@Component
+public class UserImporter {
+    private static final String DUPLICATE = "Пользователь с таким email уже существует";
+
+    private final UserImportReader reader;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public UserImporter(UserImportReader reader,
+                        UserRepository userRepository,
+                        TransactionTemplate transactionTemplate,
+                        Validator validator,
+                        @Value("${EWMServiceApp.users.import.batch-size:1000}") int batchSize,
+                        @Value("${EWMServiceApp.users.import.max-errors:1000}") int maxErrors) {
+        this.reader = reader;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public UserImportResult importUsers(InputStream input, UserImportFormat format) {
+        Report report = new Report();
+        List<UserImportRow> batch = new ArrayList<>(batchSize);
+        reader.read(input, format, row -> {
+            report.total++;
+            String error = row.getError() != null ? row.getError() : validate(row.getUser());
+            if (error != null) {
+                report.fail(row, error);
+                return;
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                save(batch, report);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            save(batch, report);
+        }
+        log.info("Импорт пользователей: строк {}, добавлено {}, с ошибками {}",
+                report.total, report.imported, report.failed);
+        return UserImportResult.builder()
+                .total(report.total)
+                .imported(report.imported)
+                .failed(report.failed)
+                .errors(report.errors)
+                .build();
+    }
+
+    private String validate(NewUserRequest user) {
+        if (user == null) {
+            return "Пустая запись";
+        }
+        var violations = validator.validate(user);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void save(List<UserImportRow> batch, Report report) {
+        List<NewUserRequest> users = batch.stream().map(UserImportRow::getUser).toList();
+        int[] inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> userRepository.insertIgnoringDuplicates(users));
+        } catch (DataAccessException e) {
+            log.warn("Пачка из {} пользователей не сохранена, строки сохраняются по одной", batch.size(), e);
+            saveOneByOne(batch, report);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (inserted[i] == 0) {
+                report.fail(batch.get(i), DUPLICATE);
+            } else {
+                report.imported++;
+            }
+        }
+    }
+
+    private void saveOneByOne(List<UserImportRow> batch, Report report) {
+        for (UserImportRow row : batch) {
+            try {
+                int[] inserted = transactionTemplate.execute(status ->
+                        userRepository.insertIgnoringDuplicates(List.of(row.getUser())));
+                if (inserted[0] == 0) {
+                    report.fail(row, DUPLICATE);
+                } else {
+                    report.imported++;
+                }
+            } catch (DataAccessException e) {
+                report.fail(row, "Не удалось сохранить пользователя");
+            }
+        }
+    }
+
+    private class Report {
+        private long total;
+        private long imported;
+        private long failed;
+        private final List<UserImportError> errors = new ArrayList<>();
+
+        private void fail(UserImportRow row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(UserImportError.builder()
+                        .row(row.getRow())
+                        .email(row.getUser() == null ? null : row.getUser().getEmail())
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+}
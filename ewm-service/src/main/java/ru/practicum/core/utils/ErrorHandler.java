@@ -1,6 +1,8 @@
 package ru.practicum.core.utils;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -8,9 +10,14 @@ import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import ru.practicum.core.exception.AdmissionUnavailableException;
 import ru.practicum.core.exception.ConditionsNotMetException;
 import ru.practicum.core.exception.DateValidationException;
+import ru.practicum.core.exception.GeoValidationException;
+import ru.practicum.core.exception.InvalidCursorException;
 import ru.practicum.core.exception.NotFoundException;
+import ru.practicum.core.exception.RateLimitExceededException;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -94,6 +101,18 @@ public class ErrorHandler {
                 .build();
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleMethodArgumentTypeMismatchException(final MethodArgumentTypeMismatchException e) {
+        return ApiError.builder()
+                .errors(Arrays.stream(e.getStackTrace()).map(StackTraceElement::toString).toList())
+                .status(HttpStatus.BAD_REQUEST.toString())
+                .reason("Некорректное значение параметра " + e.getName() + ".")
+                .message(e.getMessage())
+                .timestamp(SimpleDateTimeFormatter.toString(LocalDateTime.now()))
+                .build();
+    }
+
     @ExceptionHandler(DateValidationException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiError handleDateValidationException(final DateValidationException e) {
@@ -106,6 +125,55 @@ public class ErrorHandler {
                 .build();
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidCursorException(final InvalidCursorException e) {
+        return ApiError.builder()
+                .errors(Arrays.stream(e.getStackTrace()).map(StackTraceElement::toString).toList())
+                .status(HttpStatus.BAD_REQUEST.toString())
+                .reason("Некорректный курсор страницы.")
+                .message(e.getMessage())
+                .timestamp(SimpleDateTimeFormatter.toString(LocalDateTime.now()))
+                .build();
+    }
+
+    @ExceptionHandler(GeoValidationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleGeoValidationException(final GeoValidationException e) {
+        return ApiError.builder()
+                .errors(Arrays.stream(e.getStackTrace()).map(StackTraceElement::toString).toList())
+                .status(HttpStatus.BAD_REQUEST.toString())
+                .reason("Некорректные параметры геопоиска.")
+                .message(e.getMessage())
+                .timestamp(SimpleDateTimeFormatter.toString(LocalDateTime.now()))
+                .build();
+    }
+
+    @ExceptionHandler(AdmissionUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ApiError handleAdmissionUnavailableException(final AdmissionUnavailableException e) {
+        return ApiError.builder()
+                .errors(Arrays.stream(e.getStackTrace()).map(StackTraceElement::toString).toList())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.toString())
+                .reason("Приём заявок на участие временно недоступен.")
+                .message(e.getMessage())
+                .timestamp(SimpleDateTimeFormatter.toString(LocalDateTime.now()))
+                .build();
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ApiError handleRateLimitExceededException(final RateLimitExceededException e, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        return ApiError.builder()
+                .errors(Arrays.stream(e.getStackTrace()).map(StackTraceElement::toString).toList())
+                .status(HttpStatus.TOO_MANY_REQUESTS.toString())
+                .reason("Превышена частота отправки заявок на участие.")
+                .message(e.getMessage())
+                .timestamp(SimpleDateTimeFormatter.toString(LocalDateTime.now()))
+                .build();
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ApiError handleGeneric(final Throwable e) {
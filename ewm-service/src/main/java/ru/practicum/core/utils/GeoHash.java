@@ -0,0 +1,168 @@
+package ru.practicum.core.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.core.persistance.model.dto.event.filter.GeoBox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+public class GeoHash {
+    public static final int MAX_PRECISION = 12;
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private GeoHash() {
+
+    }
+
+    public static String encode(double lat, double lon, int precision) {
+        double minLat = -90;
+        double maxLat = 90;
+        double minLon = -180;
+        double maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int index = 0;
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double middle = (minLon + maxLon) / 2;
+                if (lon >= middle) {
+                    index = index * 2 + 1;
+                    minLon = middle;
+                } else {
+                    index = index * 2;
+                    maxLon = middle;
+                }
+            } else {
+                double middle = (minLat + maxLat) / 2;
+                if (lat >= middle) {
+                    index = index * 2 + 1;
+                    minLat = middle;
+                } else {
+                    index = index * 2;
+                    maxLat = middle;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(index));
+                bit = 0;
+                index = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    public static double[] decode(String hash) {
+        double minLat = -90;
+        double maxLat = 90;
+        double minLon = -180;
+        double maxLon = 180;
+        boolean evenBit = true;
+        for (char c : hash.toCharArray()) {
+            int index = BASE32.indexOf(c);
+            for (int bit = 4; bit >= 0; bit--) {
+                boolean set = ((index >> bit) & 1) == 1;
+                if (evenBit) {
+                    double middle = (minLon + maxLon) / 2;
+                    if (set) {
+                        minLon = middle;
+                    } else {
+                        maxLon = middle;
+                    }
+                } else {
+                    double middle = (minLat + maxLat) / 2;
+                    if (set) {
+                        minLat = middle;
+                    } else {
+                        maxLat = middle;
+                    }
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new double[]{(minLat + maxLat) / 2, (minLon + maxLon) / 2};
+    }
+
+    public static double cellHeight(int precision) {
+        return 180.0 / (1L << (5 * precision / 2));
+    }
+
+    public static double cellWidth(int precision) {
+        return 360.0 / (1L << ((5 * precision + 1) / 2));
+    }
+
+    // Ячейки, покрывающие прямоугольник, на самой мелкой точности, при которой их не больше maxCells
+    public static List<Range> cover(GeoBox box, int maxCells) {
+        int precision = MAX_PRECISION;
+        while (precision > 1 && cellCount(box, precision) > maxCells) {
+            precision--;
+        }
+
+        TreeSet<String> cells = new TreeSet<>();
+        double width = cellWidth(precision);
+        double height = cellHeight(precision);
+        for (long row = cellIndex(box.getMinLat() + 90, height); row <= cellIndex(box.getMaxLat() + 90, height); row++) {
+            for (long col = cellIndex(box.getMinLon() + 180, width); col <= cellIndex(box.getMaxLon() + 180, width); col++) {
+                double lat = Math.min(90, -90 + (row + 0.5) * height);
+                double lon = Math.min(180, -180 + (col + 0.5) * width);
+                cells.add(encode(lat, lon, precision));
+            }
+        }
+
+        List<Range> ranges = new ArrayList<>();
+        for (String cell : cells) {
+            Range last = ranges.isEmpty() ? null : ranges.getLast();
+            if (last != null && cell.equals(last.getTo())) {
+                ranges.set(ranges.size() - 1, new Range(last.getFrom(), nextPrefix(cell)));
+            } else {
+                ranges.add(new Range(cell, nextPrefix(cell)));
+            }
+        }
+        return ranges;
+    }
+
+    public static String nextPrefix(String prefix) {
+        int last = prefix.length() - 1;
+        while (last >= 0 && prefix.charAt(last) == BASE32.charAt(BASE32.length() - 1)) {
+            last--;
+        }
+        if (last < 0) {
+            return null;
+        }
+        return prefix.substring(0, last) + BASE32.charAt(BASE32.indexOf(prefix.charAt(last)) + 1);
+    }
+
+    public static GeoBox boxAround(double lat, double lon, double radiusKm) {
+        double deltaLat = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.9, Math.abs(lat) + deltaLat)));
+        double deltaLon = Math.toDegrees(radiusKm / (EARTH_RADIUS_KM * cosLat));
+        return new GeoBox(Math.max(-90, lat - deltaLat), lon - deltaLon, Math.min(90, lat + deltaLat), lon + deltaLon);
+    }
+
+    private static long cellCount(GeoBox box, int precision) {
+        double width = cellWidth(precision);
+        double height = cellHeight(precision);
+        long rows = cellIndex(box.getMaxLat() + 90, height) - cellIndex(box.getMinLat() + 90, height) + 1;
+        long cols = cellIndex(box.getMaxLon() + 180, width) - cellIndex(box.getMinLon() + 180, width) + 1;
+        return rows * cols;
+    }
+
+    private static long cellIndex(double offset, double cellSize) {
+        return (long) Math.floor(offset / cellSize);
+    }
+
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    public static class Range {
+        private final String from;
+        private final String to;
+    }
+}
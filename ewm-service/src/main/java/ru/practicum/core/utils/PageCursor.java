@@ -0,0 +1,88 @@
+package ru.practicum.core.utils;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.http.HttpHeaders;
+import ru.practicum.core.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+public class PageCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    private final String value;
+    private final Long id;
+
+    private PageCursor(String value, Long id) {
+        this.value = value;
+        this.id = id;
+    }
+
+    public static PageCursor of(LocalDateTime value, Long id) {
+        return new PageCursor(value.toString(), id);
+    }
+
+    public static PageCursor of(Long value, Long id) {
+        return new PageCursor(String.valueOf(value == null ? 0L : value), id);
+    }
+
+    public static PageCursor ofId(Long id) {
+        return new PageCursor("", id);
+    }
+
+    public LocalDateTime getDateValue() {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Курсор не соответствует сортировке по дате");
+        }
+    }
+
+    public Long getLongValue() {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Курсор не соответствует сортировке по числовому полю");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((value + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Некорректный курсор страницы: " + token);
+            }
+            return new PageCursor(decoded.substring(0, separator), Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Некорректный курсор страницы: " + token);
+        }
+    }
+
+    public static <T> HttpHeaders nextPageHeaders(List<T> page, Integer size, Function<T, PageCursor> cursorOf) {
+        HttpHeaders headers = new HttpHeaders();
+        if (size != null && !page.isEmpty() && page.size() >= size) {
+            headers.add(NEXT_CURSOR_HEADER, cursorOf.apply(page.getLast()).encode());
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_events_published_available ON events (event_date, id)
+    WHERE state = 'PUBLISHED' AND available;
+
+CREATE INDEX IF NOT EXISTS idx_upcoming_events_available ON upcoming_events (event_date, id)
+    WHERE available;
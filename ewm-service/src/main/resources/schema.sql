@@ -70,4 +70,113 @@ CREATE TABLE IF NOT EXISTS events_compilations
     event_id       BIGINT REFERENCES events (id) ON DELETE CASCADE,
     compilation_id BIGINT REFERENCES compilations (id) ON DELETE CASCADE,
     PRIMARY KEY (event_id, compilation_id)
-);
\ No newline at end of file
+);
+
+ALTER TABLE events ADD COLUMN IF NOT EXISTS geohash VARCHAR(12);
+
+CREATE INDEX IF NOT EXISTS idx_events_geohash ON events (geohash);
+
+CREATE INDEX IF NOT EXISTS idx_requests_event_status ON requests (event_id, status, id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created, id);
+
+ALTER TABLE events ADD COLUMN IF NOT EXISTS available BOOLEAN NOT NULL DEFAULT TRUE;
+
+UPDATE events SET available = (participant_limit = 0 OR participant_limit > confirmed_requests)
+WHERE available <> (participant_limit = 0 OR participant_limit > confirmed_requests);
+
+CREATE TABLE IF NOT EXISTS upcoming_events
+(
+    id                 BIGINT                                  NOT NULL,
+    annotation         VARCHAR(2000)                           NOT NULL,
+    category_id        BIGINT                                  NOT NULL,
+    confirmed_requests BIGINT DEFAULT 0,
+    description        TEXT                                    NOT NULL,
+    event_date         TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    initiator_id       BIGINT                                  NOT NULL,
+    lat                REAL                                    NOT NULL,
+    lon                REAL                                    NOT NULL,
+    geohash            VARCHAR(12),
+    paid               BOOL                                    DEFAULT FALSE,
+    available          BOOL                                    NOT NULL DEFAULT TRUE,
+    title              VARCHAR(255)                            NOT NULL,
+    views              BIGINT DEFAULT 0,
+    CONSTRAINT pk_upcoming_event PRIMARY KEY (id),
+    FOREIGN KEY (id)
+        REFERENCES events (id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id)
+        REFERENCES categories (id) ON DELETE CASCADE,
+    FOREIGN KEY (initiator_id)
+        REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_upcoming_events_date ON upcoming_events (event_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_upcoming_events_geohash ON upcoming_events (geohash);
+
+-- Первичное заполнение проекции: добавляются только отсутствующие строки, работающие экземпляры их не теряют
+INSERT INTO upcoming_events (id, annotation, category_id, confirmed_requests, description, event_date, initiator_id,
+                             lat, lon, geohash, paid, available, title, views)
+SELECT e.id, e.annotation, e.category_id, e.confirmed_requests, e.description, e.event_date, e.initiator_id,
+       e.lat, e.lon, e.geohash, e.paid, e.available, e.title, e.views
+FROM events e
+WHERE e.state = 'PUBLISHED' AND e.event_date > LOCALTIMESTAMP
+  AND NOT EXISTS (SELECT 1 FROM upcoming_events u WHERE u.id = e.id);
+
+CREATE TABLE IF NOT EXISTS category_event_counters
+(
+    category_id     BIGINT           NOT NULL,
+    events          BIGINT DEFAULT 0 NOT NULL,
+    upcoming_events BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_category_event_counters PRIMARY KEY (category_id),
+    FOREIGN KEY (category_id)
+        REFERENCES categories (id) ON DELETE CASCADE
+);
+
+-- Счётчики засеваются один раз для категорий без строки; дальше их ведёт только проекция в транзакциях записи
+INSERT INTO category_event_counters (category_id, events, upcoming_events)
+SELECT c.id,
+       (SELECT COUNT(*) FROM events e WHERE e.category_id = c.id),
+       (SELECT COUNT(*) FROM upcoming_events u WHERE u.category_id = c.id)
+FROM categories c
+WHERE NOT EXISTS (SELECT 1 FROM category_event_counters k WHERE k.category_id = c.id);
+
+CREATE TABLE IF NOT EXISTS moderation_jobs
+(
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    event_id        BIGINT                                  NOT NULL,
+    initiator_id    BIGINT                                  NOT NULL,
+    status          VARCHAR(10)                             NOT NULL,
+    state           VARCHAR(10)                             NOT NULL,
+    total           BIGINT                                  NOT NULL DEFAULT 0,
+    processed       BIGINT                                  NOT NULL DEFAULT 0,
+    confirmed       BIGINT                                  NOT NULL DEFAULT 0,
+    rejected        BIGINT                                  NOT NULL DEFAULT 0,
+    skipped         BIGINT                                  NOT NULL DEFAULT 0,
+    last_request_id BIGINT,
+    error           VARCHAR(2000),
+    created_on      TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    started_on      TIMESTAMP WITHOUT TIME ZONE,
+    finished_on     TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_moderation_job PRIMARY KEY (id),
+    FOREIGN KEY (event_id)
+        REFERENCES events (id) ON DELETE CASCADE,
+    FOREIGN KEY (initiator_id)
+        REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS moderation_job_requests
+(
+    job_id     BIGINT REFERENCES moderation_jobs (id) ON DELETE CASCADE,
+    request_id BIGINT NOT NULL,
+    PRIMARY KEY (job_id, request_id)
+);
+
+CREATE TABLE IF NOT EXISTS moderation_job_over_limit_requests
+(
+    job_id     BIGINT REFERENCES moderation_jobs (id) ON DELETE CASCADE,
+    request_id BIGINT NOT NULL,
+    PRIMARY KEY (job_id, request_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_moderation_jobs_state ON moderation_jobs (state);
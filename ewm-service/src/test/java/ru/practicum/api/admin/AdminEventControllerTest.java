@@ -10,15 +10,22 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.core.persistance.model.dto.event.EventExportFormat;
 import ru.practicum.core.persistance.model.dto.event.EventFullDto;
 import ru.practicum.core.persistance.model.dto.event.UpdateEventAdminRequest;
 import ru.practicum.core.service.EventService;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -83,6 +90,39 @@ class AdminEventControllerTest {
         Mockito.verify(eventService).searchAdmin(any());
     }
 
+    @Test
+    void exportEventsShouldStreamRowsInRequestedFormat() throws Exception {
+        Mockito.when(eventService.exportAdmin(any(), eq(EventExportFormat.CSV), any()))
+                .thenAnswer(invocation -> {
+                    OutputStream output = invocation.getArgument(2);
+                    output.write("id,title\n1,Test Event\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/admin/events/export")
+                        .param("states", "PUBLISHED")
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("text/csv")))
+                .andExpect(header().string("Content-Disposition", containsString("events.csv")))
+                .andExpect(content().string("id,title\n1,Test Event\n"));
+
+        Mockito.verify(eventService).exportAdmin(any(), eq(EventExportFormat.CSV), any());
+    }
+
+    @Test
+    void exportEventsWithUnknownFormatShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/admin/events/export")
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(eventService);
+    }
+
     @Test
     void getAllEventsWithInvalidFromParamShouldReturnBadRequest() throws Exception {
         mockMvc.perform(get("/admin/events")
@@ -13,6 +13,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.core.exception.NotFoundException;
 import ru.practicum.core.persistance.model.dto.user.NewUserRequest;
 import ru.practicum.core.persistance.model.dto.user.UserDto;
+import ru.practicum.core.persistance.model.dto.user.UserImportFormat;
+import ru.practicum.core.persistance.model.dto.user.UserImportResult;
 import ru.practicum.core.service.UserService;
 
 import java.util.List;
@@ -55,7 +57,7 @@ class AdminUserControllerTest {
     @Test
     void getAllUsersWhenNoIdsThenReturnAllUsers() throws Exception {
         List<UserDto> users = List.of(userDto);
-        Mockito.when(userService.getAll(null, 0, 10)).thenReturn(users);
+        Mockito.when(userService.getAll(null, 0, 10, null)).thenReturn(users);
 
         mockMvc.perform(get("/admin/users"))
                 .andExpect(status().isOk())
@@ -63,21 +65,49 @@ class AdminUserControllerTest {
                 .andExpect(jsonPath("$[0].name").value(userDto.getName()))
                 .andExpect(jsonPath("$[0].email").value(userDto.getEmail()));
 
-        Mockito.verify(userService).getAll(null, 0, 10);
+        Mockito.verify(userService).getAll(null, 0, 10, null);
+    }
+
+    @Test
+    void importUsersShouldPassFormatAndReturnReport() throws Exception {
+        Mockito.when(userService.importUsers(any(), eq(UserImportFormat.CSV))).thenReturn(UserImportResult.builder()
+                .total(1L)
+                .imported(1L)
+                .failed(0L)
+                .errors(List.of())
+                .build());
+
+        mockMvc.perform(post("/admin/users/import")
+                        .param("format", "csv")
+                        .contentType("text/csv")
+                        .content("email,name\ntest@example.com,Test User\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors").isEmpty());
+    }
+
+    @Test
+    void importUsersWithUnknownFormatShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/admin/users/import")
+                        .param("format", "xml")
+                        .content("<users/>"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(userService);
     }
 
     @Test
     void getAllUsersWhenWithIdsThenReturnFilteredUsers() throws Exception {
         List<Long> ids = List.of(1L, 2L);
         List<UserDto> users = List.of(userDto);
-        Mockito.when(userService.getAll(ids, 0, 10)).thenReturn(users);
+        Mockito.when(userService.getAll(ids, 0, 10, null)).thenReturn(users);
 
         mockMvc.perform(get("/admin/users")
                         .param("ids", "1,2"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(userDto.getId()));
 
-        Mockito.verify(userService).getAll(ids, 0, 10);
+        Mockito.verify(userService).getAll(ids, 0, 10, null);
     }
 
     @Test
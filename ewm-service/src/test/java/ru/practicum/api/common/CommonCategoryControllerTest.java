@@ -44,27 +44,37 @@ class CommonCategoryControllerTest {
     @Test
     void getAllCategoriesShouldReturnListOfCategories() throws Exception {
         List<CategoryDto> categories = List.of(categoryDto);
-        when(categoryService.getAll(0, 10)).thenReturn(categories);
+        when(categoryService.getAll(0, 10, false)).thenReturn(categories);
 
         mockMvc.perform(get("/categories"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(categoryDto.getId()))
                 .andExpect(jsonPath("$[0].name").value(categoryDto.getName()));
 
-        Mockito.verify(categoryService).getAll(0, 10);
+        Mockito.verify(categoryService).getAll(0, 10, false);
+    }
+
+    @Test
+    void getAllCategoriesWithCountsShouldReturnUpcomingEvents() throws Exception {
+        CategoryDto counted = CategoryDto.builder().id(1L).name("Концерты").upcomingEvents(3L).build();
+        when(categoryService.getAll(0, 10, true)).thenReturn(List.of(counted));
+
+        mockMvc.perform(get("/categories").param("withCounts", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].upcomingEvents").value(3));
     }
 
     @Test
     void getAllCategoriesWithPaginationShouldUseParameters() throws Exception {
         List<CategoryDto> categories = List.of(categoryDto);
-        when(categoryService.getAll(5, 20)).thenReturn(categories);
+        when(categoryService.getAll(5, 20, false)).thenReturn(categories);
 
         mockMvc.perform(get("/categories")
                         .param("from", "5")
                         .param("size", "20"))
                 .andExpect(status().isOk());
 
-        Mockito.verify(categoryService).getAll(5, 20);
+        Mockito.verify(categoryService).getAll(5, 20, false);
     }
 
     @Test
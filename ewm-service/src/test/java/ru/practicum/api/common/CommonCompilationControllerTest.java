@@ -1,6 +1,7 @@
 package ru.practicum.api.common;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,11 +10,18 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.core.persistance.model.dto.compilation.CompilationDto;
+import ru.practicum.core.persistance.model.dto.compilation.CompilationSnapshot;
 import ru.practicum.core.service.CompilationService;
+import ru.practicum.core.service.compilation.CompilationSnapshotCache;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,16 +39,19 @@ class CommonCompilationControllerTest {
     @MockBean
     private CompilationService compilationService;
 
+    private CompilationSnapshotCache snapshots;
+
+    @BeforeEach
+    void setUp() {
+        snapshots = new CompilationSnapshotCache(objectMapper, false, 100, Duration.ofMinutes(5));
+    }
+
     @Test
     void findAllShouldReturnListOfCompilations() throws Exception {
-        CompilationDto compilationDto = new CompilationDto();
-        compilationDto.setId(1L);
-        compilationDto.setTitle("Test Compilation");
-        compilationDto.setPinned(true);
-        compilationDto.setEvents(Collections.emptyList());
+        CompilationDto compilationDto = compilation(1L, "Test Compilation", true);
 
-        Mockito.when(compilationService.findAll(anyBoolean(), anyInt(), anyInt()))
-                .thenReturn(List.of(compilationDto));
+        Mockito.when(compilationService.findAllSnapshot(anyBoolean(), anyInt(), anyInt(), isNull()))
+                .thenReturn(listing(List.of(compilationDto), 10));
 
         mockMvc.perform(get("/compilations")
                         .param("pinned", "true")
@@ -54,19 +65,19 @@ class CommonCompilationControllerTest {
 
     @Test
     void findAllShouldUseDefaultParameters() throws Exception {
-        Mockito.when(compilationService.findAll(isNull(), anyInt(), anyInt()))
-                .thenReturn(Collections.emptyList());
+        Mockito.when(compilationService.findAllSnapshot(isNull(), anyInt(), anyInt(), isNull()))
+                .thenReturn(listing(Collections.emptyList(), 10));
 
         mockMvc.perform(get("/compilations"))
                 .andExpect(status().isOk());
 
-        Mockito.verify(compilationService).findAll(null, 0, 10);
+        Mockito.verify(compilationService).findAllSnapshot(null, 0, 10, null);
     }
 
     @Test
     void findAllShouldReturnEmptyList() throws Exception {
-        Mockito.when(compilationService.findAll(anyBoolean(), anyInt(), anyInt()))
-                .thenReturn(Collections.emptyList());
+        Mockito.when(compilationService.findAllSnapshot(anyBoolean(), anyInt(), anyInt(), isNull()))
+                .thenReturn(listing(Collections.emptyList(), 10));
 
         mockMvc.perform(get("/compilations")
                         .param("pinned", "false"))
@@ -76,29 +87,107 @@ class CommonCompilationControllerTest {
     }
 
     @Test
-    void findByIdShouldReturnCompilation() throws Exception {
-        CompilationDto compilationDto = new CompilationDto();
-        compilationDto.setId(1L);
-        compilationDto.setTitle("Test Compilation");
-        compilationDto.setPinned(false);
-        compilationDto.setEvents(Collections.emptyList());
+    void findAllFullPageShouldReturnNextCursor() throws Exception {
+        Mockito.when(compilationService.findAllSnapshot(isNull(), anyInt(), anyInt(), isNull()))
+                .thenReturn(listing(List.of(compilation(5L, "Test Compilation", false)), 1));
 
-        Mockito.when(compilationService.findById(anyLong()))
-                .thenReturn(compilationDto);
+        mockMvc.perform(get("/compilations")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-Next-Cursor"));
+    }
+
+    @Test
+    void findByIdShouldReturnCompilation() throws Exception {
+        Mockito.when(compilationService.findSnapshotById(anyLong()))
+                .thenReturn(single(compilation(1L, "Test Compilation", false)));
 
         mockMvc.perform(get("/compilations/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.title").value("Test Compilation"))
                 .andExpect(jsonPath("$.pinned").value(false));
     }
 
+    @Test
+    void findByIdWithMatchingETagShouldReturnNotModified() throws Exception {
+        CompilationSnapshot snapshot = single(compilation(1L, "Test Compilation", false));
+        Mockito.when(compilationService.findSnapshotById(1L)).thenReturn(snapshot);
+
+        mockMvc.perform(get("/compilations/1")
+                        .header("If-None-Match", snapshot.getETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", snapshot.getETag()))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void findByIdShouldReturnGzipWhenAccepted() throws Exception {
+        CompilationSnapshot snapshot = single(compilation(1L, "Test Compilation", false));
+        Mockito.when(compilationService.findSnapshotById(1L)).thenReturn(snapshot);
+
+        byte[] body = mockMvc.perform(get("/compilations/1")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", snapshot.getGzipETag()))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(new String(snapshot.getJson(), StandardCharsets.UTF_8),
+                    new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void findByIdShouldReturnPlainJsonWhenGzipIsRefused() throws Exception {
+        CompilationSnapshot snapshot = single(compilation(1L, "Test Compilation", false));
+        Mockito.when(compilationService.findSnapshotById(1L)).thenReturn(snapshot);
+
+        mockMvc.perform(get("/compilations/1")
+                        .header("Accept-Encoding", "gzip;q=0, *;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", snapshot.getETag()))
+                .andExpect(content().bytes(snapshot.getJson()));
+    }
+
+    @Test
+    void acceptsGzipShouldRespectQualityValues() {
+        assertTrue(CommonCompilationController.acceptsGzip("gzip, deflate"));
+        assertTrue(CommonCompilationController.acceptsGzip("deflate, gzip;q=0.5"));
+        assertTrue(CommonCompilationController.acceptsGzip("*"));
+        assertFalse(CommonCompilationController.acceptsGzip("gzip;q=0"));
+        assertFalse(CommonCompilationController.acceptsGzip("gzip;q=0.0, *"));
+        assertFalse(CommonCompilationController.acceptsGzip("deflate, br"));
+        assertFalse(CommonCompilationController.acceptsGzip(null));
+    }
+
     @Test
     void findByIdShouldReturnNotFoundForInvalidId() throws Exception {
-        Mockito.when(compilationService.findById(anyLong()))
+        Mockito.when(compilationService.findSnapshotById(anyLong()))
                 .thenThrow(new ru.practicum.core.exception.NotFoundException("Compilation not found"));
 
         mockMvc.perform(get("/compilations/999"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    private CompilationDto compilation(Long id, String title, boolean pinned) {
+        CompilationDto compilationDto = new CompilationDto();
+        compilationDto.setId(id);
+        compilationDto.setTitle(title);
+        compilationDto.setPinned(pinned);
+        compilationDto.setEvents(Collections.emptyList());
+        return compilationDto;
+    }
+
+    private CompilationSnapshot listing(List<CompilationDto> compilations, Integer size) {
+        return snapshots.getListing(null, 0, size, null, () -> compilations);
+    }
+
+    private CompilationSnapshot single(CompilationDto compilation) {
+        return snapshots.getCompilation(compilation.getId(), () -> compilation);
+    }
+}
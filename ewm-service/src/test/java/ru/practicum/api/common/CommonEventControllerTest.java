@@ -10,15 +10,19 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.core.exception.NotFoundException;
+import ru.practicum.core.persistance.model.dto.event.EventClusterDto;
+import ru.practicum.core.persistance.model.dto.event.EventFacetsDto;
 import ru.practicum.core.persistance.model.dto.event.EventFullDto;
 import ru.practicum.core.persistance.model.dto.event.EventShortDto;
 import ru.practicum.core.service.EventService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -104,6 +108,49 @@ class CommonEventControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void findClustersShouldReturnCellsForRequestedZoom() throws Exception {
+        Mockito.when(eventService.findClusters(any(), eq(12)))
+                .thenReturn(List.of(new EventClusterDto("ucfv0j", 3L, 55.75, 37.62)));
+
+        mockMvc.perform(get("/events/clusters")
+                        .param("bbox", "37.5,55.7,37.7,55.8")
+                        .param("zoom", "12")
+                        .param("paid", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].cell").value("ucfv0j"))
+                .andExpect(jsonPath("$[0].count").value(3));
+
+        Mockito.verify(eventService).findClusters(any(), eq(12));
+    }
+
+    @Test
+    void findClustersWithInvalidZoomShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/events/clusters")
+                        .param("bbox", "37.5,55.7,37.7,55.8")
+                        .param("zoom", "25"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findFacetsShouldReturnCountsPerDimension() throws Exception {
+        Mockito.when(eventService.findFacets(any())).thenReturn(EventFacetsDto.builder()
+                .total(3L)
+                .categories(Map.of(1L, 3L))
+                .paid(Map.of(false, 1L, true, 2L))
+                .available(Map.of(false, 0L, true, 3L))
+                .build());
+
+        mockMvc.perform(get("/events/facets")
+                        .param("text", "концерт"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.categories.1").value(3))
+                .andExpect(jsonPath("$.paid.true").value(2));
+
+        Mockito.verify(eventService).findFacets(any());
+    }
+
     @Test
     void findByIdWhenValidShouldReturnOk() throws Exception {
         Mockito.when(eventService.findById(anyLong()))
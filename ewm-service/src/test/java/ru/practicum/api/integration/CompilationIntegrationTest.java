@@ -1,6 +1,9 @@
 package ru.practicum.api.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +25,7 @@ import ru.practicum.core.persistance.repository.EventRepository;
 import ru.practicum.core.persistance.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -54,6 +58,9 @@ class CompilationIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Event testEvent;
 
     @BeforeEach
@@ -132,6 +139,134 @@ class CompilationIntegrationTest {
         assertEquals(0, compilationRepository.count());
     }
 
+    @Test
+    void getCompilationsShouldLoadEventsWithOneStatementForWholePage() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            User initiator = userRepository.save(new User(null, "Initiator " + i, "initiator" + i + "@email.com"));
+            Category category = categoryRepository.save(new Category(null, "Category " + i));
+            Event event = eventRepository.save(Event.builder()
+                    .title("Event " + i)
+                    .annotation("Test Annotation")
+                    .description("Test Description")
+                    .eventDate(LocalDateTime.now().plusDays(1))
+                    .initiator(initiator)
+                    .category(category)
+                    .paid(false)
+                    .participantLimit(10L)
+                    .requestModeration(true)
+                    .state(EventState.PUBLISHED)
+                    .createdOn(LocalDateTime.now())
+                    .lat(55.754167)
+                    .lon(37.620000)
+                    .build());
+            compilationRepository.save(Compilation.builder()
+                    .title("Compilation " + i)
+                    .pinned(false)
+                    .events(Set.of(event, testEvent))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        mockMvc.perform(get("/compilations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].events", hasSize(2)))
+                .andExpect(jsonPath("$[2].events[1].initiator.name", is("Initiator 2")));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getCompilationsStatementCountShouldNotDependOnPageSize() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            compilationRepository.save(Compilation.builder()
+                    .title("Compilation " + i)
+                    .pinned(false)
+                    .events(Set.of(createEvent(i)))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = enableStatistics();
+
+        mockMvc.perform(get("/compilations").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        long singleCompilationStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        mockMvc.perform(get("/compilations").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[4].events[0].category.name", is("Category 4")));
+
+        assertEquals(singleCompilationStatements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void createAndUpdateShouldNotFetchEventsOneByOne() throws Exception {
+        List<Long> eventIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            eventIds.add(createEvent(i).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = enableStatistics();
+
+        NewCompilationDto newCompilation = new NewCompilationDto();
+        newCompilation.setTitle("Large Compilation");
+        newCompilation.setEvents(Set.copyOf(eventIds));
+        mockMvc.perform(post("/admin/compilations")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(newCompilation)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.events", hasSize(5)));
+        entityManager.flush();
+        entityManager.clear();
+
+        UpdateCompilationRequest updateRequest = new UpdateCompilationRequest();
+        updateRequest.setPinned(true);
+        mockMvc.perform(patch("/admin/compilations/{compId}", compilationRepository.findAll().getFirst().getId())
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(5)));
+
+        assertEquals(0, statistics.getEntityFetchCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    private Event createEvent(int index) {
+        User initiator = userRepository.save(new User(null, "Initiator " + index, "initiator" + index + "@email.com"));
+        Category category = categoryRepository.save(new Category(null, "Category " + index));
+        return eventRepository.save(Event.builder()
+                .title("Event " + index)
+                .annotation("Test Annotation")
+                .description("Test Description")
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .initiator(initiator)
+                .category(category)
+                .paid(false)
+                .participantLimit(10L)
+                .requestModeration(true)
+                .state(EventState.PUBLISHED)
+                .createdOn(LocalDateTime.now())
+                .lat(55.754167)
+                .lon(37.620000)
+                .build());
+    }
+
+    private Statistics enableStatistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
     @Test
     void shouldNotCreateCompilationWithDuplicateTitle() throws Exception {
         NewCompilationDto firstCompilation = new NewCompilationDto();
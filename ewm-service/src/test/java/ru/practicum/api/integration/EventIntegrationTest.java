@@ -1,6 +1,9 @@
 package ru.practicum.api.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,14 +15,21 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.core.persistance.model.*;
 import ru.practicum.core.persistance.model.dto.event.*;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchAdmin;
 import ru.practicum.core.persistance.model.dto.event.state.EventAdminStateAction;
 import ru.practicum.core.persistance.model.dto.event.state.EventState;
 import ru.practicum.core.persistance.model.dto.event.state.EventUserStateAction;
 import ru.practicum.core.persistance.model.dto.request.EventRequestStatusUpdateRequest;
 import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
 import ru.practicum.core.persistance.repository.*;
+import ru.practicum.core.service.EventService;
+import ru.practicum.core.service.event.UpcomingEventPruner;
+import ru.practicum.core.utils.PageCursor;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Set;
 
@@ -52,6 +62,21 @@ class EventIntegrationTest {
     @Autowired
     private ParticipationRequestRepository requestRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private UpcomingEventRepository upcomingEventRepository;
+
+    @Autowired
+    private UpcomingEventPruner upcomingEventPruner;
+
+    @Autowired
+    private CategoryEventCounterRepository categoryEventCounterRepository;
+
     private User initiator;
     private User participant;
     private Category category;
@@ -85,7 +110,7 @@ class EventIntegrationTest {
                 .title("Test Event")
                 .annotation("Test Annotation")
                 .description("Test Description")
-                .eventDate(LocalDateTime.now().plusDays(1))
+                .eventDate(LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS))
                 .initiator(initiator)
                 .category(category)
                 .paid(false)
@@ -149,6 +174,104 @@ class EventIntegrationTest {
         assertEquals(EventState.PUBLISHED, updatedEvent.getState());
     }
 
+    @Test
+    void upcomingEventsProjectionShouldBeUpdatedInPlaceOnlyForProjectedChanges() throws Exception {
+        mockMvc.perform(patch("/admin/events/{eventId}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(adminUpdateRequest)))
+                .andExpect(status().isOk());
+        eventRepository.flush();
+        entityManager.createNativeQuery("UPDATE upcoming_events SET description = 'отметка' WHERE id = :id")
+                .setParameter("id", event.getId())
+                .executeUpdate();
+
+        Event published = eventRepository.findById(event.getId()).orElseThrow();
+        published.setParticipantLimit(published.getParticipantLimit() + 1);
+        eventRepository.flush();
+        assertEquals("отметка", upcomingColumn("description"));
+
+        published.setViews(42L);
+        eventRepository.flush();
+        assertEquals(42L, ((Number) upcomingColumn("views")).longValue());
+        assertEquals(published.getDescription(), upcomingColumn("description"));
+    }
+
+    @Test
+    void upcomingEventsProjectionShouldFollowStateTransitionsAndBePruned() throws Exception {
+        assertFalse(upcomingEventRepository.existsById(event.getId()));
+
+        mockMvc.perform(patch("/admin/events/{eventId}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(adminUpdateRequest)))
+                .andExpect(status().isOk());
+        eventRepository.flush();
+
+        UpcomingEvent upcoming = upcomingEventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(adminUpdateRequest.getTitle(), upcoming.getTitle());
+        mockMvc.perform(get("/events"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(event.getId().intValue())));
+
+        entityManager.createNativeQuery("UPDATE upcoming_events SET event_date = :past WHERE id = :id")
+                .setParameter("past", LocalDateTime.now().minusMinutes(1))
+                .setParameter("id", event.getId())
+                .executeUpdate();
+        assertEquals(1, upcomingEventPruner.prune());
+        assertFalse(upcomingEventRepository.existsById(event.getId()));
+    }
+
+    @Test
+    void categoryCountersShouldFollowEventTransitions() throws Exception {
+        Category other = categoryRepository.save(Category.builder().name("Other Category").build());
+        assertCounters(category, 1, 0);
+        assertCounters(other, 0, 0);
+
+        mockMvc.perform(patch("/admin/events/{eventId}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(adminUpdateRequest)))
+                .andExpect(status().isOk());
+        assertCounters(category, 1, 1);
+
+        UpdateEventAdminRequest move = UpdateEventAdminRequest.builder().category(other.getId()).build();
+        mockMvc.perform(patch("/admin/events/{eventId}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(move)))
+                .andExpect(status().isOk());
+        assertCounters(category, 0, 0);
+        assertCounters(other, 1, 1);
+
+        mockMvc.perform(get("/categories").param("withCounts", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + other.getId() + ")].upcomingEvents", contains(1)));
+        mockMvc.perform(get("/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].upcomingEvents").doesNotExist());
+
+        entityManager.createNativeQuery("UPDATE upcoming_events SET event_date = :past WHERE id = :id")
+                .setParameter("past", LocalDateTime.now().minusMinutes(1))
+                .setParameter("id", event.getId())
+                .executeUpdate();
+        upcomingEventPruner.prune();
+        assertCounters(other, 1, 0);
+
+        eventRepository.deleteById(event.getId());
+        assertCounters(other, 0, 0);
+    }
+
+    private Object upcomingColumn(String column) {
+        return entityManager.createNativeQuery("SELECT " + column + " FROM upcoming_events WHERE id = :id")
+                .setParameter("id", event.getId())
+                .getSingleResult();
+    }
+
+    private void assertCounters(Category target, long events, long upcoming) {
+        entityManager.flush();
+        entityManager.clear();
+        CategoryEventCounter counter = categoryEventCounterRepository.findById(target.getId()).orElseThrow();
+        assertEquals(events, counter.getEvents());
+        assertEquals(upcoming, counter.getUpcomingEvents());
+    }
+
     @Test
     void updateEventThroughUserEndpointShouldUpdateEvent() throws Exception {
         mockMvc.perform(patch("/users/{userId}/events/{eventId}", initiator.getId(), event.getId())
@@ -188,6 +311,200 @@ class EventIntegrationTest {
                 .andExpect(jsonPath("$[0].title").value(event.getTitle()));
     }
 
+    @Test
+    void getPublishedEventsWithCursorShouldReturnNextPageByEventDate() throws Exception {
+        event.setState(EventState.PUBLISHED);
+        eventRepository.save(event);
+        Event later = eventRepository.save(Event.builder()
+                .title("Later Event")
+                .annotation("Test Annotation")
+                .description("Test Description")
+                .eventDate(event.getEventDate().plusDays(1))
+                .initiator(initiator)
+                .category(category)
+                .paid(false)
+                .participantLimit(10L)
+                .requestModeration(true)
+                .state(EventState.PUBLISHED)
+                .createdOn(LocalDateTime.now())
+                .confirmedRequests(0L)
+                .lat(55.754167)
+                .lon(37.620000)
+                .build());
+
+        String cursor = mockMvc.perform(get("/events").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(event.getId()))
+                .andReturn()
+                .getResponse()
+                .getHeader(PageCursor.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/events").param("size", "1").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(later.getId()));
+    }
+
+    @Test
+    void getPublishedEventsShouldLoadWholePageWithSingleStatement() throws Exception {
+        eventRepository.deleteAll();
+        for (int i = 0; i < 3; i++) {
+            saveEventOfNewInitiatorAndCategory(i, EventState.PUBLISHED);
+        }
+        Statistics statistics = resetStatistics();
+
+        mockMvc.perform(get("/events"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].category.name").value("Category 0"))
+                .andExpect(jsonPath("$[0].initiator.name").value("Initiator 0"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void exportAdminEventsShouldStreamMatchingEventsWithSingleStatement() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            saveEventOfNewInitiatorAndCategory(i, EventState.PUBLISHED);
+        }
+        Statistics statistics = resetStatistics();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = eventService.exportAdmin(EventSearchAdmin.builder().states(List.of("PUBLISHED")).build(),
+                EventExportFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, exported);
+        assertEquals(3, lines.length);
+        assertEquals("Category 0", objectMapper.readTree(lines[0]).get("category").get("name").asText());
+        assertEquals("Initiator 2", objectMapper.readTree(lines[2]).get("initiator").get("name").asText());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUserEventsShouldLoadWholePageWithSingleStatement() throws Exception {
+        eventRepository.save(Event.builder()
+                .title("Second Event")
+                .annotation("Test Annotation")
+                .description("Test Description")
+                .eventDate(LocalDateTime.now().plusDays(2))
+                .initiator(initiator)
+                .category(categoryRepository.save(Category.builder().name("Second Category").build()))
+                .paid(false)
+                .participantLimit(10L)
+                .requestModeration(true)
+                .state(EventState.PENDING)
+                .createdOn(LocalDateTime.now())
+                .confirmedRequests(0L)
+                .lat(55.754167)
+                .lon(37.620000)
+                .build());
+        Statistics statistics = resetStatistics();
+
+        mockMvc.perform(get("/users/{userId}/events", initiator.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].category.name").value("Second Category"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getPublishedEventsNearPointShouldReturnEventsWithinRadiusSortedByDistance() throws Exception {
+        eventRepository.deleteAll();
+        Event far = saveEventAt("Far", 55.80, 37.70);
+        Event near = saveEventAt("Near", 55.755, 37.621);
+        saveEventAt("Petersburg", 59.9386, 30.3141);
+
+        mockMvc.perform(get("/events")
+                        .param("lat", "55.754167")
+                        .param("lon", "37.62")
+                        .param("radius", "10")
+                        .param("sort", "DISTANCE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(near.getId()))
+                .andExpect(jsonPath("$[1].id").value(far.getId()))
+                .andExpect(header().doesNotExist(PageCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getPublishedEventsInBoundingBoxShouldReturnOnlyEventsInside() throws Exception {
+        eventRepository.deleteAll();
+        saveEventAt("Moscow", 55.754167, 37.62);
+        Event petersburg = saveEventAt("Petersburg", 59.9386, 30.3141);
+
+        mockMvc.perform(get("/events").param("bbox", "30.0,59.8,30.6,60.1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(petersburg.getId()));
+    }
+
+    @Test
+    void getClustersShouldAggregatePublishedEventsPerCell() throws Exception {
+        eventRepository.deleteAll();
+        saveEventAt("Kremlin", 55.7520, 37.6175);
+        saveEventAt("Red Square", 55.7539, 37.6208);
+        saveEventAt("Sparrow Hills", 55.7106, 37.5530);
+        saveEventAt("Petersburg", 59.9386, 30.3141);
+
+        mockMvc.perform(get("/events/clusters")
+                        .param("bbox", "37.4,55.6,37.8,55.9")
+                        .param("zoom", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].count", containsInAnyOrder(2, 1)))
+                .andExpect(jsonPath("$[*].cell", everyItem(hasLength(5))));
+
+        mockMvc.perform(get("/events/clusters")
+                        .param("bbox", "37.4,55.6,37.8,55.9")
+                        .param("zoom", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].count").value(3));
+    }
+
+    @Test
+    void getFacetsShouldCountMatchingEventsPerCategoryPaidAndAvailability() throws Exception {
+        eventRepository.deleteAll();
+        saveEventAt("Kremlin", 55.7520, 37.6175);
+        Event paid = saveEventAt("Red Square", 55.7539, 37.6208);
+        paid.setPaid(true);
+        paid.setParticipantLimit(1L);
+        paid.setConfirmedRequests(1L);
+        Category otherCategory = categoryRepository.save(Category.builder().name("Other Category").build());
+        Event other = saveEventAt("Petersburg", 59.9386, 30.3141);
+        other.setCategory(otherCategory);
+        eventRepository.flush();
+        Statistics statistics = resetStatistics();
+
+        mockMvc.perform(get("/events/facets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.categories." + category.getId()).value(2))
+                .andExpect(jsonPath("$.categories." + otherCategory.getId()).value(1))
+                .andExpect(jsonPath("$.paid.true").value(1))
+                .andExpect(jsonPath("$.paid.false").value(2))
+                .andExpect(jsonPath("$.available.false").value(1));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/events/facets").param("paid", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.paid.true").value(0));
+    }
+
+    @Test
+    void getPublishedEventsWithInvalidGeoParametersShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/events").param("sort", "DISTANCE"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/events").param("lat", "55.7").param("radius", "5"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/events").param("bbox", "30.6,59.8,30.0,60.1"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getEventRequestsThroughSecuredEndpointShouldReturnRequests() throws Exception {
         ParticipationRequest request = requestRepository.save(ParticipationRequest.builder()
@@ -221,6 +538,7 @@ class EventIntegrationTest {
                         .content(objectMapper.writeValueAsString(updateRequest)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.confirmedRequests", hasSize(1)));
+        entityManager.clear();
 
         ParticipationRequest updatedRequest = requestRepository.findById(request.getId()).orElseThrow();
         assertEquals(ParticipationRequestStatus.CONFIRMED, updatedRequest.getStatus());
@@ -237,4 +555,58 @@ class EventIntegrationTest {
                         .content(objectMapper.writeValueAsString(invalidDto)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    private Statistics resetStatistics() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    private Event saveEventOfNewInitiatorAndCategory(int number, EventState state) {
+        User eventInitiator = userRepository.save(User.builder()
+                .name("Initiator " + number)
+                .email("initiator" + number + "@example.com")
+                .build());
+        Category eventCategory = categoryRepository.save(Category.builder()
+                .name("Category " + number)
+                .build());
+        return eventRepository.save(Event.builder()
+                .title("Event " + number)
+                .annotation("Test Annotation")
+                .description("Test Description")
+                .eventDate(LocalDateTime.now().plusDays(1).plusHours(number))
+                .initiator(eventInitiator)
+                .category(eventCategory)
+                .paid(false)
+                .participantLimit(10L)
+                .requestModeration(true)
+                .state(state)
+                .createdOn(LocalDateTime.now())
+                .confirmedRequests(0L)
+                .lat(55.754167)
+                .lon(37.620000)
+                .build());
+    }
+
+    private Event saveEventAt(String title, double lat, double lon) {
+        return eventRepository.save(Event.builder()
+                .title(title)
+                .annotation("Test Annotation")
+                .description("Test Description")
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .initiator(initiator)
+                .category(category)
+                .paid(false)
+                .participantLimit(10L)
+                .requestModeration(true)
+                .state(EventState.PUBLISHED)
+                .createdOn(LocalDateTime.now())
+                .confirmedRequests(0L)
+                .lat(lat)
+                .lon(lon)
+                .build());
+    }
+}
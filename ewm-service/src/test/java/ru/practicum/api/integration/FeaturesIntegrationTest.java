@@ -0,0 +1,188 @@
+package ru.practicum.api.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.core.persistance.model.Category;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.User;
+import ru.practicum.core.persistance.model.dto.category.NewCategoryDto;
+import ru.practicum.core.persistance.model.dto.compilation.NewCompilationDto;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.repository.*;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Основные сценарии API с оптимизациями, включёнными профилем features;
+// без @Transactional, чтобы срабатывали слушатели после фиксации транзакций
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ewm-features")
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "features"})
+class FeaturesIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ParticipationRequestRepository requestRepository;
+
+    @Autowired
+    private CompilationRepository compilationRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+    private User initiator;
+
+    @BeforeEach
+    void setUp() {
+        requestRepository.deleteAll();
+        compilationRepository.deleteAll();
+        eventRepository.deleteAll();
+        userRepository.deleteAll();
+        categoryRepository.deleteAll();
+        category = categoryRepository.save(Category.builder().name("Концерты").build());
+        initiator = user("initiator");
+    }
+
+    @Test
+    void requestsShouldBeAdmittedUntilLimitThenRejectedWithConflict() throws Exception {
+        Event event = event(1L);
+
+        mockMvc.perform(post("/users/{userId}/requests", user("first").getId())
+                        .param("eventId", event.getId().toString()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("CONFIRMED"));
+        mockMvc.perform(post("/users/{userId}/requests", user("second").getId())
+                        .param("eventId", event.getId().toString()))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void repeatedRequestsFromOneUserShouldBeRateLimited() throws Exception {
+        Long userId = user("eager").getId();
+        Event event = event(0L);
+
+        mockMvc.perform(post("/users/{userId}/requests", userId).param("eventId", event.getId().toString()))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/users/{userId}/requests", userId).param("eventId", event.getId().toString()))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/users/{userId}/requests", userId).param("eventId", event.getId().toString()))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/users/{userId}/requests", userId).param("eventId", event.getId().toString()))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void compilationSnapshotShouldBeRebuiltAfterCategoryRename() throws Exception {
+        Event event = event(0L);
+        NewCompilationDto newCompilation = new NewCompilationDto();
+        newCompilation.setTitle("Лучшие концерты");
+        newCompilation.setPinned(true);
+        newCompilation.setEvents(Set.of(event.getId()));
+        JsonNode compilation = objectMapper.readTree(mockMvc.perform(post("/admin/compilations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newCompilation)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString());
+        long compilationId = compilation.get("id").asLong();
+
+        String etag = mockMvc.perform(get("/compilations/{compId}", compilationId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/compilations/{compId}", compilationId).header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+
+        NewCategoryDto rename = new NewCategoryDto();
+        rename.setName("Рок-концерты");
+        mockMvc.perform(patch("/admin/categories/{id}", category.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rename)))
+                .andExpect(status().isOk());
+
+        MockHttpServletResponse renamed = mockMvc.perform(get("/compilations/{compId}", compilationId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertNotEquals(etag, renamed.getHeader("ETag"));
+        assertEquals("Рок-концерты", objectMapper.readTree(renamed.getContentAsByteArray())
+                .at("/events/0/category/name").asText());
+    }
+
+    @Test
+    void categoryCatalogShouldFollowCreateAndDelete() throws Exception {
+        NewCategoryDto newCategory = new NewCategoryDto();
+        newCategory.setName("Выставки");
+        JsonNode created = objectMapper.readTree(mockMvc.perform(post("/admin/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newCategory)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString());
+        long categoryId = created.get("id").asLong();
+
+        mockMvc.perform(get("/categories/{id}", categoryId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Выставки"));
+
+        mockMvc.perform(delete("/admin/categories/{id}", categoryId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/categories/{id}", categoryId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void categoryWithEventsShouldNotBeDeleted() throws Exception {
+        event(0L);
+
+        mockMvc.perform(delete("/admin/categories/{id}", category.getId()))
+                .andExpect(status().isConflict());
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder().name(name).email(name + "@example.com").build());
+    }
+
+    private Event event(Long participantLimit) {
+        return eventRepository.save(Event.builder()
+                .title("Концерт")
+                .annotation("Аннотация концерта для проверки оптимизаций")
+                .description("Описание концерта для проверки оптимизаций")
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .createdOn(LocalDateTime.now())
+                .initiator(initiator)
+                .category(category)
+                .state(EventState.PUBLISHED)
+                .participantLimit(participantLimit)
+                .confirmedRequests(0L)
+                .requestModeration(false)
+                .paid(false)
+                .lat(55.754167)
+                .lon(37.620000)
+                .build());
+    }
+}
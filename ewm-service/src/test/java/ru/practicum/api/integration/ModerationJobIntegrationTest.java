@@ -0,0 +1,180 @@
+package ru.practicum.api.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.core.persistance.model.*;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.model.dto.request.EventRequestStatusUpdateRequest;
+import ru.practicum.core.persistance.model.dto.request.ModerationJobDto;
+import ru.practicum.core.persistance.model.dto.request.ModerationJobState;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
+import ru.practicum.core.persistance.repository.*;
+import ru.practicum.core.service.ModerationJobService;
+import ru.practicum.core.service.moderation.ModerationJobRunner;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ewm-moderation-jobs",
+        "EWMServiceApp.moderation-jobs.chunk-size=7",
+        "EWMServiceApp.moderation-jobs.resume-interval-ms=600000"
+})
+@ActiveProfiles("test")
+class ModerationJobIntegrationTest {
+    private static final int PARTICIPANT_LIMIT = 20;
+    private static final int PARTICIPANTS = 60;
+
+    @Autowired
+    private ModerationJobService moderationJobService;
+
+    @Autowired
+    private ModerationJobRunner moderationJobRunner;
+
+    @Autowired
+    private ModerationJobRepository moderationJobRepository;
+
+    @Autowired
+    private ParticipationRequestRepository requestRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User initiator;
+    private Event event;
+    private List<Long> requestIds;
+
+    @BeforeEach
+    void setUp() {
+        tearDown();
+        Category category = categoryRepository.save(Category.builder().name("Концерты").build());
+        initiator = userRepository.save(User.builder().name("Организатор").email("initiator@example.com").build());
+        event = eventRepository.save(Event.builder()
+                .title("Популярный концерт")
+                .annotation("Аннотация популярного концерта")
+                .description("Описание популярного концерта")
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .createdOn(LocalDateTime.now())
+                .initiator(initiator)
+                .category(category)
+                .state(EventState.PUBLISHED)
+                .participantLimit((long) PARTICIPANT_LIMIT)
+                .confirmedRequests(0L)
+                .requestModeration(true)
+                .paid(false)
+                .lat(55.754167)
+                .lon(37.620000)
+                .build());
+        List<User> participants = userRepository.saveAll(IntStream.range(0, PARTICIPANTS)
+                .mapToObj(i -> User.builder().name("Участник " + i).email("participant" + i + "@example.com").build())
+                .toList());
+        requestIds = requestRepository.saveAll(participants.stream()
+                        .map(participant -> ParticipationRequest.builder()
+                                .event(event)
+                                .requester(participant)
+                                .created(LocalDateTime.now())
+                                .status(ParticipationRequestStatus.PENDING)
+                                .build())
+                        .toList()).stream()
+                .map(ParticipationRequest::getId)
+                .sorted()
+                .toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        moderationJobRepository.deleteAll();
+        requestRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void confirmJobShouldRespectLimitAndRejectRemainingRequests() throws Exception {
+        EventRequestStatusUpdateRequest request = new EventRequestStatusUpdateRequest();
+        request.setRequestIds(new HashSet<>(requestIds.subList(0, 50)));
+        request.setStatus(ParticipationRequestStatus.CONFIRMED);
+
+        ModerationJobDto submitted = moderationJobService.submit(initiator.getId(), event.getId(), request);
+        ModerationJobDto job = awaitCompletion(submitted.getId());
+
+        assertEquals(50, job.getTotal());
+        assertEquals(50, job.getProcessed());
+        assertEquals(PARTICIPANT_LIMIT, job.getConfirmed());
+        assertEquals(PARTICIPANTS - PARTICIPANT_LIMIT, job.getRejected());
+        assertEquals(new HashSet<>(requestIds.subList(PARTICIPANT_LIMIT, 50)), job.getOverLimitRequestIds());
+        assertEquals(PARTICIPANT_LIMIT, eventRepository.findById(event.getId()).orElseThrow().getConfirmedRequests());
+        Map<ParticipationRequestStatus, Long> statuses = countStatuses();
+        assertEquals(PARTICIPANT_LIMIT, statuses.get(ParticipationRequestStatus.CONFIRMED));
+        assertEquals(PARTICIPANTS - PARTICIPANT_LIMIT, statuses.get(ParticipationRequestStatus.REJECTED));
+    }
+
+    @Test
+    void interruptedJobShouldResumeFromLastProcessedRequest() throws Exception {
+        Long lastProcessed = requestIds.get(9);
+        List<ParticipationRequest> processed = requestRepository.findAllById(requestIds.subList(0, 10));
+        processed.forEach(participationRequest -> participationRequest.setStatus(ParticipationRequestStatus.REJECTED));
+        requestRepository.saveAll(processed);
+        ModerationJob interrupted = moderationJobRepository.save(ModerationJob.builder()
+                .event(event)
+                .initiator(initiator)
+                .status(ParticipationRequestStatus.REJECTED)
+                .state(ModerationJobState.RUNNING)
+                .requestIds(new HashSet<>(requestIds.subList(0, 30)))
+                .total(30L)
+                .processed(10L)
+                .confirmed(0L)
+                .rejected(10L)
+                .skipped(0L)
+                .lastRequestId(lastProcessed)
+                .createdOn(LocalDateTime.now())
+                .startedOn(LocalDateTime.now())
+                .build());
+
+        moderationJobRunner.resume();
+        ModerationJobDto job = awaitCompletion(interrupted.getId());
+
+        assertEquals(30, job.getProcessed());
+        assertEquals(30, job.getRejected());
+        assertEquals(0, job.getSkipped());
+        assertTrue(job.getOverLimitRequestIds().isEmpty());
+        Map<ParticipationRequestStatus, Long> statuses = countStatuses();
+        assertEquals(30, statuses.get(ParticipationRequestStatus.REJECTED));
+        assertEquals(PARTICIPANTS - 30, statuses.get(ParticipationRequestStatus.PENDING));
+    }
+
+    private ModerationJobDto awaitCompletion(Long jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        ModerationJobDto job = moderationJobService.findById(initiator.getId(), event.getId(), jobId);
+        while (job.getState() != ModerationJobState.COMPLETED && System.currentTimeMillis() < deadline) {
+            assertEquals(null, job.getError());
+            Thread.sleep(50);
+            job = moderationJobService.findById(initiator.getId(), event.getId(), jobId);
+        }
+        assertEquals(ModerationJobState.COMPLETED, job.getState());
+        return job;
+    }
+
+    private Map<ParticipationRequestStatus, Long> countStatuses() {
+        return requestRepository.findAllByEventId(event.getId()).stream()
+                .collect(Collectors.groupingBy(ParticipationRequest::getStatus, Collectors.counting()));
+    }
+}
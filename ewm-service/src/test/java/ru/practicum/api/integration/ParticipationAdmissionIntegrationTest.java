@@ -0,0 +1,159 @@
+package ru.practicum.api.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.core.exception.ConditionsNotMetException;
+import ru.practicum.core.persistance.model.Category;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.ParticipationRequest;
+import ru.practicum.core.persistance.model.User;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
+import ru.practicum.core.persistance.repository.*;
+import ru.practicum.core.service.ParticipationRequestService;
+import ru.practicum.core.service.admission.AdmissionParticipationRequestService;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ewm-admission",
+        "EWMServiceApp.admission.enabled=true",
+        "EWMServiceApp.admission.shards=2",
+        "EWMServiceApp.admission.batch-size=16",
+        "EWMServiceApp.admission.waitlist.enabled=true"
+})
+@ActiveProfiles("test")
+class ParticipationAdmissionIntegrationTest {
+    private static final int PARTICIPANT_LIMIT = 20;
+    private static final int PARTICIPANTS = 120;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ParticipationRequestService participationRequestService;
+
+    @Autowired
+    private ParticipationRequestRepository requestRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Event event;
+    private List<User> participants;
+
+    @BeforeEach
+    void setUp() {
+        tearDown();
+        Category category = categoryRepository.save(Category.builder().name("Фестивали").build());
+        User initiator = userRepository.save(User.builder().name("Организатор").email("initiator@example.com").build());
+        event = eventRepository.save(Event.builder()
+                .title("Фестиваль")
+                .annotation("Аннотация фестиваля для проверки очереди")
+                .description("Описание фестиваля для проверки очереди")
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .createdOn(LocalDateTime.now())
+                .initiator(initiator)
+                .category(category)
+                .state(EventState.PUBLISHED)
+                .participantLimit((long) PARTICIPANT_LIMIT)
+                .confirmedRequests(0L)
+                .requestModeration(false)
+                .paid(false)
+                .lat(59.93863)
+                .lon(30.31413)
+                .build());
+        participants = userRepository.saveAll(IntStream.range(0, PARTICIPANTS)
+                .mapToObj(i -> User.builder().name("Гость " + i).email("guest" + i + "@example.com").build())
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentRegistrationsShouldBeAdmittedUpToLimitAndOverflowToWaitlist() throws Exception {
+        assertInstanceOf(AdmissionParticipationRequestService.class, participationRequestService);
+
+        List<ParticipationRequestDto> created = registerConcurrently();
+
+        Map<ParticipationRequestStatus, Long> statuses = created.stream()
+                .collect(Collectors.groupingBy(ParticipationRequestDto::getStatus, Collectors.counting()));
+        assertEquals(Map.of(ParticipationRequestStatus.CONFIRMED, (long) PARTICIPANT_LIMIT,
+                ParticipationRequestStatus.WAITING, (long) (PARTICIPANTS - PARTICIPANT_LIMIT)), statuses);
+        assertEquals(PARTICIPANT_LIMIT, eventRepository.findById(event.getId()).orElseThrow().getConfirmedRequests());
+        // Очередь одного события обслуживает один поток, поэтому подтверждены самые ранние записи
+        long lastConfirmed = created.stream()
+                .filter(request -> request.getStatus() == ParticipationRequestStatus.CONFIRMED)
+                .mapToLong(ParticipationRequestDto::getId).max().orElseThrow();
+        long firstWaiting = created.stream()
+                .filter(request -> request.getStatus() == ParticipationRequestStatus.WAITING)
+                .mapToLong(ParticipationRequestDto::getId).min().orElseThrow();
+        assertTrue(lastConfirmed < firstWaiting);
+
+        assertThrows(ConditionsNotMetException.class,
+                () -> participationRequestService.create(participants.get(0).getId(), event.getId()));
+    }
+
+    @Test
+    void cancellingConfirmedRequestShouldPromoteEarliestWaitingRequest() throws Exception {
+        List<ParticipationRequestDto> created = registerConcurrently();
+        ParticipationRequestDto confirmed = created.stream()
+                .filter(request -> request.getStatus() == ParticipationRequestStatus.CONFIRMED)
+                .findFirst().orElseThrow();
+        ParticipationRequestDto firstWaiting = created.stream()
+                .filter(request -> request.getStatus() == ParticipationRequestStatus.WAITING)
+                .min(Comparator.comparing(ParticipationRequestDto::getId)).orElseThrow();
+
+        participationRequestService.cancel(confirmed.getRequester(), confirmed.getId());
+
+        ParticipationRequest promoted = requestRepository.findById(firstWaiting.getId()).orElseThrow();
+        assertEquals(ParticipationRequestStatus.CONFIRMED, promoted.getStatus());
+        assertEquals(PARTICIPANT_LIMIT, eventRepository.findById(event.getId()).orElseThrow().getConfirmedRequests());
+        assertEquals(PARTICIPANT_LIMIT, requestRepository.findAllByEventId(event.getId()).stream()
+                .filter(request -> request.getStatus() == ParticipationRequestStatus.CONFIRMED)
+                .count());
+    }
+
+    private List<ParticipationRequestDto> registerConcurrently() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<ParticipationRequestDto>> futures = new ArrayList<>();
+        try {
+            for (User participant : participants) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return participationRequestService.create(participant.getId(), event.getId());
+                }));
+            }
+            start.countDown();
+            List<ParticipationRequestDto> created = new ArrayList<>();
+            for (Future<ParticipationRequestDto> future : futures) {
+                created.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return created;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
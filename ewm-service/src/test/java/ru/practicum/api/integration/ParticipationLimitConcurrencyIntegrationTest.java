@@ -0,0 +1,129 @@
+package ru.practicum.api.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.core.exception.ConditionsNotMetException;
+import ru.practicum.core.persistance.model.Category;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.UpcomingEvent;
+import ru.practicum.core.persistance.model.User;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
+import ru.practicum.core.persistance.repository.*;
+import ru.practicum.core.service.ParticipationRequestService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ewm-concurrency;LOCK_TIMEOUT=30000")
+@ActiveProfiles("test")
+class ParticipationLimitConcurrencyIntegrationTest {
+    private static final int PARTICIPANT_LIMIT = 25;
+    private static final int PARTICIPANTS = 200;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ParticipationRequestService participationRequestService;
+
+    @Autowired
+    private ParticipationRequestRepository requestRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UpcomingEventRepository upcomingEventRepository;
+
+    private Event event;
+    private List<User> participants;
+
+    @BeforeEach
+    void setUp() {
+        tearDown();
+        Category category = categoryRepository.save(Category.builder().name("Концерты").build());
+        User initiator = userRepository.save(User.builder().name("Организатор").email("initiator@example.com").build());
+        event = eventRepository.save(Event.builder()
+                .title("Популярный концерт")
+                .annotation("Аннотация популярного концерта")
+                .description("Описание популярного концерта")
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .createdOn(LocalDateTime.now())
+                .initiator(initiator)
+                .category(category)
+                .state(EventState.PUBLISHED)
+                .participantLimit((long) PARTICIPANT_LIMIT)
+                .confirmedRequests(0L)
+                .requestModeration(false)
+                .paid(false)
+                .lat(55.754167)
+                .lon(37.620000)
+                .build());
+        participants = userRepository.saveAll(IntStream.range(0, PARTICIPANTS)
+                .mapToObj(i -> User.builder().name("Участник " + i).email("participant" + i + "@example.com").build())
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentRegistrationsShouldNotOvershootParticipantLimit() throws Exception {
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (User participant : participants) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        participationRequestService.create(participant.getId(), event.getId());
+                    } catch (ConditionsNotMetException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Event stored = eventRepository.findById(event.getId()).orElseThrow();
+        long confirmed = requestRepository.findAllByEventId(event.getId()).stream()
+                .filter(request -> request.getStatus() == ParticipationRequestStatus.CONFIRMED)
+                .count();
+        assertEquals(PARTICIPANT_LIMIT, stored.getConfirmedRequests());
+        assertEquals(PARTICIPANT_LIMIT, confirmed);
+        assertEquals(PARTICIPANTS - PARTICIPANT_LIMIT, rejected.get());
+        assertFalse(stored.getAvailable());
+        UpcomingEvent upcoming = upcomingEventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(PARTICIPANT_LIMIT, upcoming.getConfirmedRequests());
+        assertFalse(upcoming.getAvailable());
+    }
+}
@@ -1,21 +1,26 @@
 package ru.practicum.api.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.core.persistance.model.*;
 import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.model.dto.request.EventRequestStatusUpdateRequest;
 import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
 import ru.practicum.core.persistance.repository.*;
+import ru.practicum.core.utils.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -46,6 +51,9 @@ class ParticipationRequestIntegrationTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User user;
     private Event event;
     private ParticipationRequest request;
@@ -125,6 +133,153 @@ class ParticipationRequestIntegrationTest {
         assertEquals(2, requests.size());
     }
 
+    @Test
+    void confirmingLastFreeSlotShouldMarkEventUnavailable() throws Exception {
+        Event lastSlotEvent = eventRepository.save(Event.builder()
+                .title("Last Slot Event")
+                .annotation("Last Slot Annotation")
+                .description("Last Slot Description")
+                .eventDate(LocalDateTime.now().plusDays(2))
+                .initiator(event.getInitiator())
+                .category(category)
+                .state(EventState.PUBLISHED)
+                .participantLimit(1L)
+                .confirmedRequests(0L)
+                .requestModeration(false)
+                .lat(55.755814)
+                .lon(37.617635)
+                .paid(false)
+                .createdOn(LocalDateTime.now())
+                .build());
+        assertEquals(true, lastSlotEvent.getAvailable());
+
+        mockMvc.perform(post("/users/{userId}/requests?eventId={eventId}", user.getId(), lastSlotEvent.getId()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("CONFIRMED"));
+        eventRepository.flush();
+
+        assertEquals(false, eventRepository.findById(lastSlotEvent.getId()).orElseThrow().getAvailable());
+        mockMvc.perform(get("/events").param("onlyAvailable", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(event.getId().intValue())));
+    }
+
+    @Test
+    void confirmingUpToLimitShouldRejectOnlyRemainingPendingRequests() throws Exception {
+        event.setParticipantLimit(2L);
+        event.setConfirmedRequests(1L);
+        eventRepository.save(event);
+        ParticipationRequest confirmed = requestRepository.save(ParticipationRequest.builder()
+                .requester(userRepository.save(User.builder().name("Confirmed").email("confirmed@example.com").build()))
+                .event(event)
+                .status(ParticipationRequestStatus.CONFIRMED)
+                .created(LocalDateTime.now())
+                .build());
+        ParticipationRequest pending = requestRepository.save(ParticipationRequest.builder()
+                .requester(userRepository.save(User.builder().name("Pending").email("pending@example.com").build()))
+                .event(event)
+                .status(ParticipationRequestStatus.PENDING)
+                .created(LocalDateTime.now())
+                .build());
+
+        mockMvc.perform(patch("/users/{userId}/events/{eventId}/requests", event.getInitiator().getId(), event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(EventRequestStatusUpdateRequest.builder()
+                                .requestIds(Set.of(request.getId()))
+                                .status(ParticipationRequestStatus.CONFIRMED)
+                                .build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.confirmedRequests[*].id", contains(request.getId().intValue())))
+                .andExpect(jsonPath("$.rejectedRequests[*].id", contains(pending.getId().intValue())))
+                .andExpect(jsonPath("$.rejectedRequests[0].status").value("REJECTED"));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(ParticipationRequestStatus.CONFIRMED, requestRepository.findById(request.getId()).orElseThrow().getStatus());
+        assertEquals(ParticipationRequestStatus.CONFIRMED, requestRepository.findById(confirmed.getId()).orElseThrow().getStatus());
+        assertEquals(ParticipationRequestStatus.REJECTED, requestRepository.findById(pending.getId()).orElseThrow().getStatus());
+        assertEquals(2L, eventRepository.findById(event.getId()).orElseThrow().getConfirmedRequests());
+    }
+
+    @Test
+    void confirmingWithRepeatedRequestIdShouldConfirmItOnce() throws Exception {
+        mockMvc.perform(patch("/users/{userId}/events/{eventId}/requests", event.getInitiator().getId(), event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"requestIds\":[" + request.getId() + "," + request.getId() + "],"
+                                + "\"status\":\"CONFIRMED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.confirmedRequests[*].id", contains(request.getId().intValue())));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1L, eventRepository.findById(event.getId()).orElseThrow().getConfirmedRequests());
+    }
+
+    @Test
+    void eventRequestsShouldBeFilteredByStatusAndPagedByCursor() throws Exception {
+        ParticipationRequest secondPending = saveRequest("second", ParticipationRequestStatus.PENDING);
+        saveRequest("confirmed", ParticipationRequestStatus.CONFIRMED);
+        ParticipationRequest thirdPending = saveRequest("third", ParticipationRequestStatus.PENDING);
+
+        String cursor = mockMvc.perform(get("/users/{userId}/events/{eventId}/requests", event.getInitiator().getId(), event.getId())
+                        .param("status", "PENDING")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(request.getId().intValue(), secondPending.getId().intValue())))
+                .andExpect(header().exists(PageCursor.NEXT_CURSOR_HEADER))
+                .andReturn()
+                .getResponse()
+                .getHeader(PageCursor.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/users/{userId}/events/{eventId}/requests", event.getInitiator().getId(), event.getId())
+                        .param("status", "PENDING")
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(thirdPending.getId().intValue())))
+                .andExpect(header().doesNotExist(PageCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void userRequestsShouldBePagedByCreationTime() throws Exception {
+        Event laterEvent = eventRepository.save(Event.builder()
+                .title("Later Event")
+                .annotation("Later Annotation")
+                .description("Later Description")
+                .eventDate(LocalDateTime.now().plusDays(4))
+                .initiator(event.getInitiator())
+                .category(category)
+                .state(EventState.PUBLISHED)
+                .participantLimit(10L)
+                .confirmedRequests(0L)
+                .requestModeration(true)
+                .lat(55.755814)
+                .lon(37.617635)
+                .paid(false)
+                .createdOn(LocalDateTime.now())
+                .build());
+        ParticipationRequest later = requestRepository.save(ParticipationRequest.builder()
+                .requester(user)
+                .event(laterEvent)
+                .status(ParticipationRequestStatus.PENDING)
+                .created(request.getCreated().plusMinutes(1))
+                .build());
+
+        String cursor = mockMvc.perform(get("/users/{userId}/requests", user.getId()).param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(request.getId().intValue())))
+                .andReturn()
+                .getResponse()
+                .getHeader(PageCursor.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/users/{userId}/requests", user.getId()).param("size", "1").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(later.getId().intValue())));
+        mockMvc.perform(get("/users/{userId}/requests", user.getId()).param("status", "CONFIRMED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
     @Test
     void getAllRequestsShouldReturnUserRequests() throws Exception {
         mockMvc.perform(get("/users/{userId}/requests", user.getId()))
@@ -165,4 +320,13 @@ class ParticipationRequestIntegrationTest {
         mockMvc.perform(post("/users/{userId}/requests?eventId={eventId}", user.getId(), unpublishedEvent.getId()))
                 .andExpect(status().isConflict());
     }
-}
\ No newline at end of file
+
+    private ParticipationRequest saveRequest(String name, ParticipationRequestStatus status) {
+        return requestRepository.save(ParticipationRequest.builder()
+                .requester(userRepository.save(User.builder().name(name).email(name + "@example.com").build()))
+                .event(event)
+                .status(status)
+                .created(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.api.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.core.config.ReplicaRoutingDataSource;
+import ru.practicum.core.persistance.model.dto.category.NewCategoryDto;
+import ru.practicum.core.persistance.repository.CategoryRepository;
+
+import javax.sql.DataSource;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ewm-routing-primary",
+        "EWMServiceApp.datasource.replicas.urls=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "EWMServiceApp.datasource.replicas.lag-query=SELECT 0",
+        "EWMServiceApp.datasource.replicas.lag-check-interval-ms=600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingIntegrationTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:ewm-routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    private JdbcTemplate replicaJdbc;
+
+    @BeforeEach
+    void setUp() {
+        DataSource replica = new DriverManagerDataSource(REPLICA_URL, "ewm", "ewm");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replica);
+        replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.update("DELETE FROM categories");
+        replicaJdbc.update("INSERT INTO categories (name) VALUES ('Категория на реплике')");
+        categoryRepository.deleteAll();
+        replicaRoutingDataSource.checkReplicas();
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicaJdbc.update("DELETE FROM categories");
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyRequestsShouldBeServedByReplicaAndWritesByPrimary() throws Exception {
+        NewCategoryDto newCategory = new NewCategoryDto();
+        newCategory.setName("Категория на основной базе");
+
+        mockMvc.perform(post("/admin/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newCategory)))
+                .andExpect(status().isCreated());
+
+        assertEquals(1, categoryRepository.count());
+        mockMvc.perform(get("/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Категория на реплике")));
+    }
+}
@@ -13,7 +13,9 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.core.persistance.model.User;
 import ru.practicum.core.persistance.model.dto.user.NewUserRequest;
 import ru.practicum.core.persistance.repository.UserRepository;
+import ru.practicum.core.utils.PageCursor;
 
+import static org.hamcrest.Matchers.contains;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -70,6 +72,46 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$[0].email").value(savedUser.getEmail()));
     }
 
+    @Test
+    void getAllUsersWithCursorShouldContinueAfterLastReturnedUser() throws Exception {
+        User first = userRepository.save(User.builder().name("First").email("first@example.com").build());
+        User second = userRepository.save(User.builder().name("Second").email("second@example.com").build());
+        User third = userRepository.save(User.builder().name("Third").email("third@example.com").build());
+
+        String cursor = mockMvc.perform(get("/admin/users").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(first.getId()))
+                .andExpect(jsonPath("$[1].id").value(second.getId()))
+                .andExpect(header().exists(PageCursor.NEXT_CURSOR_HEADER))
+                .andReturn()
+                .getResponse()
+                .getHeader(PageCursor.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/admin/users").param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(third.getId()))
+                .andExpect(header().doesNotExist(PageCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAllUsersWithOffsetNotMultipleOfSizeShouldSkipExactlyFromRows() throws Exception {
+        userRepository.save(User.builder().name("First").email("first@example.com").build());
+        User second = userRepository.save(User.builder().name("Second").email("second@example.com").build());
+        User third = userRepository.save(User.builder().name("Third").email("third@example.com").build());
+
+        mockMvc.perform(get("/admin/users").param("from", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(second.getId()))
+                .andExpect(jsonPath("$[1].id").value(third.getId()));
+    }
+
+    @Test
+    void getAllUsersWithMalformedCursorShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/admin/users").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deleteUserShouldRemoveFromDatabase() throws Exception {
         var savedUser = userRepository.save(createTestUser());
@@ -96,6 +138,50 @@ class UserIntegrationTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void importUsersFromJsonShouldInsertInBatchesAndReportDuplicates() throws Exception {
+        userRepository.save(createTestUser());
+        String body = "[" +
+                "{\"email\":\"first@example.com\",\"name\":\"First\"}," +
+                "{\"email\":\"test@example.com\",\"name\":\"Existing\"}," +
+                "{\"email\":\"not-an-email\",\"name\":\"Invalid\"}," +
+                "{\"email\":\"second@example.com\",\"name\":\"Second\"}," +
+                "{\"email\":\"first@example.com\",\"name\":\"Repeated\"}" +
+                "]";
+
+        mockMvc.perform(post("/admin/users/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.errors[*].row", contains(2, 3, 5)))
+                .andExpect(jsonPath("$.errors[0].message").value("Пользователь с таким email уже существует"));
+
+        assertEquals(3, userRepository.count());
+        assertEquals("Test User", userRepository.findByEmail("test@example.com").orElseThrow().getName());
+        assertEquals("First", userRepository.findByEmail("first@example.com").orElseThrow().getName());
+    }
+
+    @Test
+    void importUsersFromCsvShouldReportRowNumbers() throws Exception {
+        String body = "email,name\n" +
+                "csv-one@example.com,\"Doe, John\"\n" +
+                "csv-two@example.com\n" +
+                "csv-three@example.com,Jane\n";
+
+        mockMvc.perform(post("/admin/users/import")
+                        .param("format", "csv")
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.errors[0].row").value(3));
+
+        assertEquals("Doe, John", userRepository.findByEmail("csv-one@example.com").orElseThrow().getName());
+    }
+
     private User createTestUser() {
         User user = new User();
         user.setName("Test User");
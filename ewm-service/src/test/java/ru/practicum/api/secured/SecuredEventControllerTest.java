@@ -13,10 +13,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.core.persistance.model.dto.event.*;
 import ru.practicum.core.persistance.model.dto.request.EventRequestStatusUpdateRequest;
 import ru.practicum.core.persistance.model.dto.request.EventRequestStatusUpdateResult;
+import ru.practicum.core.persistance.model.dto.request.ModerationJobDto;
+import ru.practicum.core.persistance.model.dto.request.ModerationJobState;
 import ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto;
 import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
 import ru.practicum.core.service.EventService;
+import ru.practicum.core.service.ModerationJobService;
 import ru.practicum.core.service.ParticipationRequestService;
+import ru.practicum.core.utils.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -42,6 +46,9 @@ class SecuredEventControllerTest {
     @MockBean
     private ParticipationRequestService participationRequestService;
 
+    @MockBean
+    private ModerationJobService moderationJobService;
+
     private EventShortDto eventShortDto;
     private EventFullDto eventFullDto;
     private NewEventDto newEventDto;
@@ -91,7 +98,7 @@ class SecuredEventControllerTest {
 
     @Test
     void getEventsByUserIdShouldReturnEventShortDtoList() throws Exception {
-        Mockito.when(eventService.findByUserId(anyLong(), anyInt(), anyInt()))
+        Mockito.when(eventService.findByUserId(anyLong(), anyInt(), anyInt(), isNull()))
                 .thenReturn(List.of(eventShortDto));
 
         mockMvc.perform(get("/users/{userId}/events", 1L)
@@ -101,7 +108,7 @@ class SecuredEventControllerTest {
                 .andExpect(jsonPath("$[0].id").value(eventShortDto.getId()))
                 .andExpect(jsonPath("$[0].title").value(eventShortDto.getTitle()));
 
-        Mockito.verify(eventService).findByUserId(1L, 0, 10);
+        Mockito.verify(eventService).findByUserId(1L, 0, 10, null);
     }
 
     @Test
@@ -119,14 +126,31 @@ class SecuredEventControllerTest {
 
     @Test
     void getRequestsShouldReturnParticipationRequestList() throws Exception {
-        Mockito.when(participationRequestService.getAllByEventAndInitiator(anyLong(), anyLong()))
+        Mockito.when(participationRequestService.getAllByEventAndInitiator(anyLong(), anyLong(), any(), any(), any(), any()))
                 .thenReturn(List.of(participationRequestDto));
 
         mockMvc.perform(get("/users/{userId}/events/{eventId}/requests", 1L, 1L))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(participationRequestDto.getId()));
 
-        Mockito.verify(participationRequestService).getAllByEventAndInitiator(1L, 1L);
+        Mockito.verify(participationRequestService).getAllByEventAndInitiator(1L, 1L, null, 0, null, null);
+    }
+
+    @Test
+    void getRequestsWithStatusAndCursorShouldPassFilterToService() throws Exception {
+        Mockito.when(participationRequestService.getAllByEventAndInitiator(anyLong(), anyLong(), any(), any(), any(), any()))
+                .thenReturn(List.of(participationRequestDto));
+
+        mockMvc.perform(get("/users/{userId}/events/{eventId}/requests", 1L, 1L)
+                        .param("status", "CONFIRMED")
+                        .param("size", "1")
+                        .param("cursor", PageCursor.ofId(5L).encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER,
+                        PageCursor.ofId(participationRequestDto.getId()).encode()));
+
+        Mockito.verify(participationRequestService).getAllByEventAndInitiator(1L, 1L, ParticipationRequestStatus.CONFIRMED,
+                0, 1, PageCursor.ofId(5L));
     }
 
     @Test
@@ -193,4 +217,31 @@ class SecuredEventControllerTest {
 
         Mockito.verify(participationRequestService).updateStatus(eq(1L), eq(1L), any(EventRequestStatusUpdateRequest.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void submitRequestJobShouldReturnAcceptedJob() throws Exception {
+        Mockito.when(moderationJobService.submit(anyLong(), anyLong(), any(EventRequestStatusUpdateRequest.class)))
+                .thenReturn(ModerationJobDto.builder().id(7L).event(1L).state(ModerationJobState.QUEUED).total(1L).build());
+
+        mockMvc.perform(post("/users/{userId}/events/{eventId}/requests/jobs", 1L, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(statusUpdateRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(7L))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+
+        Mockito.verify(moderationJobService).submit(eq(1L), eq(1L), any(EventRequestStatusUpdateRequest.class));
+    }
+
+    @Test
+    void getRequestJobShouldReturnJobProgress() throws Exception {
+        Mockito.when(moderationJobService.findById(1L, 1L, 7L))
+                .thenReturn(ModerationJobDto.builder().id(7L).event(1L).state(ModerationJobState.RUNNING)
+                        .total(10L).processed(4L).build());
+
+        mockMvc.perform(get("/users/{userId}/events/{eventId}/requests/jobs/{jobId}", 1L, 1L, 7L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.processed").value(4L));
+    }
+}
@@ -9,13 +9,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.core.exception.RateLimitExceededException;
 import ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto;
 import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
 import ru.practicum.core.service.ParticipationRequestService;
+import ru.practicum.core.service.admission.RegistrationRateLimiter;
+import ru.practicum.core.utils.PageCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,6 +38,9 @@ class SecuredParticipationRequestControllerTest {
     @MockBean
     private ParticipationRequestService participationRequestService;
 
+    @MockBean
+    private RegistrationRateLimiter registrationRateLimiter;
+
     private ParticipationRequestDto requestDto;
 
     @BeforeEach
@@ -46,7 +54,7 @@ class SecuredParticipationRequestControllerTest {
 
     @Test
     void getAllRequestsShouldReturnRequests() throws Exception {
-        Mockito.when(participationRequestService.getAllByUser(anyLong()))
+        Mockito.when(participationRequestService.getAllByUser(anyLong(), any(), any(), any(), any()))
                 .thenReturn(List.of(requestDto));
 
         mockMvc.perform(get("/users/{userId}/requests", 1L))
@@ -55,7 +63,23 @@ class SecuredParticipationRequestControllerTest {
                 .andExpect(jsonPath("$[0].id").value(requestDto.getId()))
                 .andExpect(jsonPath("$[0].status").value(requestDto.getStatus().toString()));
 
-        Mockito.verify(participationRequestService).getAllByUser(1L);
+        Mockito.verify(participationRequestService).getAllByUser(1L, null, 0, null, null);
+    }
+
+    @Test
+    void getAllRequestsWithStatusAndSizeShouldReturnNextCursor() throws Exception {
+        requestDto.setCreated(LocalDateTime.of(2026, 5, 1, 12, 0));
+        Mockito.when(participationRequestService.getAllByUser(anyLong(), any(), any(), any(), any()))
+                .thenReturn(List.of(requestDto));
+
+        mockMvc.perform(get("/users/{userId}/requests", 1L)
+                        .param("status", "PENDING")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER,
+                        PageCursor.of(requestDto.getCreated(), requestDto.getId()).encode()));
+
+        Mockito.verify(participationRequestService).getAllByUser(1L, ParticipationRequestStatus.PENDING, 0, 1, null);
     }
 
     @Test
@@ -71,6 +95,19 @@ class SecuredParticipationRequestControllerTest {
         Mockito.verify(participationRequestService).create(1L, 1L);
     }
 
+    @Test
+    void createRequestOverRateLimitShouldReturnTooManyRequests() throws Exception {
+        Mockito.doThrow(new RateLimitExceededException("Слишком частые заявки пользователя с id=1", 2))
+                .when(registrationRateLimiter).acquire(1L, 1L);
+
+        mockMvc.perform(post("/users/{userId}/requests", 1L)
+                        .param("eventId", "1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"));
+
+        Mockito.verifyNoInteractions(participationRequestService);
+    }
+
     @Test
     void createRequestWithoutEventIdShouldReturnBadRequest() throws Exception {
         mockMvc.perform(post("/users/{userId}/requests", 1L))
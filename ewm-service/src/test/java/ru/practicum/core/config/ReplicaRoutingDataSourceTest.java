@@ -0,0 +1,115 @@
+package ru.practicum.core.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = h2("routing-primary");
+    private final DataSource replica = h2("routing-replica");
+    private final JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+
+    @BeforeEach
+    void setUp() {
+        replicaJdbc.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE)");
+        replicaJdbc.update("DELETE FROM replica_lag");
+        replicaJdbc.update("INSERT INTO replica_lag VALUES (0)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransactionsShouldBeRoutedToHealthyReplica() {
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-0", replica));
+        routing.checkReplicas();
+
+        assertEquals("ROUTING-PRIMARY", database(routing));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("ROUTING-REPLICA", database(routing));
+    }
+
+    @Test
+    void laggingReplicaShouldBeExcludedUntilItCatchesUp() {
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-0", replica));
+        replicaJdbc.update("UPDATE replica_lag SET seconds = 30");
+        routing.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(Set.of(), routing.getHealthyReplicas());
+        assertEquals("ROUTING-PRIMARY", database(routing));
+
+        replicaJdbc.update("UPDATE replica_lag SET seconds = 1");
+        routing.checkReplicas();
+        assertEquals("ROUTING-REPLICA", database(routing));
+    }
+
+    @Test
+    void unavailableReplicaShouldFallBackToPrimary() {
+        FailingDataSource failing = new FailingDataSource(replica);
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-0", failing));
+        routing.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        failing.failing = true;
+
+        assertEquals("ROUTING-PRIMARY", database(routing));
+        assertEquals(Set.of(), routing.getHealthyReplicas());
+
+        routing.checkReplicas();
+        assertEquals(Set.of(), routing.getHealthyReplicas());
+        failing.failing = false;
+        routing.checkReplicas();
+        assertEquals("ROUTING-REPLICA", database(routing));
+    }
+
+    @Test
+    void replicasShouldNotServeReadsBeforeFirstLagCheck() {
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-0", replica));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("ROUTING-PRIMARY", database(routing));
+    }
+
+    private ReplicaRoutingDataSource routing(Map<String, DataSource> replicas) {
+        return new ReplicaRoutingDataSource(primary, replicas, "SELECT seconds FROM replica_lag", 5);
+    }
+
+    private String database(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static class FailingDataSource extends DelegatingDataSource {
+        private volatile boolean failing;
+
+        FailingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (failing) {
+                throw new SQLException("Реплика недоступна");
+            }
+            return super.getConnection();
+        }
+    }
+}
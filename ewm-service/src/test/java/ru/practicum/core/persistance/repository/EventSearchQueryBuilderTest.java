@@ -0,0 +1,245 @@
+package ru.practicum.core.persistance.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchAdmin;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchOrder;
+import ru.practicum.core.persistance.model.dto.event.filter.GeoBox;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.utils.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSearchQueryBuilderTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private static final String UPCOMING_SELECT = "SELECT new ru.practicum.core.persistance.model.dto.event.EventShortView(" +
+            EventRepository.SHORT_VIEW_COLUMNS + ") FROM upcoming_events e LEFT JOIN e.category c LEFT JOIN e.initiator u";
+
+    private EventSearchQueryBuilder builder;
+
+    @BeforeEach
+    void setUp() {
+        builder = new EventSearchQueryBuilder();
+    }
+
+    @Test
+    void commonWithoutFiltersShouldSearchFutureEventsOnly() {
+        EventSearchQuery query = builder.common(common().build(), NOW);
+
+        assertEquals(UPCOMING_SELECT + " WHERE e.eventDate > :currentTime " +
+                "ORDER BY e.eventDate ASC, e.id ASC", query.getJpql());
+        assertEquals(Map.of("currentTime", NOW), query.getParameters());
+        assertEquals(0, query.getFirstResult());
+        assertEquals(10, query.getMaxResults());
+    }
+
+    @Test
+    void commonWithAllFiltersShouldEmitEveryPredicate() {
+        LocalDateTime rangeStart = NOW.plusDays(1);
+        LocalDateTime rangeEnd = NOW.plusDays(2);
+        EventSearchQuery query = builder.common(common()
+                .text("Концерт")
+                .paid(true)
+                .categories(List.of(1L, 2L))
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .onlyAvailable(true)
+                .build(), NOW);
+
+        assertEquals(UPCOMING_SELECT + " WHERE " +
+                "(LOWER(e.annotation) LIKE :text OR LOWER(e.description) LIKE :text OR LOWER(e.title) LIKE :text) " +
+                "AND e.paid = :paid " +
+                "AND e.category.id IN :categories " +
+                "AND e.eventDate >= :rangeStart " +
+                "AND e.eventDate <= :rangeEnd " +
+                "AND e.available = true " +
+                "ORDER BY e.eventDate ASC, e.id ASC", query.getJpql());
+        assertEquals("%концерт%", query.getParameters().get("text"));
+        assertEquals(rangeStart, query.getParameters().get("rangeStart"));
+        assertEquals(rangeEnd, query.getParameters().get("rangeEnd"));
+        assertFalse(query.getParameters().containsKey("currentTime"));
+    }
+
+    @Test
+    void commonWithRangeEndOnlyShouldNotAddCurrentTime() {
+        EventSearchQuery query = builder.common(common().rangeEnd(NOW.plusDays(1)).build(), NOW);
+
+        assertEquals(EventRepository.SHORT_VIEW_SELECT + " WHERE e.state = :state AND e.eventDate <= :rangeEnd " +
+                "ORDER BY e.eventDate ASC, e.id ASC", query.getJpql());
+    }
+
+    @Test
+    void commonWithPastRangeStartShouldSearchWholeEventsTable() {
+        EventSearchQuery query = builder.common(common().rangeStart(NOW.minusDays(1)).build(), NOW);
+
+        assertEquals(EventRepository.SHORT_VIEW_SELECT + " WHERE e.state = :state AND e.eventDate >= :rangeStart " +
+                "ORDER BY e.eventDate ASC, e.id ASC", query.getJpql());
+        assertEquals(EventState.PUBLISHED, query.getParameters().get("state"));
+    }
+
+    @Test
+    void commonSortedByViewsWithCursorShouldSeekByViews() {
+        EventSearchQuery query = builder.common(common()
+                .sort(EventSearchOrder.VIEWS)
+                .cursor(PageCursor.of(15L, 7L))
+                .from(30)
+                .build(), NOW);
+
+        assertEquals(UPCOMING_SELECT + " WHERE e.eventDate > :currentTime " +
+                "AND (COALESCE(e.views, 0) < :cursorViews OR (COALESCE(e.views, 0) = :cursorViews AND e.id > :cursorId)) " +
+                "ORDER BY COALESCE(e.views, 0) DESC, e.id ASC", query.getJpql());
+        assertEquals(15L, query.getParameters().get("cursorViews"));
+        assertEquals(7L, query.getParameters().get("cursorId"));
+        assertEquals(0, query.getFirstResult());
+    }
+
+    @Test
+    void commonSortedByDateWithCursorShouldSeekByDate() {
+        LocalDateTime cursorDate = NOW.plusDays(3);
+        EventSearchQuery query = builder.common(common().cursor(PageCursor.of(cursorDate, 4L)).build(), NOW);
+
+        assertEquals(UPCOMING_SELECT + " WHERE e.eventDate > :currentTime " +
+                "AND (e.eventDate > :cursorDate OR (e.eventDate = :cursorDate AND e.id > :cursorId)) " +
+                "ORDER BY e.eventDate ASC, e.id ASC", query.getJpql());
+        assertEquals(cursorDate, query.getParameters().get("cursorDate"));
+    }
+
+    @Test
+    void commonWithRadiusShouldUseGeohashRangesAndExactDistanceFilter() {
+        EventSearchQuery query = builder.common(common()
+                .lat(55.754167)
+                .lon(37.62)
+                .radius(5.0)
+                .sort(EventSearchOrder.DISTANCE)
+                .build(), NOW);
+
+        String distance = "(:sinLat * SIN(RADIANS(e.lat)) + :cosLat * COS(RADIANS(e.lat)) * COS(RADIANS(e.lon) - :lonRad))";
+        assertTrue(query.getJpql().startsWith(UPCOMING_SELECT
+                + " WHERE e.eventDate > :currentTime AND (e.geohash >= :cellFrom0 AND e.geohash < :cellTo0"));
+        assertTrue(query.getJpql().endsWith(" AND " + distance + " >= :cosRadius ORDER BY " + distance + " DESC, e.id ASC"));
+        assertEquals(Math.cos(5.0 / 6371.0088), (double) query.getParameters().get("cosRadius"), 1e-12);
+        assertTrue(query.getParameters().get("cellFrom0").toString().startsWith("ucf"));
+    }
+
+    @Test
+    void commonWithBoxShouldFilterByCoordinatesInsideCoveringCells() {
+        EventSearchQuery query = builder.common(common()
+                .box(GeoBox.parse("30.2,59.9,30.4,60.0"))
+                .build(), NOW);
+
+        assertTrue(query.getJpql().contains("e.geohash >= :cellFrom0"));
+        assertTrue(query.getJpql().endsWith(" AND e.lat BETWEEN :minLat AND :maxLat AND e.lon BETWEEN :minLon AND :maxLon " +
+                "ORDER BY e.eventDate ASC, e.id ASC"));
+        assertEquals(59.9, query.getParameters().get("minLat"));
+        assertEquals(30.4, query.getParameters().get("maxLon"));
+    }
+
+    @Test
+    void clustersShouldGroupByGeohashPrefixOfRequestedPrecision() {
+        EventSearchQuery query = builder.clusters(EventSearchCommon.builder()
+                .paid(true)
+                .box(GeoBox.parse("37.5,55.7,37.7,55.8"))
+                .build(), 5, NOW);
+
+        assertTrue(query.getJpql().startsWith("SELECT new ru.practicum.core.persistance.model.dto.event.EventClusterDto(" +
+                "SUBSTRING(e.geohash, 1, 5), COUNT(e), AVG(e.lat), AVG(e.lon)) FROM upcoming_events e " +
+                "WHERE e.paid = :paid AND e.eventDate > :currentTime AND "));
+        assertTrue(query.getJpql().endsWith(" GROUP BY SUBSTRING(e.geohash, 1, 5) ORDER BY SUBSTRING(e.geohash, 1, 5)"));
+        assertNull(query.getMaxResults());
+    }
+
+    @Test
+    void facetsShouldGroupByCategoryPaidAndAvailabilityWithoutPaging() {
+        EventSearchQuery query = builder.facets(EventSearchCommon.builder()
+                .text("Концерт")
+                .from(10)
+                .size(5)
+                .build(), NOW);
+
+        assertEquals("SELECT new ru.practicum.core.persistance.model.dto.event.EventFacetRow(" +
+                "e.category.id, e.paid, e.available, COUNT(e)) FROM upcoming_events e WHERE " +
+                "(LOWER(e.annotation) LIKE :text OR LOWER(e.description) LIKE :text OR LOWER(e.title) LIKE :text) " +
+                "AND e.eventDate > :currentTime GROUP BY e.category.id, e.paid, e.available", query.getJpql());
+        assertNull(query.getFirstResult());
+        assertNull(query.getMaxResults());
+    }
+
+    @Test
+    void adminExportShouldFetchAssociationsAndIgnorePaging() {
+        EventSearchQuery query = builder.adminExport(EventSearchAdmin.builder()
+                .states(List.of("PUBLISHED"))
+                .from(10)
+                .size(5)
+                .build());
+
+        assertEquals("SELECT e FROM events e LEFT JOIN FETCH e.category LEFT JOIN FETCH e.initiator " +
+                "WHERE e.state IN :states ORDER BY e.id ASC", query.getJpql());
+        assertNull(query.getFirstResult());
+        assertNull(query.getMaxResults());
+    }
+
+    @Test
+    void adminWithoutFiltersShouldHaveNoWhereClause() {
+        EventSearchQuery query = builder.admin(EventSearchAdmin.builder().build());
+
+        assertEquals("SELECT e FROM events e ORDER BY e.eventDate DESC, e.id DESC", query.getJpql());
+        assertTrue(query.getParameters().isEmpty());
+        assertNull(query.getFirstResult());
+        assertNull(query.getMaxResults());
+    }
+
+    @Test
+    void adminWithFiltersShouldEmitOnlyRequestedPredicates() {
+        EventSearchQuery query = builder.admin(EventSearchAdmin.builder()
+                .users(List.of(1L))
+                .states(List.of("PUBLISHED", "PENDING"))
+                .categories(List.of())
+                .cursor(PageCursor.of(NOW, 9L))
+                .size(20)
+                .build());
+
+        assertEquals("SELECT e FROM events e WHERE e.initiator.id IN :users AND e.state IN :states " +
+                "AND (e.eventDate < :cursorDate OR (e.eventDate = :cursorDate AND e.id < :cursorId)) " +
+                "ORDER BY e.eventDate DESC, e.id DESC", query.getJpql());
+        assertEquals(List.of(EventState.PUBLISHED, EventState.PENDING), query.getParameters().get("states"));
+        assertEquals(20, query.getMaxResults());
+    }
+
+    @Test
+    void sameShapeShouldReuseCachedQueryText() {
+        EventSearchQuery first = builder.common(common().paid(true).categories(List.of(1L)).build(), NOW);
+        EventSearchQuery second = builder.common(common().paid(false).categories(List.of(2L, 3L)).build(), NOW);
+        builder.common(common().sort(EventSearchOrder.VIEWS).paid(true).categories(List.of(1L)).build(), NOW);
+
+        assertSame(first.getJpql(), second.getJpql());
+        assertEquals(2, builder.cachedShapes());
+    }
+
+    @Test
+    void leastRecentlyUsedShapeShouldBeEvictedWhenFull() {
+        EventSearchQueryBuilder bounded = new EventSearchQueryBuilder(2);
+        EventSearchCommon search = common().build();
+        String first = bounded.clusters(search, 3, NOW).getJpql();
+        String second = bounded.clusters(search, 4, NOW).getJpql();
+        assertSame(first, bounded.clusters(search, 3, NOW).getJpql());
+
+        bounded.clusters(search, 5, NOW);
+
+        assertEquals(2, bounded.cachedShapes());
+        assertSame(first, bounded.clusters(search, 3, NOW).getJpql());
+        assertNotSame(second, bounded.clusters(search, 4, NOW).getJpql());
+    }
+
+    private EventSearchCommon.EventSearchCommonBuilder common() {
+        return EventSearchCommon.builder()
+                .onlyAvailable(false)
+                .sort(EventSearchOrder.EVENT_DATE)
+                .from(0)
+                .size(10);
+    }
+}
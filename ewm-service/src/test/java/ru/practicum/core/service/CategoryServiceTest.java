@@ -6,14 +6,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.core.exception.ConditionsNotMetException;
 import ru.practicum.core.exception.NotFoundException;
 import ru.practicum.core.persistance.model.Category;
-import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.CategoryEventCounter;
 import ru.practicum.core.persistance.model.dto.category.CategoryDto;
 import ru.practicum.core.persistance.model.dto.category.NewCategoryDto;
+import ru.practicum.core.persistance.repository.CategoryEventCounterRepository;
 import ru.practicum.core.persistance.repository.CategoryRepository;
 import ru.practicum.core.persistance.repository.EventRepository;
+import ru.practicum.core.service.category.CategoryCatalog;
+import ru.practicum.core.service.category.CategoryChangedEvent;
 import ru.practicum.core.service.impl.CategoryServiceImpl;
 
 import java.util.List;
@@ -32,6 +36,15 @@ class CategoryServiceTest {
     @Mock
     private EventRepository eventRepository;
 
+    @Mock
+    private CategoryEventCounterRepository categoryEventCounterRepository;
+
+    @Mock
+    private CategoryCatalog categoryCatalog;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -55,37 +68,52 @@ class CategoryServiceTest {
 
     @Test
     void getAllShouldReturnListOfCategories() {
-        when(categoryRepository.findCategories(0, 10)).thenReturn(List.of(category));
+        when(categoryCatalog.findAll(0, 10)).thenReturn(List.of(categoryDto));
 
-        List<CategoryDto> result = categoryService.getAll(0, 10);
+        List<CategoryDto> result = categoryService.getAll(0, 10, false);
 
         assertEquals(1, result.size());
         assertEquals(categoryDto.getId(), result.getFirst().getId());
         assertEquals(categoryDto.getName(), result.getFirst().getName());
-        verify(categoryRepository).findCategories(0, 10);
+        assertNull(result.getFirst().getUpcomingEvents());
+        verify(categoryCatalog).findAll(0, 10);
+        verifyNoInteractions(categoryRepository, categoryEventCounterRepository);
+    }
+
+    @Test
+    void getAllWithCountsShouldAttachUpcomingEventCounters() {
+        when(categoryCatalog.findAll(0, 10)).thenReturn(List.of(categoryDto));
+        when(categoryEventCounterRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(new CategoryEventCounter(1L, 5L, 3L)));
+
+        List<CategoryDto> result = categoryService.getAll(0, 10, true);
+
+        assertEquals(3L, result.getFirst().getUpcomingEvents());
+        assertNull(categoryDto.getUpcomingEvents());
+        verifyNoInteractions(eventRepository);
     }
 
     @Test
     void getByIdWhenExistsShouldReturnCategory() {
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryCatalog.findById(1L)).thenReturn(Optional.of(categoryDto));
 
         CategoryDto result = categoryService.getById(1L);
 
         assertEquals(categoryDto.getId(), result.getId());
         assertEquals(categoryDto.getName(), result.getName());
-        verify(categoryRepository).findById(1L);
+        verify(categoryCatalog).findById(1L);
     }
 
     @Test
     void getByIdWhenNotExistsShouldThrowNotFoundException() {
-        when(categoryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(categoryCatalog.findById(999L)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
                 () -> categoryService.getById(999L)
         );
         assertEquals("Категория с id=999 не найдена", exception.getMessage());
-        verify(categoryRepository).findById(999L);
+        verify(categoryCatalog).findById(999L);
     }
 
     @Test
@@ -99,6 +127,7 @@ class CategoryServiceTest {
         assertEquals(categoryDto.getName(), result.getName());
         verify(categoryRepository).findByNameIgnoreCase("Концерты");
         verify(categoryRepository).saveAndFlush(any(Category.class));
+        verify(eventPublisher).publishEvent(any(CategoryChangedEvent.class));
     }
 
     @Test
@@ -171,13 +200,15 @@ class CategoryServiceTest {
     @Test
     void deleteWhenValidShouldDeleteCategory() {
         when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
-        when(eventRepository.findAllByCategoryId(1L)).thenReturn(List.of());
+        when(categoryEventCounterRepository.findById(1L))
+                .thenReturn(Optional.of(new CategoryEventCounter(1L, 0L, 0L)));
+        when(eventRepository.existsByCategoryId(1L)).thenReturn(false);
 
         categoryService.delete(1L);
 
         verify(categoryRepository).findById(1L);
-        verify(eventRepository).findAllByCategoryId(1L);
         verify(categoryRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(any(CategoryChangedEvent.class));
     }
 
     @Test
@@ -196,7 +227,8 @@ class CategoryServiceTest {
     @Test
     void deleteWhenCategoryHasEventsShouldThrowConditionsNotMetException() {
         when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
-        when(eventRepository.findAllByCategoryId(1L)).thenReturn(List.of(new Event()));
+        when(categoryEventCounterRepository.findById(1L))
+                .thenReturn(Optional.of(new CategoryEventCounter(1L, 2L, 0L)));
 
         ConditionsNotMetException exception = assertThrows(
                 ConditionsNotMetException.class,
@@ -204,7 +236,37 @@ class CategoryServiceTest {
         );
         assertEquals("Удаление категории невозможно, так как она используется в событиях", exception.getMessage());
         verify(categoryRepository).findById(1L);
-        verify(eventRepository).findAllByCategoryId(1L);
+        verify(categoryRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    void deleteWhenCounterDriftedToZeroShouldStillRejectCategoryWithEvents() {
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryEventCounterRepository.findById(1L))
+                .thenReturn(Optional.of(new CategoryEventCounter(1L, 0L, 0L)));
+        when(eventRepository.existsByCategoryId(1L)).thenReturn(true);
+
+        assertThrows(ConditionsNotMetException.class, () -> categoryService.delete(1L));
+        verify(categoryRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    void deleteWhenCounterHasEventsShouldNotQueryEvents() {
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryEventCounterRepository.findById(1L))
+                .thenReturn(Optional.of(new CategoryEventCounter(1L, 1L, 0L)));
+
+        assertThrows(ConditionsNotMetException.class, () -> categoryService.delete(1L));
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void deleteWithoutCounterShouldFallBackToExistenceCheck() {
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryEventCounterRepository.findById(1L)).thenReturn(Optional.empty());
+        when(eventRepository.existsByCategoryId(1L)).thenReturn(true);
+
+        assertThrows(ConditionsNotMetException.class, () -> categoryService.delete(1L));
         verify(categoryRepository, never()).deleteById(anyLong());
     }
 
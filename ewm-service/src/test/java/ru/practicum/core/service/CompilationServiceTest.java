@@ -5,15 +5,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.core.exception.ConditionsNotMetException;
 import ru.practicum.core.exception.NotFoundException;
 import ru.practicum.core.persistance.model.*;
 import ru.practicum.core.persistance.model.dto.compilation.CompilationDto;
+import ru.practicum.core.persistance.model.dto.compilation.CompilationEventView;
 import ru.practicum.core.persistance.model.dto.compilation.NewCompilationDto;
 import ru.practicum.core.persistance.model.dto.compilation.UpdateCompilationRequest;
 import ru.practicum.core.persistance.model.dto.event.state.EventState;
 import ru.practicum.core.persistance.repository.CompilationRepository;
 import ru.practicum.core.persistance.repository.EventRepository;
+import ru.practicum.core.service.compilation.CompilationChangedEvent;
+import ru.practicum.core.service.compilation.CompilationSnapshotCache;
 import ru.practicum.core.service.impl.CompilationServiceImpl;
 
 import java.time.LocalDateTime;
@@ -35,6 +39,12 @@ class CompilationServiceTest {
     @Mock
     private EventRepository eventRepository;
 
+    @Mock
+    private CompilationSnapshotCache snapshotCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CompilationServiceImpl compilationService;
 
@@ -75,15 +85,24 @@ class CompilationServiceTest {
         return compilation;
     }
 
+    private CompilationEventView createCompilationEventView(Long compilationId, Event event) {
+        return new CompilationEventView(compilationId, event.getId(), event.getAnnotation(),
+                event.getCategory().getId(), event.getCategory().getName(), event.getConfirmedRequests(),
+                event.getEventDate(), event.getInitiator().getId(), event.getInitiator().getName(),
+                event.getPaid(), event.getTitle(), event.getViews());
+    }
+
     @Test
     void findAllShouldReturnListOfCompilations() {
         Event event = createTestEvent(1L);
         Compilation compilation = createTestCompilation(1L, "Test Compilation", true, Set.of(event));
 
-        when(compilationRepository.findCompilations(any(), any(), any()))
+        when(compilationRepository.findCompilations(any(), any(), any(), any()))
                 .thenReturn(List.of(compilation));
+        when(compilationRepository.findCompilationEvents(List.of(1L)))
+                .thenReturn(List.of(createCompilationEventView(1L, event)));
 
-        List<CompilationDto> result = compilationService.findAll(true, 0, 10);
+        List<CompilationDto> result = compilationService.findAll(true, 0, 10, null);
 
         assertEquals(1, result.size());
         assertEquals("Test Compilation", result.getFirst().getTitle());
@@ -97,6 +116,8 @@ class CompilationServiceTest {
         Compilation compilation = createTestCompilation(1L, "Test Compilation", false, Set.of(event));
 
         when(compilationRepository.findById(1L)).thenReturn(Optional.of(compilation));
+        when(compilationRepository.findCompilationEvents(List.of(1L)))
+                .thenReturn(List.of(createCompilationEventView(1L, event)));
 
         CompilationDto result = compilationService.findById(1L);
 
@@ -125,7 +146,13 @@ class CompilationServiceTest {
 
         when(compilationRepository.findByTitleIgnoreCase("New Compilation")).thenReturn(Collections.emptyList());
         when(eventRepository.findAllByIdIn(any())).thenReturn(List.of(event1, event2));
-        when(compilationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(compilationRepository.save(any())).thenAnswer(invocation -> {
+            Compilation saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+        when(compilationRepository.findCompilationEvents(List.of(1L)))
+                .thenReturn(List.of(createCompilationEventView(1L, event1), createCompilationEventView(1L, event2)));
 
         CompilationDto result = compilationService.create(newCompilationDto);
 
@@ -164,6 +191,8 @@ class CompilationServiceTest {
         when(compilationRepository.findByTitleIgnoreCase("New Title")).thenReturn(Collections.emptyList());
         when(eventRepository.findAllByIdIn(any())).thenReturn(List.of(newEvent));
         when(compilationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(compilationRepository.findCompilationEvents(List.of(1L)))
+                .thenReturn(List.of(createCompilationEventView(1L, newEvent)));
 
         CompilationDto result = compilationService.update(1L, updateRequest);
 
@@ -211,6 +240,7 @@ class CompilationServiceTest {
         compilationService.delete(1L);
 
         verify(compilationRepository, times(1)).deleteById(1L);
+        verify(eventPublisher).publishEvent(any(CompilationChangedEvent.class));
     }
 
     @Test
@@ -6,25 +6,38 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.client.StatsClient;
 import ru.practicum.core.exception.ConditionsNotMetException;
 import ru.practicum.core.exception.DateValidationException;
+import ru.practicum.core.exception.GeoValidationException;
 import ru.practicum.core.exception.NotFoundException;
 import ru.practicum.core.persistance.model.*;
 import ru.practicum.core.persistance.model.dto.event.*;
 import ru.practicum.core.persistance.model.dto.event.filter.EventSearchAdmin;
 import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchOrder;
+import ru.practicum.core.persistance.model.dto.event.filter.GeoBox;
 import ru.practicum.core.persistance.model.dto.event.state.EventAdminStateAction;
 import ru.practicum.core.persistance.model.dto.event.state.EventState;
 import ru.practicum.core.persistance.model.dto.event.state.EventUserStateAction;
-import ru.practicum.core.persistance.repository.CategoryRepository;
+import ru.practicum.core.persistance.model.mapper.CategoryMapper;
 import ru.practicum.core.persistance.repository.EventRepository;
 import ru.practicum.core.persistance.repository.UserRepository;
+import ru.practicum.core.service.category.CategoryCatalog;
+import ru.practicum.core.service.event.EventChangedEvent;
 import ru.practicum.core.service.impl.EventServiceImpl;
+import ru.practicum.core.service.search.EventSearchCache;
+import ru.practicum.core.service.event.EventExportWriter;
+import ru.practicum.core.service.event.EventViewsChangedEvent;
+import ru.practicum.core.service.search.EventPopularityRanking;
+import ru.practicum.core.service.search.EventSearchIndex;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -37,7 +50,7 @@ class EventServiceTest {
     private EventRepository eventRepository;
 
     @Mock
-    private CategoryRepository categoryRepository;
+    private CategoryCatalog categoryCatalog;
 
     @Mock
     private UserRepository userRepository;
@@ -45,6 +58,21 @@ class EventServiceTest {
     @Mock
     private StatsClient statsClient;
 
+    @Mock
+    private EventSearchIndex eventSearchIndex;
+
+    @Mock
+    private EventPopularityRanking eventPopularityRanking;
+
+    @Mock
+    private EventSearchCache eventSearchCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EventExportWriter eventExportWriter;
+
     @InjectMocks
     private EventServiceImpl eventService;
 
@@ -57,6 +85,9 @@ class EventServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(eventSearchCache.get(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<List<EventShortDto>>>getArgument(1).get());
+
         user = new User();
         user.setId(1L);
         user.setName("Test User");
@@ -104,14 +135,14 @@ class EventServiceTest {
 
     @Test
     void findByUserIdShouldReturnEventShortDtoList() {
-        when(eventRepository.findAllByInitiatorId(anyLong(), anyInt(), anyInt()))
-                .thenReturn(List.of(event));
+        when(eventRepository.findAllByInitiatorId(anyLong(), anyInt(), anyInt(), isNull()))
+                .thenReturn(List.of(shortView(event)));
 
-        List<EventShortDto> result = eventService.findByUserId(1L, 0, 10);
+        List<EventShortDto> result = eventService.findByUserId(1L, 0, 10, null);
 
         assertEquals(1, result.size());
         assertEquals(event.getTitle(), result.getFirst().getTitle());
-        verify(eventRepository).findAllByInitiatorId(1L, 0, 10);
+        verify(eventRepository).findAllByInitiatorId(1L, 0, 10, null);
     }
 
     @Test
@@ -147,7 +178,7 @@ class EventServiceTest {
     @Test
     void searchCommonShouldReturnEventShortDtoList() {
         EventSearchCommon search = new EventSearchCommon();
-        when(eventRepository.findCommonEventsByFilters(search)).thenReturn(List.of(event));
+        when(eventRepository.findCommonEventsByFilters(search)).thenReturn(List.of(shortView(event)));
 
         List<EventShortDto> result = eventService.searchCommon(search);
 
@@ -156,6 +187,68 @@ class EventServiceTest {
         verify(eventRepository).findCommonEventsByFilters(search);
     }
 
+    @Test
+    void searchCommonWhenIndexSupportsSearchShouldLoadEventsInIndexOrder() {
+        EventSearchCommon search = new EventSearchCommon();
+        Event second = new Event();
+        second.setId(2L);
+        second.setTitle("Second Event");
+        second.setCategory(category);
+        second.setInitiator(user);
+        when(eventSearchIndex.search(search)).thenReturn(Optional.of(List.of(2L, 1L)));
+        when(eventRepository.findShortViewsByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(shortView(event), shortView(second)));
+
+        List<EventShortDto> result = eventService.searchCommon(search);
+
+        assertEquals(List.of(2L, 1L), result.stream().map(EventShortDto::getId).toList());
+        verify(eventRepository, never()).findCommonEventsByFilters(any());
+    }
+
+    @Test
+    void searchCommonWhenRankingSupportsSearchShouldLoadEventsInRankingOrder() {
+        EventSearchCommon search = EventSearchCommon.builder().sort(EventSearchOrder.VIEWS).build();
+        when(eventSearchIndex.search(search)).thenReturn(Optional.empty());
+        when(eventPopularityRanking.search(search)).thenReturn(Optional.of(List.of(1L)));
+        when(eventRepository.findShortViewsByIdIn(List.of(1L))).thenReturn(List.of(shortView(event)));
+
+        List<EventShortDto> result = eventService.searchCommon(search);
+
+        assertEquals(List.of(1L), result.stream().map(EventShortDto::getId).toList());
+        verify(eventRepository, never()).findCommonEventsByFilters(any());
+    }
+
+    @Test
+    void findFacetsShouldRollUpGroupedCountsPerDimension() {
+        EventSearchCommon search = new EventSearchCommon();
+        when(eventRepository.findEventFacets(search)).thenReturn(List.of(
+                new EventFacetRow(1L, true, true, 2L),
+                new EventFacetRow(1L, false, false, 1L),
+                new EventFacetRow(2L, false, true, 4L)));
+
+        EventFacetsDto facets = eventService.findFacets(search);
+
+        assertEquals(7L, facets.getTotal());
+        assertEquals(Map.of(1L, 3L, 2L, 4L), facets.getCategories());
+        assertEquals(Map.of(true, 2L, false, 5L), facets.getPaid());
+        assertEquals(Map.of(true, 6L, false, 1L), facets.getAvailable());
+    }
+
+    @Test
+    void findClustersShouldMapZoomToGeohashPrecision() {
+        EventSearchCommon search = EventSearchCommon.builder().box(GeoBox.parse("37.5,55.7,37.7,55.8")).build();
+        EventClusterDto cluster = new EventClusterDto("ucfv0", 2L, 55.75, 37.62);
+        when(eventRepository.findEventClusters(search, 5)).thenReturn(List.of(cluster));
+
+        assertEquals(List.of(cluster), eventService.findClusters(search, 10));
+    }
+
+    @Test
+    void findClustersWithoutBoxShouldThrowGeoValidationException() {
+        assertThrows(GeoValidationException.class, () -> eventService.findClusters(new EventSearchCommon(), 10));
+        verify(eventRepository, never()).findEventClusters(any(), anyInt());
+    }
+
     @Test
     void searchCommonWhenInvalidDateRangeShouldThrowDateValidationException() {
         EventSearchCommon search = new EventSearchCommon();
@@ -192,6 +285,20 @@ class EventServiceTest {
         verify(statsClient).getStats(anyString(), anyString(), anyList(), anyBoolean());
     }
 
+    @Test
+    void findByIdWhenViewsChangedShouldNotInvalidateSearchCaches() {
+        event.setState(EventState.PUBLISHED);
+        event.setViews(5L);
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(statsClient.getStats(anyString(), anyString(), anyList(), anyBoolean()))
+                .thenReturn(List.of());
+
+        eventService.findById(1L);
+
+        verify(eventPublisher).publishEvent(any(EventViewsChangedEvent.class));
+        verify(eventPublisher, never()).publishEvent(any(EventChangedEvent.class));
+    }
+
     @Test
     void findByIdWhenNotPublishedShouldThrowNotFoundException() {
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
@@ -202,14 +309,14 @@ class EventServiceTest {
     @Test
     void createWhenValidShouldReturnEventFullDto() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryCatalog.findById(1L)).thenReturn(Optional.of(CategoryMapper.categoryToDto(category)));
         when(eventRepository.save(any(Event.class))).thenReturn(event);
 
         EventFullDto result = eventService.create(1L, newEventDto);
 
         assertEquals(event.getTitle(), result.getTitle());
         verify(userRepository).findById(1L);
-        verify(categoryRepository).findById(1L);
+        verify(categoryCatalog).findById(1L);
         verify(eventRepository).save(any(Event.class));
     }
 
@@ -217,7 +324,7 @@ class EventServiceTest {
     void createWhenEventDateTooEarlyShouldThrowDateValidationException() {
         newEventDto.setEventDate(LocalDateTime.now().plusHours(1));
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryCatalog.findById(1L)).thenReturn(Optional.of(CategoryMapper.categoryToDto(category)));
 
         assertThrows(DateValidationException.class, () -> eventService.create(1L, newEventDto));
         verify(eventRepository, never()).save(any(Event.class));
@@ -234,13 +341,14 @@ class EventServiceTest {
         assertEquals(EventState.PUBLISHED, event.getState());
         verify(eventRepository).findById(1L);
         verify(eventRepository).save(event);
+        verify(eventPublisher).publishEvent(any(EventChangedEvent.class));
     }
 
     @Test
     void updateByAdminWhenCategoryNotExistsShouldThrowNotFoundException() {
         adminRequest.setCategory(999L);
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
-        when(categoryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(categoryCatalog.findById(999L)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -249,7 +357,7 @@ class EventServiceTest {
 
         assertEquals("Категория с id=999 не найдена", exception.getMessage());
         verify(eventRepository).findById(1L);
-        verify(categoryRepository).findById(999L);
+        verify(categoryCatalog).findById(999L);
         verify(eventRepository, never()).save(any());
     }
 
@@ -321,7 +429,7 @@ class EventServiceTest {
         userRequest.setCategory(999L);
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
-        when(categoryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(categoryCatalog.findById(999L)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -331,7 +439,7 @@ class EventServiceTest {
         assertEquals("Категория с id=999 не найдена", exception.getMessage());
         verify(userRepository).findById(1L);
         verify(eventRepository).findById(1L);
-        verify(categoryRepository).findById(999L);
+        verify(categoryCatalog).findById(999L);
         verify(eventRepository, never()).save(any());
     }
 
@@ -392,4 +500,11 @@ class EventServiceTest {
         verify(eventRepository).findById(1L);
         verify(eventRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    private EventShortView shortView(Event event) {
+        return new EventShortView(event.getId(), event.getAnnotation(), event.getCategory().getId(),
+                event.getCategory().getName(), event.getConfirmedRequests(), event.getEventDate(),
+                event.getInitiator().getId(), event.getInitiator().getName(), event.getPaid(), event.getTitle(),
+                event.getViews());
+    }
+}
@@ -6,15 +6,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.core.exception.ConditionsNotMetException;
 import ru.practicum.core.exception.NotFoundException;
 import ru.practicum.core.persistance.model.*;
 import ru.practicum.core.persistance.model.dto.event.state.EventState;
 import ru.practicum.core.persistance.model.dto.request.*;
+import ru.practicum.core.persistance.model.mapper.ParticipationRequestMapper;
 import ru.practicum.core.persistance.repository.EventRepository;
 import ru.practicum.core.persistance.repository.ParticipationRequestRepository;
 import ru.practicum.core.persistance.repository.UserRepository;
+import ru.practicum.core.service.event.HotEventCounters;
 import ru.practicum.core.service.impl.ParticipationRequestServiceImpl;
+import ru.practicum.core.utils.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,6 +27,8 @@ import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +43,12 @@ class ParticipationRequestServiceTest {
     @Mock
     private EventRepository eventRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HotEventCounters hotEventCounters;
+
     @InjectMocks
     private ParticipationRequestServiceImpl participationRequestService;
 
@@ -82,38 +94,42 @@ class ParticipationRequestServiceTest {
     @Test
     void getAllByUserShouldReturnRequests() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(participationRequestRepository.findAllByRequesterId(1L)).thenReturn(List.of(request));
+        when(participationRequestRepository.findPageByRequesterId(1L, ParticipationRequestStatus.PENDING, 0, 10, null))
+                .thenReturn(List.of(dto(request)));
 
-        List<ParticipationRequestDto> result = participationRequestService.getAllByUser(1L);
+        List<ParticipationRequestDto> result = participationRequestService.getAllByUser(1L,
+                ParticipationRequestStatus.PENDING, 0, 10, null);
 
         assertEquals(1, result.size());
         assertEquals(request.getId(), result.get(0).getId());
         verify(userRepository).findById(1L);
-        verify(participationRequestRepository).findAllByRequesterId(1L);
+        verify(participationRequestRepository).findPageByRequesterId(1L, ParticipationRequestStatus.PENDING, 0, 10, null);
     }
 
     @Test
     void getAllByUserWhenUserNotFoundShouldThrowNotFoundException() {
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(NotFoundException.class, () -> participationRequestService.getAllByUser(1L));
+        assertThrows(NotFoundException.class, () -> participationRequestService.getAllByUser(1L, null, 0, null, null));
         verify(userRepository).findById(1L);
-        verify(participationRequestRepository, never()).findAllByRequesterId(any());
+        verify(participationRequestRepository, never()).findPageByRequesterId(any(), any(), any(Integer.class), any(), any(PageCursor.class));
     }
 
     @Test
     void getAllByEventAndInitiatorShouldReturnRequests() {
         when(userRepository.findById(2L)).thenReturn(Optional.of(initiator));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
-        when(participationRequestRepository.findAllByEventId(1L)).thenReturn(List.of(request));
+        PageCursor cursor = PageCursor.ofId(0L);
+        when(participationRequestRepository.findPageByEventId(1L, null, 0, 10, cursor)).thenReturn(List.of(dto(request)));
 
-        List<ParticipationRequestDto> result = participationRequestService.getAllByEventAndInitiator(2L, 1L);
+        List<ParticipationRequestDto> result = participationRequestService.getAllByEventAndInitiator(2L, 1L,
+                null, 0, 10, cursor);
 
         assertEquals(1, result.size());
         assertEquals(request.getId(), result.get(0).getId());
         verify(userRepository).findById(2L);
         verify(eventRepository).findById(1L);
-        verify(participationRequestRepository).findAllByEventId(1L);
+        verify(participationRequestRepository).findPageByEventId(1L, null, 0, 10, cursor);
     }
 
     @Test
@@ -122,7 +138,7 @@ class ParticipationRequestServiceTest {
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
 
         assertThrows(ConditionsNotMetException.class,
-                () -> participationRequestService.getAllByEventAndInitiator(1L, 1L));
+                () -> participationRequestService.getAllByEventAndInitiator(1L, 1L, null, 0, null, null));
     }
 
     @Test
@@ -141,6 +157,44 @@ class ParticipationRequestServiceTest {
         verify(participationRequestRepository).save(any());
     }
 
+    @Test
+    void createWithoutModerationShouldConfirmThroughAtomicCounter() {
+        event.setRequestModeration(false);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(participationRequestRepository.findAllByEventIdAndRequesterId(1L, 1L)).thenReturn(List.of());
+        stubConfirmedRequestsCounter();
+        when(participationRequestRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ParticipationRequestDto result = participationRequestService.create(1L, 1L);
+
+        assertEquals(ParticipationRequestStatus.CONFIRMED, result.getStatus());
+        assertEquals(6L, event.getConfirmedRequests());
+        verify(eventRepository, never()).save(any());
+    }
+
+    @Test
+    void createWhenCounterRejectsConcurrentConfirmationShouldThrowConditionsNotMetException() {
+        event.setRequestModeration(false);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(participationRequestRepository.findAllByEventIdAndRequesterId(1L, 1L)).thenReturn(List.of());
+        when(eventRepository.addConfirmedRequests(event, 1)).thenReturn(false);
+
+        assertThrows(ConditionsNotMetException.class,
+                () -> participationRequestService.create(1L, 1L));
+        verify(participationRequestRepository, never()).save(any());
+    }
+
+    @Test
+    void createForFullHotEventShouldBeRejectedWithoutReadingEvent() {
+        when(hotEventCounters.isFull(1L)).thenReturn(true);
+
+        assertThrows(ConditionsNotMetException.class,
+                () -> participationRequestService.create(1L, 1L));
+        verifyNoInteractions(userRepository, eventRepository, participationRequestRepository);
+    }
+
     @Test
     void createWhenOwnEventShouldThrowConditionsNotMetException() {
         event.setInitiator(user);
@@ -184,9 +238,14 @@ class ParticipationRequestServiceTest {
 
     @Test
     void cancelShouldCancelRequest() {
+        request.setStatus(ParticipationRequestStatus.CONFIRMED);
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(participationRequestRepository.findById(1L)).thenReturn(Optional.of(request));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(eventRepository.removeConfirmedRequests(event, 1)).thenAnswer(invocation -> {
+            event.setConfirmedRequests(event.getConfirmedRequests() - 1);
+            return true;
+        });
         when(participationRequestRepository.save(any())).thenReturn(request);
 
         ParticipationRequestDto result = participationRequestService.cancel(1L, 1L);
@@ -196,6 +255,46 @@ class ParticipationRequestServiceTest {
         assertNotNull(result);
     }
 
+    @Test
+    void cancelConfirmedRequestShouldPromoteEarliestWaitingRequest() {
+        request.setStatus(ParticipationRequestStatus.CONFIRMED);
+        ParticipationRequest waiting = new ParticipationRequest();
+        waiting.setId(2L);
+        waiting.setRequester(initiator);
+        waiting.setEvent(event);
+        waiting.setStatus(ParticipationRequestStatus.WAITING);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(participationRequestRepository.findById(1L)).thenReturn(Optional.of(request));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(eventRepository.removeConfirmedRequests(event, 1)).thenReturn(true);
+        when(participationRequestRepository.findFirstByEventIdAndStatusOrderByIdAsc(1L, ParticipationRequestStatus.WAITING))
+                .thenReturn(Optional.of(waiting));
+        when(participationRequestRepository.updateStatusByIds(1L, List.of(2L),
+                ParticipationRequestStatus.WAITING, ParticipationRequestStatus.CONFIRMED)).thenReturn(1);
+        when(eventRepository.addConfirmedRequests(event, 1)).thenReturn(true);
+
+        participationRequestService.cancel(1L, 1L);
+
+        assertEquals(ParticipationRequestStatus.CANCELED, request.getStatus());
+        verify(eventRepository).addConfirmedRequests(event, 1);
+        verify(participationRequestRepository, never()).updateStatusByIds(1L, List.of(2L),
+                ParticipationRequestStatus.CONFIRMED, ParticipationRequestStatus.WAITING);
+    }
+
+    @Test
+    void cancelPendingRequestShouldNotChangeConfirmedRequests() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(participationRequestRepository.findById(1L)).thenReturn(Optional.of(request));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(participationRequestRepository.save(any())).thenReturn(request);
+
+        participationRequestService.cancel(1L, 1L);
+
+        assertEquals(ParticipationRequestStatus.CANCELED, request.getStatus());
+        assertEquals(5L, event.getConfirmedRequests());
+        verify(eventRepository, never()).removeConfirmedRequests(any(), anyLong());
+    }
+
     @Test
     void cancelWhenNotRequesterShouldThrowConditionsNotMetException() {
         when(userRepository.findById(2L)).thenReturn(Optional.of(initiator));
@@ -209,14 +308,19 @@ class ParticipationRequestServiceTest {
     void updateStatusShouldConfirmRequests() {
         when(userRepository.findById(2L)).thenReturn(Optional.of(initiator));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
-        when(participationRequestRepository.findAllByEventId(1L)).thenReturn(List.of(request));
+        when(participationRequestRepository.findDtosByEventIdAndIdIn(1L, List.of(1L))).thenReturn(List.of(dto(request)));
+        stubConfirmedRequestsCounter();
+        when(participationRequestRepository.updateStatusByIds(1L, List.of(1L),
+                ParticipationRequestStatus.PENDING, ParticipationRequestStatus.CONFIRMED)).thenReturn(1);
 
         EventRequestStatusUpdateResult result = participationRequestService.updateStatus(2L, 1L, updateRequest);
 
         assertEquals(1, result.getConfirmedRequests().size());
         assertEquals(0, result.getRejectedRequests().size());
         assertEquals(6L, event.getConfirmedRequests());
-        assertEquals(ParticipationRequestStatus.CONFIRMED, request.getStatus());
+        assertEquals(ParticipationRequestStatus.CONFIRMED, result.getConfirmedRequests().iterator().next().getStatus());
+        verify(participationRequestRepository, never()).findAllByEventId(any());
+        verify(participationRequestRepository, never()).saveAll(any());
     }
 
     @Test
@@ -259,8 +363,14 @@ class ParticipationRequestServiceTest {
 
         when(userRepository.findById(2L)).thenReturn(Optional.of(initiator));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
-        when(participationRequestRepository.findAllByEventId(1L))
-                .thenReturn(List.of(request, request2));
+        when(participationRequestRepository.findDtosByEventIdAndIdIn(1L, List.of(1L))).thenReturn(List.of(dto(request)));
+        stubConfirmedRequestsCounter();
+        when(participationRequestRepository.updateStatusByIds(1L, List.of(1L),
+                ParticipationRequestStatus.PENDING, ParticipationRequestStatus.CONFIRMED)).thenReturn(1);
+        when(participationRequestRepository.findPageByEventId(1L, ParticipationRequestStatus.PENDING, 0, 1000, null))
+                .thenReturn(List.of(dto(request2)));
+        when(participationRequestRepository.updateStatusByIds(1L, List.of(2L),
+                ParticipationRequestStatus.PENDING, ParticipationRequestStatus.REJECTED)).thenReturn(1);
 
         updateRequest.setRequestIds(Set.of(1L));
 
@@ -268,8 +378,41 @@ class ParticipationRequestServiceTest {
 
         assertEquals(1, result.getConfirmedRequests().size());
         assertEquals(1, result.getRejectedRequests().size());
-        assertEquals(ParticipationRequestStatus.CONFIRMED, request.getStatus());
-        assertEquals(ParticipationRequestStatus.REJECTED, request2.getStatus());
+        assertEquals(1L, result.getConfirmedRequests().iterator().next().getId());
+        assertEquals(ParticipationRequestStatus.CONFIRMED, result.getConfirmedRequests().iterator().next().getStatus());
+        assertEquals(2L, result.getRejectedRequests().iterator().next().getId());
+        assertEquals(ParticipationRequestStatus.REJECTED, result.getRejectedRequests().iterator().next().getStatus());
+        assertEquals(10L, event.getConfirmedRequests());
+    }
+
+    @Test
+    void updateStatusWhenRemainingRequestChangedConcurrentlyShouldKeepConfirmations() {
+        event.setConfirmedRequests(9L);
+        event.setParticipantLimit(10L);
+
+        when(userRepository.findById(2L)).thenReturn(Optional.of(initiator));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(participationRequestRepository.findDtosByEventIdAndIdIn(1L, List.of(1L))).thenReturn(List.of(dto(request)));
+        stubConfirmedRequestsCounter();
+        when(participationRequestRepository.updateStatusByIds(1L, List.of(1L),
+                ParticipationRequestStatus.PENDING, ParticipationRequestStatus.CONFIRMED)).thenReturn(1);
+        when(participationRequestRepository.findPageByEventId(1L, ParticipationRequestStatus.PENDING, 0, 1000, null))
+                .thenReturn(List.of(pending(2L), pending(3L)));
+        when(participationRequestRepository.updateStatusByIds(1L, List.of(2L, 3L),
+                ParticipationRequestStatus.PENDING, ParticipationRequestStatus.REJECTED)).thenReturn(1);
+        ParticipationRequestDto rejected = pending(2L);
+        rejected.setStatus(ParticipationRequestStatus.REJECTED);
+        ParticipationRequestDto canceled = pending(3L);
+        canceled.setStatus(ParticipationRequestStatus.CANCELED);
+        when(participationRequestRepository.findDtosByEventIdAndIdIn(1L, List.of(2L, 3L)))
+                .thenReturn(List.of(rejected, canceled));
+
+        updateRequest.setRequestIds(Set.of(1L));
+
+        EventRequestStatusUpdateResult result = participationRequestService.updateStatus(2L, 1L, updateRequest);
+
+        assertEquals(1, result.getConfirmedRequests().size());
+        assertEquals(Set.of(rejected), result.getRejectedRequests());
         assertEquals(10L, event.getConfirmedRequests());
     }
 
@@ -294,10 +437,11 @@ class ParticipationRequestServiceTest {
     void updateStatusWhenRequestNotFoundShouldThrowNotFoundException() {
         when(userRepository.findById(2L)).thenReturn(Optional.of(initiator));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
-        when(participationRequestRepository.findAllByEventId(1L)).thenReturn(List.of());
+        when(participationRequestRepository.findDtosByEventIdAndIdIn(1L, List.of(1L))).thenReturn(List.of());
 
         assertThrows(NotFoundException.class,
                 () -> participationRequestService.updateStatus(2L, 1L, updateRequest));
+        verify(participationRequestRepository, never()).updateStatusByIds(any(), any(), any(), any());
     }
 
     @Test
@@ -305,10 +449,25 @@ class ParticipationRequestServiceTest {
         request.setStatus(ParticipationRequestStatus.CONFIRMED);
         when(userRepository.findById(2L)).thenReturn(Optional.of(initiator));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
-        when(participationRequestRepository.findAllByEventId(1L)).thenReturn(List.of(request));
+        when(participationRequestRepository.findDtosByEventIdAndIdIn(1L, List.of(1L))).thenReturn(List.of(dto(request)));
+
+        assertThrows(ConditionsNotMetException.class,
+                () -> participationRequestService.updateStatus(2L, 1L, updateRequest));
+        verify(participationRequestRepository, never()).updateStatusByIds(any(), any(), any(), any());
+    }
+
+    @Test
+    void updateStatusWhenRequestChangedConcurrentlyShouldThrowConditionsNotMetException() {
+        when(userRepository.findById(2L)).thenReturn(Optional.of(initiator));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(participationRequestRepository.findDtosByEventIdAndIdIn(1L, List.of(1L))).thenReturn(List.of(dto(request)));
+        when(eventRepository.addConfirmedRequests(event, 1)).thenReturn(true);
+        when(participationRequestRepository.updateStatusByIds(1L, List.of(1L),
+                ParticipationRequestStatus.PENDING, ParticipationRequestStatus.CONFIRMED)).thenReturn(0);
 
         assertThrows(ConditionsNotMetException.class,
                 () -> participationRequestService.updateStatus(2L, 1L, updateRequest));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -316,7 +475,8 @@ class ParticipationRequestServiceTest {
         event.setConfirmedRequests(10L);
         when(userRepository.findById(2L)).thenReturn(Optional.of(initiator));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
-        when(participationRequestRepository.findAllByEventId(1L)).thenReturn(List.of(request));
+        when(participationRequestRepository.findDtosByEventIdAndIdIn(1L, List.of(1L))).thenReturn(List.of(dto(request)));
+        stubConfirmedRequestsCounter();
 
         assertThrows(ConditionsNotMetException.class,
                 () -> participationRequestService.updateStatus(2L, 1L, updateRequest));
@@ -327,12 +487,40 @@ class ParticipationRequestServiceTest {
         updateRequest.setStatus(ParticipationRequestStatus.REJECTED);
         when(userRepository.findById(2L)).thenReturn(Optional.of(initiator));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
-        when(participationRequestRepository.findAllByEventId(1L)).thenReturn(List.of(request));
+        when(participationRequestRepository.findDtosByEventIdAndIdIn(1L, List.of(1L))).thenReturn(List.of(dto(request)));
+        when(participationRequestRepository.updateStatusByIds(1L, List.of(1L),
+                ParticipationRequestStatus.PENDING, ParticipationRequestStatus.REJECTED)).thenReturn(1);
 
         EventRequestStatusUpdateResult result = participationRequestService.updateStatus(2L, 1L, updateRequest);
 
         assertEquals(0, result.getConfirmedRequests().size());
         assertEquals(1, result.getRejectedRequests().size());
-        assertEquals(ParticipationRequestStatus.REJECTED, request.getStatus());
+        assertEquals(ParticipationRequestStatus.REJECTED, result.getRejectedRequests().iterator().next().getStatus());
+        assertEquals(5L, event.getConfirmedRequests());
+        verify(eventRepository, never()).save(any());
+    }
+
+    private void stubConfirmedRequestsCounter() {
+        when(eventRepository.addConfirmedRequests(eq(event), anyLong())).thenAnswer(invocation -> {
+            long count = invocation.getArgument(1);
+            if (event.getParticipantLimit() != 0 && event.getConfirmedRequests() + count > event.getParticipantLimit()) {
+                return false;
+            }
+            event.setConfirmedRequests(event.getConfirmedRequests() + count);
+            return true;
+        });
+    }
+
+    private ParticipationRequestDto dto(ParticipationRequest participationRequest) {
+        return ParticipationRequestMapper.toParticipationRequestDto(participationRequest);
+    }
+
+    private ParticipationRequestDto pending(Long id) {
+        return ParticipationRequestDto.builder()
+                .id(id)
+                .event(1L)
+                .requester(3L)
+                .status(ParticipationRequestStatus.PENDING)
+                .build();
     }
-}
\ No newline at end of file
+}
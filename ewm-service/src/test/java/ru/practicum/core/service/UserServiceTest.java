@@ -11,6 +11,7 @@ import ru.practicum.core.exception.NotFoundException;
 import ru.practicum.core.persistance.model.User;
 import ru.practicum.core.persistance.model.dto.user.NewUserRequest;
 import ru.practicum.core.persistance.model.dto.user.UserDto;
+import ru.practicum.core.persistance.repository.CategoryEventCounterRepository;
 import ru.practicum.core.persistance.repository.UserRepository;
 import ru.practicum.core.service.impl.UserServiceImpl;
 
@@ -27,6 +28,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CategoryEventCounterRepository categoryEventCounterRepository;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -53,29 +57,29 @@ class UserServiceTest {
 
     @Test
     void getAllWhenNoIdsThenReturnAllUsers() {
-        when(userRepository.findUsers(null, 0, 10)).thenReturn(List.of(user));
+        when(userRepository.findUsers(null, 0, 10, null)).thenReturn(List.of(user));
 
-        List<UserDto> result = userService.getAll(null, 0, 10);
+        List<UserDto> result = userService.getAll(null, 0, 10, null);
 
         assertEquals(1, result.size());
         assertEquals(userDto.getId(), result.getFirst().getId());
         assertEquals(userDto.getName(), result.getFirst().getName());
         assertEquals(userDto.getEmail(), result.getFirst().getEmail());
 
-        verify(userRepository).findUsers(null, 0, 10);
+        verify(userRepository).findUsers(null, 0, 10, null);
     }
 
     @Test
     void getAllWhenWithIdsThenReturnFilteredUsers() {
         List<Long> ids = List.of(1L);
-        when(userRepository.findUsers(ids, 0, 10)).thenReturn(List.of(user));
+        when(userRepository.findUsers(ids, 0, 10, null)).thenReturn(List.of(user));
 
-        List<UserDto> result = userService.getAll(ids, 0, 10);
+        List<UserDto> result = userService.getAll(ids, 0, 10, null);
 
         assertEquals(1, result.size());
         assertEquals(userDto.getId(), result.getFirst().getId());
 
-        verify(userRepository).findUsers(ids, 0, 10);
+        verify(userRepository).findUsers(ids, 0, 10, null);
     }
 
     @Test
@@ -115,6 +119,7 @@ class UserServiceTest {
 
         userService.delete(1L);
 
+        verify(categoryEventCounterRepository).subtractInitiator(1L);
         verify(userRepository).findById(1L);
         verify(userRepository).deleteById(1L);
     }
@@ -0,0 +1,49 @@
+package ru.practicum.core.service.admission;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.core.exception.ConditionsNotMetException;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto;
+import ru.practicum.core.service.event.HotEventCounters;
+import ru.practicum.core.service.impl.ParticipationRequestServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionParticipationRequestServiceTest {
+
+    @Mock
+    private ParticipationRequestServiceImpl participationRequestService;
+
+    @Mock
+    private ParticipationAdmissionEngine admissionEngine;
+
+    @Mock
+    private HotEventCounters hotEventCounters;
+
+    @InjectMocks
+    private AdmissionParticipationRequestService service;
+
+    @Test
+    void createWhenHotEventIsFullShouldRejectWithoutQueueing() {
+        when(hotEventCounters.isFull(1L)).thenReturn(true);
+
+        assertThrows(ConditionsNotMetException.class, () -> service.create(2L, 1L));
+
+        verify(admissionEngine, never()).admit(anyLong(), anyLong());
+    }
+
+    @Test
+    void createWhenEventIsNotFullShouldGoThroughQueue() {
+        ParticipationRequestDto request = ParticipationRequestDto.builder().id(5L).build();
+        when(hotEventCounters.isFull(1L)).thenReturn(false);
+        when(admissionEngine.admit(2L, 1L)).thenReturn(request);
+
+        assertEquals(request, service.create(2L, 1L));
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.core.service.admission;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.core.exception.AdmissionUnavailableException;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestDto;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionRequestTest {
+
+    @Test
+    void unclaimedRequestShouldBeCancelledOnTimeout() {
+        AdmissionRequest request = new AdmissionRequest(2L, 1L);
+
+        assertThrows(AdmissionUnavailableException.class,
+                () -> request.await(Duration.ofMillis(20), Duration.ofSeconds(10)));
+        assertFalse(request.claim());
+    }
+
+    @Test
+    void claimedRequestShouldWaitForWriterWithinWriteTimeout() {
+        AdmissionRequest request = new AdmissionRequest(2L, 1L);
+        ParticipationRequestDto admitted = ParticipationRequestDto.builder().id(5L).build();
+        assertTrue(request.claim());
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(() -> {
+            request.admit(admitted);
+            request.complete();
+        });
+
+        assertEquals(admitted, request.await(Duration.ofMillis(20), Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void stuckWriterShouldNotBlockCallerBeyondWriteTimeout() {
+        AdmissionRequest request = new AdmissionRequest(2L, 1L);
+        assertTrue(request.claim());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(AdmissionUnavailableException.class,
+                () -> request.await(Duration.ofMillis(20), Duration.ofMillis(50))));
+    }
+}
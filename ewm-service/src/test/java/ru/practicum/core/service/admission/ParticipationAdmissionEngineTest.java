@@ -0,0 +1,40 @@
+package ru.practicum.core.service.admission;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.core.exception.AdmissionUnavailableException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ParticipationAdmissionEngineTest {
+
+    @Mock
+    private ParticipationAdmissionWriter writer;
+
+    private ParticipationAdmissionEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    void requestTimedOutInQueueShouldNotBeWritten() {
+        engine = new ParticipationAdmissionEngine(writer, 1, 10, 10, Duration.ofMillis(50), Duration.ofMillis(50));
+
+        assertThrows(AdmissionUnavailableException.class, () -> engine.admit(2L, 1L));
+        engine.start();
+
+        verify(writer, after(300).never()).write(anyLong(), any());
+    }
+}
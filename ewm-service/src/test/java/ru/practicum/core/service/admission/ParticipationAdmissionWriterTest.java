@@ -0,0 +1,88 @@
+package ru.practicum.core.service.admission;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.core.exception.ConditionsNotMetException;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.ParticipationRequest;
+import ru.practicum.core.persistance.model.User;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
+import ru.practicum.core.persistance.repository.EventRepository;
+import ru.practicum.core.persistance.repository.ParticipationRequestRepository;
+import ru.practicum.core.persistance.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ParticipationAdmissionWriterTest {
+
+    @Mock
+    private ParticipationRequestRepository participationRequestRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        event = Event.builder()
+                .id(1L)
+                .initiator(User.builder().id(99L).build())
+                .state(EventState.PUBLISHED)
+                .participantLimit(1L)
+                .confirmedRequests(0L)
+                .requestModeration(false)
+                .build();
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(userRepository.findAllById(any())).thenReturn(List.of(User.builder().id(2L).build(),
+                User.builder().id(3L).build()));
+        when(participationRequestRepository.findRequesterIdsByEventIdAndRequesterIdIn(eq(1L), any())).thenReturn(List.of());
+        when(eventRepository.addConfirmedRequests(event, 1)).thenReturn(true);
+        AtomicLong ids = new AtomicLong();
+        when(participationRequestRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ParticipationRequest> saved = invocation.getArgument(0);
+            saved.forEach(request -> request.setId(ids.incrementAndGet()));
+            return saved;
+        });
+    }
+
+    @Test
+    void requestsOverLimitShouldBeRejectedWithoutWaitlist() {
+        List<AdmissionRequest> requests = write(false);
+
+        assertEquals(ParticipationRequestStatus.CONFIRMED, requests.get(0).await(Duration.ofSeconds(1), Duration.ofSeconds(1)).getStatus());
+        assertThrows(ConditionsNotMetException.class, () -> requests.get(1).await(Duration.ofSeconds(1), Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void requestsOverLimitShouldWaitWhenWaitlistEnabled() {
+        List<AdmissionRequest> requests = write(true);
+
+        assertEquals(ParticipationRequestStatus.CONFIRMED, requests.get(0).await(Duration.ofSeconds(1), Duration.ofSeconds(1)).getStatus());
+        assertEquals(ParticipationRequestStatus.WAITING, requests.get(1).await(Duration.ofSeconds(1), Duration.ofSeconds(1)).getStatus());
+    }
+
+    private List<AdmissionRequest> write(boolean waitlist) {
+        ParticipationAdmissionWriter writer = new ParticipationAdmissionWriter(participationRequestRepository,
+                userRepository, eventRepository, waitlist);
+        List<AdmissionRequest> requests = List.of(new AdmissionRequest(2L, 1L), new AdmissionRequest(3L, 1L));
+        writer.write(1L, requests);
+        requests.forEach(AdmissionRequest::complete);
+        return requests;
+    }
+}
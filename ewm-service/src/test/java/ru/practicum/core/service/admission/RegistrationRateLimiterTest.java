@@ -0,0 +1,88 @@
+package ru.practicum.core.service.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.core.exception.RateLimitExceededException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistrationRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private RegistrationRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new RegistrationRateLimiter(new SimpleMeterRegistry(), true, 10, 5, 1, 2, clock::get);
+    }
+
+    @Test
+    void userShouldBeLimitedAfterBurst() {
+        limiter.acquire(1L, 1L);
+        limiter.acquire(1L, 1L);
+
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class, () -> limiter.acquire(1L, 1L));
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertDoesNotThrow(() -> limiter.acquire(2L, 1L));
+    }
+
+    @Test
+    void tokensShouldBeRefilledOverTime() {
+        limiter.acquire(1L, 1L);
+        limiter.acquire(1L, 1L);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertDoesNotThrow(() -> limiter.acquire(1L, 1L));
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(1L, 1L));
+    }
+
+    @Test
+    void eventShouldBeLimitedAcrossUsers() {
+        for (long userId = 1; userId <= 5; userId++) {
+            limiter.acquire(userId, 1L);
+        }
+
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(6L, 1L));
+        assertDoesNotThrow(() -> limiter.acquire(6L, 2L));
+    }
+
+    @Test
+    void eventRejectionShouldNotConsumeUserTokens() {
+        for (long userId = 2; userId <= 6; userId++) {
+            limiter.acquire(userId, 1L);
+        }
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(1L, 1L));
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(1L, 1L));
+
+        limiter.acquire(1L, 2L);
+        limiter.acquire(1L, 2L);
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(1L, 2L));
+    }
+
+    @Test
+    void idleBucketsShouldBeRemovedWithoutLosingLimits() {
+        limiter.acquire(1L, 1L);
+        limiter.acquire(1L, 1L);
+        limiter.cleanup();
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(1L, 1L));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        limiter.cleanup();
+        limiter.acquire(1L, 1L);
+        limiter.acquire(1L, 1L);
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(1L, 1L));
+    }
+
+    @Test
+    void disabledLimiterShouldAllowEverything() {
+        RegistrationRateLimiter disabled = new RegistrationRateLimiter(new SimpleMeterRegistry(), false, 1, 1, 1, 1, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            disabled.acquire(1L, 1L);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.core.service.category;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.core.persistance.model.Category;
+import ru.practicum.core.persistance.model.dto.category.CategoryDto;
+import ru.practicum.core.persistance.repository.CategoryRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryCatalogTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CategoryCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new CategoryCatalog(categoryRepository, transactionManager, true);
+        when(categoryRepository.findAll()).thenReturn(List.of(new Category(2L, "Кино"), new Category(1L, "Концерты")));
+    }
+
+    @Test
+    void categoriesShouldBeServedFromMemoryAfterFirstLoad() {
+        assertEquals("Концерты", catalog.findById(1L).orElseThrow().getName());
+        assertEquals(List.of(1L, 2L), catalog.findAll(0, 10).stream().map(CategoryDto::getId).toList());
+        assertEquals(List.of(2L), catalog.findAll(1, 1).stream().map(CategoryDto::getId).toList());
+        assertTrue(catalog.findAll(5, 10).isEmpty());
+
+        verify(categoryRepository, times(1)).findAll();
+        verify(categoryRepository, never()).findById(any());
+    }
+
+    @Test
+    void changesShouldReplaceSnapshot() {
+        catalog.findAll(0, 10);
+
+        catalog.onCategoryChanged(new CategoryChangedEvent(3L, new CategoryDto(3L, "Театр")));
+        catalog.onCategoryChanged(new CategoryChangedEvent(1L, new CategoryDto(1L, "Музыка")));
+        catalog.onCategoryChanged(new CategoryChangedEvent(2L, null));
+
+        assertEquals(List.of("Музыка", "Театр"), catalog.findAll(0, 10).stream().map(CategoryDto::getName).toList());
+        verify(categoryRepository, times(1)).findAll();
+    }
+
+    @Test
+    void unknownCategoryShouldBeLookedUpInDatabase() {
+        when(categoryRepository.findById(3L)).thenReturn(Optional.of(new Category(3L, "Театр")));
+        when(categoryRepository.findById(4L)).thenReturn(Optional.empty());
+
+        assertEquals("Театр", catalog.findById(3L).orElseThrow().getName());
+        assertTrue(catalog.findById(4L).isEmpty());
+        assertEquals(3, catalog.findAll(0, 10).size());
+    }
+
+    @Test
+    void refreshShouldPickUpExternalChanges() {
+        catalog.findAll(0, 10);
+        when(categoryRepository.findAll()).thenReturn(List.of(new Category(1L, "Концерты")));
+
+        catalog.refresh();
+
+        assertEquals(List.of(1L), catalog.findAll(0, 10).stream().map(CategoryDto::getId).toList());
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.core.service.compilation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.dto.compilation.CompilationDto;
+import ru.practicum.core.persistance.model.dto.compilation.CompilationSnapshot;
+import ru.practicum.core.persistance.model.dto.event.EventShortDto;
+import ru.practicum.core.persistance.model.dto.category.CategoryDto;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.service.category.CategoryChangedEvent;
+import ru.practicum.core.service.event.EventChangedEvent;
+import ru.practicum.core.utils.PageCursor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompilationSnapshotCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private CompilationSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CompilationSnapshotCache(new ObjectMapper().registerModule(new JavaTimeModule()), true, 2,
+                Duration.ofMinutes(5), clock::get);
+    }
+
+    @Test
+    void snapshotShouldBeBuiltOnceAndReused() {
+        CompilationSnapshot first = cache.getCompilation(1L, () -> load(1L, 10L));
+        CompilationSnapshot second = cache.getCompilation(1L, () -> load(1L, 10L));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertTrue(first.getETag().startsWith("\""));
+        assertNotEquals(first.getETag(), first.getGzipETag());
+    }
+
+    @Test
+    void changedEventShouldInvalidateOnlySnapshotsContainingIt() {
+        cache.getCompilation(1L, () -> load(1L, 10L));
+        cache.getCompilation(2L, () -> load(2L, 20L));
+        cache.getListing(true, 0, 10, null, () -> List.of(load(1L, 10L)));
+        loads.set(0);
+
+        cache.onEventChanged(new EventChangedEvent(Event.builder().id(10L).state(EventState.PUBLISHED).build(),
+                EventState.PUBLISHED));
+        cache.getCompilation(1L, () -> load(1L, 10L));
+        cache.getCompilation(2L, () -> load(2L, 20L));
+        cache.getListing(true, 0, 10, null, () -> List.of(load(1L, 10L)));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void changedCompilationShouldInvalidateItAndAllListings() {
+        cache.getCompilation(1L, () -> load(1L, 10L));
+        cache.getCompilation(2L, () -> load(2L, 20L));
+        cache.getListing(null, 0, 10, null, () -> List.of(load(2L, 20L)));
+        loads.set(0);
+
+        cache.onCompilationChanged(new CompilationChangedEvent(1L));
+        cache.getCompilation(1L, () -> load(1L, 10L));
+        cache.getCompilation(2L, () -> load(2L, 20L));
+        cache.getListing(null, 0, 10, null, () -> List.of(load(2L, 20L)));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void changedCategoryShouldInvalidateAllSnapshots() {
+        cache.getCompilation(1L, () -> load(1L, 10L));
+        cache.getListing(null, 0, 10, null, () -> List.of(load(1L, 10L)));
+        loads.set(0);
+
+        cache.onCategoryChanged(new CategoryChangedEvent(5L, new CategoryDto(5L, "Концерты")));
+        cache.getCompilation(1L, () -> load(1L, 10L));
+        cache.getListing(null, 0, 10, null, () -> List.of(load(1L, 10L)));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void snapshotBuiltDuringInvalidationShouldNotBeStored() {
+        cache.getCompilation(1L, () -> {
+            cache.onCompilationChanged(new CompilationChangedEvent(1L));
+            return load(1L, 10L);
+        });
+        cache.getCompilation(1L, () -> load(1L, 10L));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void cursorPagesAndExpiredSnapshotsShouldBeRebuilt() {
+        cache.getListing(null, 0, 1, PageCursor.ofId(1L), () -> List.of(load(2L, 20L)));
+        cache.getListing(null, 0, 1, PageCursor.ofId(1L), () -> List.of(load(2L, 20L)));
+        assertEquals(2, loads.get());
+
+        cache.getCompilation(1L, () -> load(1L, 10L));
+        clock.addAndGet(Duration.ofMinutes(6).toNanos());
+        cache.getCompilation(1L, () -> load(1L, 10L));
+        assertEquals(4, loads.get());
+    }
+
+    private CompilationDto load(Long id, Long eventId) {
+        loads.incrementAndGet();
+        EventShortDto event = new EventShortDto();
+        event.setId(eventId);
+        return CompilationDto.builder()
+                .id(id)
+                .title("Подборка " + id)
+                .pinned(true)
+                .events(List.of(event))
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.core.service.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import ru.practicum.core.persistance.model.dto.category.CategoryDto;
+import ru.practicum.core.persistance.model.dto.event.EventExportFormat;
+import ru.practicum.core.persistance.model.dto.event.EventFullDto;
+import ru.practicum.core.persistance.model.dto.event.Location;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.model.dto.user.UserShortDto;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventExportWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final EventExportWriter writer = new EventExportWriter(objectMapper);
+
+    @Test
+    void ndjsonShouldWriteOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long written = writer.write(Stream.of(event(1L, "Концерт"), event(2L, "Выставка")), EventExportFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, written);
+        assertEquals(2, lines.length);
+        assertEquals("Выставка", objectMapper.readTree(lines[1]).get("title").asText());
+        assertEquals("2030-05-01 19:00:00", objectMapper.readTree(lines[0]).get("eventDate").asText());
+    }
+
+    @Test
+    void csvShouldWriteHeaderAndEscapeValues() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        writer.write(Stream.of(event(1L, "Концерт \"Весна\", часть 1")), EventExportFormat.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("id,title,annotation,categoryId,categoryName,initiatorId,initiatorName,state,eventDate,createdOn," +
+                "publishedOn,paid,participantLimit,confirmedRequests,requestModeration,lat,lon,views", lines[0]);
+        assertEquals("1,\"Концерт \"\"Весна\"\", часть 1\",Аннотация,3,Музыка,4,Организатор,PUBLISHED," +
+                "2030-05-01 19:00:00,2030-04-01 10:00:00,,true,10,2,false,55.75,37.62,", lines[1]);
+    }
+
+    private EventFullDto event(Long id, String title) {
+        return EventFullDto.builder()
+                .id(id)
+                .title(title)
+                .annotation("Аннотация")
+                .category(new CategoryDto(3L, "Музыка"))
+                .initiator(new UserShortDto(4L, "Организатор"))
+                .state(EventState.PUBLISHED)
+                .eventDate(LocalDateTime.of(2030, 5, 1, 19, 0))
+                .createdOn(LocalDateTime.of(2030, 4, 1, 10, 0))
+                .paid(true)
+                .participantLimit(10L)
+                .confirmedRequests(2L)
+                .requestModeration(false)
+                .location(new Location(55.75, 37.62))
+                .build();
+    }
+}
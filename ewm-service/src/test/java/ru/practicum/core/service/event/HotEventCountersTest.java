@@ -0,0 +1,124 @@
+package ru.practicum.core.service.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.model.dto.request.ParticipationRequestStatus;
+import ru.practicum.core.persistance.repository.EventRepository;
+import ru.practicum.core.persistance.repository.ParticipationRequestRepository;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotEventCountersTest {
+    private static final long THRESHOLD = 3;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private ParticipationRequestRepository participationRequestRepository;
+
+    private HotEventCounters counters;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        counters = new HotEventCounters(eventRepository, participationRequestRepository, new SimpleMeterRegistry(), true, THRESHOLD);
+        event = Event.builder()
+                .id(1L)
+                .state(EventState.PUBLISHED)
+                .participantLimit(2L)
+                .confirmedRequests(1L)
+                .build();
+    }
+
+    @Test
+    void eventShouldBecomeHotAfterThresholdAttempts() {
+        makeHot(1L);
+
+        assertTrue(counters.isHot(1L));
+        assertFalse(counters.isFull(1L));
+    }
+
+    @Test
+    void rarelyRequestedEventShouldNotBeLoaded() {
+        counters.isFull(1L);
+        counters.reconcile();
+
+        assertFalse(counters.isHot(1L));
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void confirmedChangesShouldBeAppliedWithoutDatabase() {
+        makeHot(1L);
+
+        counters.onConfirmedRequestsChanged(new ConfirmedRequestsChangedEvent(1L, 1, false));
+        assertTrue(counters.isFull(1L));
+
+        counters.onConfirmedRequestsChanged(new ConfirmedRequestsChangedEvent(1L, -1, false));
+        assertFalse(counters.isFull(1L));
+        verify(participationRequestRepository, times(2)).countByEventIdAndStatus(1L, ParticipationRequestStatus.CONFIRMED);
+    }
+
+    @Test
+    void reconcileShouldRepairOnlyPersistentDrift() {
+        makeHot(1L);
+        when(participationRequestRepository.countByEventIdAndStatus(1L, ParticipationRequestStatus.CONFIRMED)).thenReturn(2L);
+
+        keepHot(1L);
+        counters.reconcile();
+        assertFalse(counters.isFull(1L));
+
+        keepHot(1L);
+        counters.reconcile();
+        assertTrue(counters.isFull(1L));
+    }
+
+    @Test
+    void unpublishedOrQuietEventShouldStopBeingHot() {
+        makeHot(1L);
+        event.setState(EventState.CANCELED);
+        counters.onEventChanged(new EventChangedEvent(event, EventState.PUBLISHED));
+        assertFalse(counters.isHot(1L));
+
+        event.setState(EventState.PUBLISHED);
+        makeHot(1L);
+        counters.reconcile();
+        assertFalse(counters.isHot(1L));
+    }
+
+    @Test
+    void disabledCountersShouldNeverReject() {
+        HotEventCounters disabled = new HotEventCounters(eventRepository, participationRequestRepository,
+                new SimpleMeterRegistry(), false, 1);
+        disabled.isFull(1L);
+        disabled.reconcile();
+
+        assertFalse(disabled.isFull(1L));
+        verifyNoInteractions(eventRepository);
+    }
+
+    private void makeHot(Long eventId) {
+        when(eventRepository.findById(eventId)).thenReturn(Optional.of(event));
+        lenient().when(participationRequestRepository.countByEventIdAndStatus(eventId, ParticipationRequestStatus.CONFIRMED))
+                .thenReturn(event.getConfirmedRequests());
+        keepHot(eventId);
+        counters.reconcile();
+    }
+
+    private void keepHot(Long eventId) {
+        for (int i = 0; i < THRESHOLD; i++) {
+            counters.isFull(eventId);
+        }
+    }
+}
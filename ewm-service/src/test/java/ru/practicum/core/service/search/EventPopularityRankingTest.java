@@ -0,0 +1,136 @@
+package ru.practicum.core.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.core.persistance.model.Category;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchOrder;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.repository.EventRepository;
+import ru.practicum.core.service.event.EventChangedEvent;
+import ru.practicum.core.utils.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventPopularityRankingTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private EventPopularityRanking ranking;
+    private Category concerts;
+    private Event rockConcert;
+    private Event jazzConcert;
+    private Event movie;
+
+    @BeforeEach
+    void setUp() {
+        ranking = new EventPopularityRanking(eventRepository, true);
+        concerts = new Category(1L, "Концерты");
+        Category cinema = new Category(2L, "Кино");
+
+        rockConcert = event(1L, concerts, true, 10L);
+        jazzConcert = event(2L, concerts, false, 30L);
+        movie = event(3L, cinema, false, 20L);
+
+        when(eventRepository.findAllByStateAndEventDateAfter(eq(EventState.PUBLISHED), any()))
+                .thenReturn(List.of(rockConcert, jazzConcert, movie));
+        ranking.rebuild();
+    }
+
+    @Test
+    void searchShouldReturnEventsOrderedByViews() {
+        assertEquals(Optional.of(List.of(2L, 3L, 1L)), ranking.search(search().build()));
+    }
+
+    @Test
+    void searchShouldMergeCategoryRankingsAndApplyPaidFilter() {
+        assertEquals(Optional.of(List.of(2L, 1L)), ranking.search(search().categories(List.of(1L)).build()));
+        assertEquals(Optional.of(List.of(2L, 3L)), ranking.search(search().categories(List.of(1L, 2L)).paid(false).build()));
+    }
+
+    @Test
+    void searchShouldApplyPaginationAndCursor() {
+        assertEquals(Optional.of(List.of(3L)), ranking.search(search().from(1).size(1).build()));
+        assertEquals(Optional.of(List.of(3L, 1L)),
+                ranking.search(search().cursor(PageCursor.of(30L, 2L)).size(5).build()));
+    }
+
+    @Test
+    void searchShouldSkipEventsWithoutFreeSlotsWhenOnlyAvailable() {
+        jazzConcert.setParticipantLimit(5L);
+        jazzConcert.setConfirmedRequests(5L);
+        ranking.onEventChanged(new EventChangedEvent(jazzConcert, EventState.PUBLISHED));
+
+        assertEquals(Optional.of(List.of(3L, 1L)), ranking.search(search().onlyAvailable(true).build()));
+    }
+
+    @Test
+    void viewChangesShouldBeAppliedIncrementally() {
+        rockConcert.setViews(50L);
+        ranking.onEventChanged(new EventChangedEvent(rockConcert, EventState.PUBLISHED));
+        movie.setState(EventState.CANCELED);
+        ranking.onEventChanged(new EventChangedEvent(movie, EventState.PUBLISHED));
+        Event opera = event(4L, concerts, true, 40L);
+        ranking.onEventChanged(new EventChangedEvent(opera, EventState.PENDING));
+
+        assertEquals(Optional.of(List.of(1L, 4L, 2L)), ranking.search(search().build()));
+        assertEquals(Optional.of(List.of(1L, 4L)), ranking.search(search().categories(List.of(1L)).size(2).build()));
+    }
+
+    @Test
+    void pruneShouldDropEventsThatHavePassed() {
+        assertEquals(2, ranking.prune(LocalDateTime.now().plusDays(2).plusHours(12)));
+
+        assertEquals(Optional.of(List.of(3L)), ranking.search(search().build()));
+        assertEquals(Optional.of(List.of()), ranking.search(search().categories(List.of(1L)).build()));
+    }
+
+    @Test
+    void searchShouldNotSupportTextGeoOrOtherSorts() {
+        assertFalse(ranking.supports(search().text("концерт").build()));
+        assertFalse(ranking.supports(search().sort(EventSearchOrder.EVENT_DATE).build()));
+        assertFalse(ranking.supports(search().lat(55.75).lon(37.62).radius(5.0).build()));
+        assertFalse(ranking.supports(search().rangeStart(LocalDateTime.now().minusDays(1)).build()));
+    }
+
+    @Test
+    void disabledRankingShouldNotServeSearches() {
+        EventPopularityRanking disabled = new EventPopularityRanking(eventRepository, false);
+        disabled.rebuild();
+
+        assertTrue(disabled.search(search().build()).isEmpty());
+    }
+
+    private EventSearchCommon.EventSearchCommonBuilder search() {
+        return EventSearchCommon.builder()
+                .onlyAvailable(false)
+                .sort(EventSearchOrder.VIEWS);
+    }
+
+    private Event event(Long id, Category category, boolean paid, Long views) {
+        return Event.builder()
+                .id(id)
+                .title("Событие " + id)
+                .category(category)
+                .paid(paid)
+                .views(views)
+                .participantLimit(0L)
+                .confirmedRequests(0L)
+                .eventDate(LocalDateTime.now().plusDays(id))
+                .state(EventState.PUBLISHED)
+                .build();
+    }
+}
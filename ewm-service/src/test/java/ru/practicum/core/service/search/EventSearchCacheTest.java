@@ -0,0 +1,142 @@
+package ru.practicum.core.service.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.dto.event.EventShortDto;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchOrder;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.service.event.ConfirmedRequestsChangedEvent;
+import ru.practicum.core.service.event.EventChangedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSearchCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+    private EventSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new EventSearchCache(meterRegistry, true, 2, Duration.ofSeconds(30), Duration.ofSeconds(5), clock::get);
+    }
+
+    @Test
+    void sameNormalizedSearchShouldBeServedFromCache() {
+        cache.get(search().text("Концерт").categories(List.of(2L, 1L)).build(), loader());
+        List<EventShortDto> result = cache.get(search().text("концерт").categories(List.of(1L, 2L, 1L)).build(), loader());
+
+        assertEquals(1, loads.get());
+        assertEquals(1L, result.getFirst().getId());
+        assertEquals(1.0, meterRegistry.get("ewm.search.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(0.5, meterRegistry.get("ewm.search.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void changeOfPublishedEventShouldInvalidateEntriesAfterStaleWindow() {
+        cache.get(search().build(), loader());
+        cache.onEventChanged(change(EventState.PUBLISHED, EventState.PENDING));
+
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        cache.get(search().build(), loader());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("ewm.search.cache.requests").tag("result", "stale").counter().count());
+
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        cache.get(search().build(), loader());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void changeOfUnpublishedEventShouldKeepEntries() {
+        cache.get(search().build(), loader());
+        cache.onEventChanged(change(EventState.PENDING, EventState.PENDING));
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        cache.get(search().build(), loader());
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void confirmedRequestsChangeShouldInvalidateEntriesOnlyWhenAvailabilityChanged() {
+        cache.get(search().build(), loader());
+        cache.onConfirmedRequestsChanged(new ConfirmedRequestsChangedEvent(1L, 1, false));
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        cache.get(search().build(), loader());
+        assertEquals(1, loads.get());
+
+        cache.onConfirmedRequestsChanged(new ConfirmedRequestsChangedEvent(1L, 1, true));
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        cache.get(search().build(), loader());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void expiredEntriesShouldBeReloaded() {
+        cache.get(search().build(), loader());
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        cache.get(search().build(), loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryShouldBeEvictedWhenFull() {
+        cache.get(search().paid(true).build(), loader());
+        cache.get(search().paid(false).build(), loader());
+        cache.get(search().paid(true).build(), loader());
+        cache.get(search().sort(EventSearchOrder.VIEWS).build(), loader());
+
+        cache.get(search().paid(true).build(), loader());
+        assertEquals(3, loads.get());
+        cache.get(search().paid(false).build(), loader());
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.size());
+        assertEquals(2.0, meterRegistry.get("ewm.search.cache.evictions").counter().count());
+    }
+
+    @Test
+    void disabledCacheShouldAlwaysLoad() {
+        EventSearchCache disabled = new EventSearchCache(new SimpleMeterRegistry(), false, 2,
+                Duration.ofSeconds(30), Duration.ZERO, clock::get);
+
+        disabled.get(search().build(), loader());
+        disabled.get(search().build(), loader());
+
+        assertEquals(2, loads.get());
+        assertEquals(0, disabled.size());
+    }
+
+    private Supplier<List<EventShortDto>> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return List.of(EventShortDto.builder().id(1L).title("Событие").build());
+        };
+    }
+
+    private EventChangedEvent change(EventState state, EventState previousState) {
+        return new EventChangedEvent(Event.builder().id(1L).state(state).build(), previousState);
+    }
+
+    private EventSearchCommon.EventSearchCommonBuilder search() {
+        return EventSearchCommon.builder()
+                .onlyAvailable(false)
+                .sort(EventSearchOrder.EVENT_DATE)
+                .from(0)
+                .size(10);
+    }
+}
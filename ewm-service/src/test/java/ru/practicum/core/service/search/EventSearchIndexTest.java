@@ -0,0 +1,152 @@
+package ru.practicum.core.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.core.persistance.model.Category;
+import ru.practicum.core.persistance.model.Event;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchCommon;
+import ru.practicum.core.persistance.model.dto.event.filter.EventSearchOrder;
+import ru.practicum.core.persistance.model.dto.event.state.EventState;
+import ru.practicum.core.persistance.repository.EventRepository;
+import ru.practicum.core.service.event.EventChangedEvent;
+import ru.practicum.core.utils.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventSearchIndexTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private EventSearchIndex index;
+    private Category concerts;
+    private Category cinema;
+    private Event rockConcert;
+    private Event jazzConcert;
+    private Event movie;
+
+    @BeforeEach
+    void setUp() {
+        index = new EventSearchIndex(eventRepository, true);
+        concerts = new Category(1L, "Концерты");
+        cinema = new Category(2L, "Кино");
+
+        rockConcert = event(1L, "Рок-концерт", concerts, true, LocalDateTime.now().plusDays(3));
+        jazzConcert = event(2L, "Джазовый концерт", concerts, false, LocalDateTime.now().plusDays(1));
+        movie = event(3L, "Премьера фильма", cinema, false, LocalDateTime.now().plusDays(2));
+
+        when(eventRepository.findAllByStateAndEventDateAfter(eq(EventState.PUBLISHED), any()))
+                .thenReturn(List.of(rockConcert, jazzConcert, movie));
+        index.rebuild();
+    }
+
+    @Test
+    void searchWithoutFiltersShouldReturnEventsOrderedByDate() {
+        Optional<List<Long>> result = index.search(search().build());
+
+        assertEquals(Optional.of(List.of(2L, 3L, 1L)), result);
+    }
+
+    @Test
+    void searchByTextShouldMatchTokenPrefixesCaseInsensitive() {
+        Optional<List<Long>> result = index.search(search().text("КОНЦЕРТ").build());
+
+        assertEquals(Optional.of(List.of(2L, 1L)), result);
+    }
+
+    @Test
+    void searchShouldApplyCategoryAndPaidFilters() {
+        assertEquals(Optional.of(List.of(1L)), index.search(search().categories(List.of(1L)).paid(true).build()));
+        assertEquals(Optional.of(List.of(2L, 3L)), index.search(search().categories(List.of(1L, 2L)).paid(false).build()));
+    }
+
+    @Test
+    void searchShouldApplyDateRangeAndPagination() {
+        EventSearchCommon search = search()
+                .rangeStart(LocalDateTime.now().plusHours(1))
+                .rangeEnd(LocalDateTime.now().plusDays(2).plusHours(1))
+                .from(1)
+                .size(1)
+                .build();
+
+        assertEquals(Optional.of(List.of(3L)), index.search(search));
+    }
+
+    @Test
+    void searchWithCursorShouldContinueAfterCursorEvent() {
+        EventSearchCommon search = search()
+                .size(1)
+                .cursor(PageCursor.of(jazzConcert.getEventDate(), jazzConcert.getId()))
+                .build();
+
+        assertEquals(Optional.of(List.of(3L)), index.search(search));
+    }
+
+    @Test
+    void changesShouldBeAppliedIncrementally() {
+        movie.setState(EventState.CANCELED);
+        index.onEventChanged(new EventChangedEvent(movie, EventState.PUBLISHED));
+        jazzConcert.setTitle("Джазовый вечер");
+        index.onEventChanged(new EventChangedEvent(jazzConcert, EventState.PUBLISHED));
+        Event opera = event(4L, "Опера", concerts, true, LocalDateTime.now().plusDays(4));
+        index.onEventChanged(new EventChangedEvent(opera, EventState.PENDING));
+
+        assertEquals(Optional.of(List.of(2L, 1L, 4L)), index.search(search().build()));
+        assertEquals(Optional.of(List.of(1L)), index.search(search().text("концерт").build()));
+    }
+
+    @Test
+    void pruneShouldDropEventsThatHavePassed() {
+        LocalDateTime now = jazzConcert.getEventDate().plusMinutes(1);
+
+        assertEquals(1, index.prune(now));
+        assertEquals(0, index.prune(now));
+        assertEquals(Optional.of(List.of(3L, 1L)), index.search(search().build()));
+    }
+
+    @Test
+    void searchShouldNotSupportFiltersOutsideTheIndex() {
+        assertFalse(index.supports(search().onlyAvailable(true).build()));
+        assertFalse(index.supports(search().sort(EventSearchOrder.VIEWS).build()));
+        assertFalse(index.supports(search().rangeStart(LocalDateTime.now().minusDays(1)).build()));
+        assertTrue(index.search(search().text("!!!").build()).isEmpty());
+    }
+
+    @Test
+    void disabledIndexShouldNotServeSearches() {
+        EventSearchIndex disabled = new EventSearchIndex(eventRepository, false);
+        disabled.rebuild();
+
+        assertTrue(disabled.search(search().build()).isEmpty());
+    }
+
+    private EventSearchCommon.EventSearchCommonBuilder search() {
+        return EventSearchCommon.builder()
+                .onlyAvailable(false)
+                .sort(EventSearchOrder.EVENT_DATE);
+    }
+
+    private Event event(Long id, String title, Category category, boolean paid, LocalDateTime eventDate) {
+        return Event.builder()
+                .id(id)
+                .title(title)
+                .annotation("Аннотация события " + id)
+                .description("Описание события " + id)
+                .category(category)
+                .paid(paid)
+                .eventDate(eventDate)
+                .state(EventState.PUBLISHED)
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.core.service.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import ru.practicum.core.persistance.model.dto.user.UserImportFormat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserImportReaderTest {
+
+    private final UserImportReader reader = new UserImportReader(new ObjectMapper());
+
+    @Test
+    void jsonArrayShouldBeReadElementByElement() {
+        List<UserImportRow> rows = read("[{\"email\":\"a@example.com\",\"name\":\"Анна\"}," +
+                "{\"email\":\"b@example.com\",\"name\":\"Борис\"}]", UserImportFormat.JSON);
+
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.get(1).getRow());
+        assertEquals("b@example.com", rows.get(1).getUser().getEmail());
+        assertNull(rows.get(1).getError());
+    }
+
+    @Test
+    void jsonSequenceShouldSkipMalformedRecord() {
+        List<UserImportRow> rows = read("{\"email\":\"a@example.com\",\"name\":\"Анна\"}\n" +
+                "{\"email\":{},\"name\":\"Борис\"}\n" +
+                "{\"email\":\"c@example.com\",\"name\":\"Вера\"}\n", UserImportFormat.JSON);
+
+        assertEquals(3, rows.size());
+        assertNull(rows.get(1).getUser());
+        assertNotNull(rows.get(1).getError());
+        assertEquals("c@example.com", rows.get(2).getUser().getEmail());
+    }
+
+    @Test
+    void csvShouldMapColumnsByHeaderAndUnquoteValues() {
+        List<UserImportRow> rows = read("name,email\n" +
+                "\"Иванов, \"\"Иван\"\"\",ivan@example.com\n" +
+                "\n" +
+                "только имя\n", UserImportFormat.CSV);
+
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.get(0).getRow());
+        assertEquals("Иванов, \"Иван\"", rows.get(0).getUser().getName());
+        assertEquals("ivan@example.com", rows.get(0).getUser().getEmail());
+        assertEquals(4, rows.get(1).getRow());
+        assertNotNull(rows.get(1).getError());
+    }
+
+    @Test
+    void csvWithoutRequiredColumnsShouldBeRejected() {
+        List<UserImportRow> rows = read("login,name\nivan,Иван\n", UserImportFormat.CSV);
+
+        assertEquals(1, rows.size());
+        assertNull(rows.getFirst().getUser());
+    }
+
+    private List<UserImportRow> read(String body, UserImportFormat format) {
+        List<UserImportRow> rows = new ArrayList<>();
+        reader.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.core.utils;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.core.persistance.model.dto.event.filter.GeoBox;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoHashTest {
+
+    @Test
+    void encodeShouldMatchReferenceGeohash() {
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+        assertEquals("ucfv0jdp9d10", GeoHash.encode(55.754167, 37.62, 12));
+    }
+
+    @Test
+    void decodeShouldReturnCellCenter() {
+        double[] center = GeoHash.decode("u4pruydqqvj");
+
+        assertEquals(57.64911, center[0], 0.0001);
+        assertEquals(10.40744, center[1], 0.0001);
+    }
+
+    @Test
+    void nextPrefixShouldCarryOverLastAlphabetCharacter() {
+        assertEquals("u4q", GeoHash.nextPrefix("u4p"));
+        assertEquals("u5", GeoHash.nextPrefix("u4z"));
+        assertNull(GeoHash.nextPrefix("zz"));
+    }
+
+    @Test
+    void coverShouldReturnFewCellsContainingEveryPointOfBox() {
+        GeoBox box = GeoHash.boxAround(55.754167, 37.62, 5);
+
+        List<GeoHash.Range> ranges = GeoHash.cover(box, 9);
+
+        assertTrue(ranges.size() <= 9);
+        for (double lat = box.getMinLat(); lat <= box.getMaxLat(); lat += 0.01) {
+            for (double lon = box.getMinLon(); lon <= box.getMaxLon(); lon += 0.01) {
+                String hash = GeoHash.encode(lat, lon, GeoHash.MAX_PRECISION);
+                assertTrue(ranges.stream().anyMatch(range -> hash.compareTo(range.getFrom()) >= 0
+                        && (range.getTo() == null || hash.compareTo(range.getTo()) < 0)), hash);
+            }
+        }
+        assertTrue(ranges.getFirst().getFrom().length() >= 4);
+    }
+}